@@ -0,0 +1,102 @@
+package com.zamzar.mock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.examples.Datasets;
+import com.zamzar.mock.examples.ExamplesRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+/**
+ * Serving a page of jobs ({@code GET /v1/jobs}), first from a warm cache ({@code transform*}) and then reading every
+ * example from scratch ({@code readAllCold}), as after the examples change
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexTransformerBenchmark {
+
+    protected static final Predicate<JsonNode> ALL = n -> true;
+
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    protected FileSource fileSource;
+    protected ExamplesRepository repo;
+    protected IndexTransformer transformer;
+    protected ServeEvent firstPage;
+    protected ServeEvent middlePage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fileSource = Datasets.create(size);
+        repo = new ExamplesRepository(fileSource);
+        transformer = new IndexTransformer();
+        firstPage = serveEvent("/v1/jobs");
+        middlePage = serveEvent("/v1/jobs?after=" + (size / 2 + 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Datasets.delete(fileSource);
+    }
+
+    @Benchmark
+    public Response transformFirstPage() {
+        return transformer.transform(Response.response().build(), firstPage);
+    }
+
+    @Benchmark
+    public Response transformMiddlePage() {
+        return transformer.transform(Response.response().build(), middlePage);
+    }
+
+    @Benchmark
+    public List<JsonNode> readAllCold() throws JsonProcessingException {
+        return new IndexTransformer().readAll(repo, "jobs", false, ".initialising", ALL);
+    }
+
+    protected ServeEvent serveEvent(String url) {
+        return ServeEvent.of(new ImmutableRequest.Builder()
+                .withMethod(RequestMethod.GET)
+                .withAbsoluteUrl("http://localhost" + url)
+                .build())
+            .withStubMapping(get(anyUrl()).willReturn(aResponse()
+                .withTransformers(IndexTransformer.NAME)
+                .withTransformerParameters(Map.of(
+                    IndexTransformer.EXAMPLES_REPOSITORY_PARAMETER, repo,
+                    IndexTransformer.RESOURCE_PARAMETER, "jobs",
+                    IndexTransformer.FILENAME_SUFFIX_PARAMETER, ".initialising",
+                    IndexTransformer.ID_FIELD_NAME_PARAMETER, "id",
+                    IndexTransformer.ASCENDING_PARAMETER, false,
+                    IndexTransformer.PREDICATE_PARAMETER, ALL
+                ))
+            ).build());
+    }
+}
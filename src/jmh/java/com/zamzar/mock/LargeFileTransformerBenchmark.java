@@ -0,0 +1,96 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+/**
+ * Streaming a large file ({@code GET /v1/files/{id}/content}) in full, and a 1 MB range of it. Run with
+ * {@code -prof gc} to see how much each download allocates, which should not grow with the size of the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LargeFileTransformerBenchmark {
+
+    protected static final int BUFFER_SIZE = 8192;
+
+    @Param({"1", "64"})
+    public int sizeInMb;
+
+    @Param({"ZEROS", "RANDOM"})
+    public String pattern;
+
+    protected LargeFileTransformer transformer;
+    protected ServeEvent full;
+    protected ServeEvent range;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transformer = new LargeFileTransformer();
+        full = serveEvent(new ImmutableRequest.Builder());
+        range = serveEvent(new ImmutableRequest.Builder().withHeader("Range", "bytes=0-1048575"));
+    }
+
+    @Benchmark
+    public long downloadFull(Blackhole blackhole) throws IOException {
+        return drain(transformer.transform(Response.response().build(), full), blackhole);
+    }
+
+    @Benchmark
+    public long downloadRange(Blackhole blackhole) throws IOException {
+        return drain(transformer.transform(Response.response().build(), range), blackhole);
+    }
+
+    // reads the body as Jetty would, into a reused buffer
+    protected static long drain(Response response, Blackhole blackhole) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        try (InputStream body = response.getBodyStream()) {
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                total += read;
+                blackhole.consume(buffer);
+            }
+        }
+        return total;
+    }
+
+    protected ServeEvent serveEvent(ImmutableRequest.Builder request) {
+        return ServeEvent.of(request
+                .withMethod(RequestMethod.GET)
+                .withAbsoluteUrl("http://localhost/v1/files/3/content")
+                .build())
+            .withStubMapping(get(anyUrl()).willReturn(aResponse()
+                .withTransformers(LargeFileTransformer.NAME)
+                .withTransformerParameters(Map.of(
+                    LargeFileTransformer.GET_SIZE_IN_MB_PARAMETER, sizeInMb,
+                    LargeFileTransformer.PATTERN_PARAMETER, pattern
+                ))
+            ).build());
+    }
+}
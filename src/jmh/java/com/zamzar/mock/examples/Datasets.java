@@ -0,0 +1,68 @@
+package com.zamzar.mock.examples;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Examples directories of a given size, for benchmarks. Each has {@code count} files and {@code count} jobs (each job
+ * with an initialising and a completed variant), written to a temporary directory.
+ */
+public class Datasets {
+
+    public static FileSource create(int count) {
+        try {
+            final Path root = Files.createTempDirectory("zamzar-mock-benchmark");
+            final Path files = Files.createDirectories(root.resolve("__files").resolve("files"));
+            final Path jobs = Files.createDirectories(root.resolve("__files").resolve("jobs"));
+            for (int id = 1; id <= count; id++) {
+                Files.writeString(files.resolve(id + ".json"), file(id), StandardCharsets.UTF_8);
+                Files.writeString(jobs.resolve(id + ".initialising.json"), job(id, "initialising"), StandardCharsets.UTF_8);
+                Files.writeString(jobs.resolve(id + ".completed.json"), job(id, "successful"), StandardCharsets.UTF_8);
+            }
+            return new SingleRootFileSource(root.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void delete(FileSource fileSource) {
+        try (Stream<Path> paths = Files.walk(Path.of(fileSource.getPath()))) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected static String file(int id) {
+        return "{\n" +
+            "  \"id\" : " + id + ",\n" +
+            "  \"key\" : \"GiVUYsF4A8ssq93FR48H\",\n" +
+            "  \"name\" : \"example-" + id + ".mp3\",\n" +
+            "  \"size\" : " + (48065 + id) + ",\n" +
+            "  \"format\" : \"mp3\",\n" +
+            "  \"created_at\" : \"2024-01-01T00:00:00Z\"\n" +
+            "}";
+    }
+
+    protected static String job(int id, String status) {
+        return "{\n" +
+            "  \"id\": " + id + ",\n" +
+            "  \"status\": \"" + status + "\",\n" +
+            "  \"target_format\": \"txt\",\n" +
+            "  \"source_file\": {\n" +
+            "    \"id\": " + id + ",\n" +
+            "    \"name\": \"example-" + id + ".mp3\",\n" +
+            "    \"size\": " + (48065 + id) + "\n" +
+            "  },\n" +
+            "  \"target_files\": []\n" +
+            "}";
+    }
+}
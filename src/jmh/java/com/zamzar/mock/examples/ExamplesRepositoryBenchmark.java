@@ -0,0 +1,72 @@
+package com.zamzar.mock.examples;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The lookups every stubbed request makes: listing a resource's ids, checking that an id exists and parsing an example
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExamplesRepositoryBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    protected FileSource fileSource;
+    protected ExamplesRepository repo;
+    protected String middleId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fileSource = Datasets.create(size);
+        repo = new ExamplesRepository(fileSource);
+        middleId = String.valueOf(size / 2 + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Datasets.delete(fileSource);
+    }
+
+    @Benchmark
+    public Collection<String> all() {
+        return repo.all("jobs");
+    }
+
+    @Benchmark
+    public Collection<String> allIncludingState() {
+        return repo.all("jobs", true);
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return repo.exists("jobs", middleId);
+    }
+
+    @Benchmark
+    public JsonNode parse() throws JsonProcessingException {
+        return repo.parse("jobs", middleId + ".completed");
+    }
+}
@@ -0,0 +1,66 @@
+package com.zamzar.mock.pagination;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding a page of a list, anchored after or before an item in the middle of the list. {@code applyToList} includes
+ * indexing the list by id, as a caller without a cached {@link IndexedList} would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageCoordinatesBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    @Param({"after", "before"})
+    public String orientation;
+
+    protected List<JsonNode> items;
+    protected IndexedList indexed;
+    protected PageCoordinates coordinates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // newest first, as the API lists items
+        items = new ArrayList<>(size);
+        for (int id = size; id >= 1; id--) {
+            items.add(JsonNodeFactory.instance.objectNode().put("id", id));
+        }
+        indexed = new IndexedList(items, "id");
+
+        final String middle = String.valueOf(size / 2 + 1);
+        coordinates = new PageCoordinates("after".equals(orientation) ? Anchor.after(middle) : Anchor.before(middle), PageCoordinates.MAX_LIMIT);
+    }
+
+    @Benchmark
+    public List<JsonNode> applyToIndexedList() {
+        return coordinates.applyTo(indexed);
+    }
+
+    @Benchmark
+    public List<JsonNode> applyToList() {
+        return coordinates.applyTo(items, "id");
+    }
+}
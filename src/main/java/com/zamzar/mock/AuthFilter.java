@@ -0,0 +1,45 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.requestfilter.RequestFilterAction;
+import com.github.tomakehurst.wiremock.extension.requestfilter.StubRequestFilterV2;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+/**
+ * Answers requests that lack the API key with a 401, like the real API, before any stub is matched. This saves every
+ * stub from having to match the {@code Authorization} header itself.
+ */
+public class AuthFilter implements StubRequestFilterV2 {
+
+    public static final String NAME = "auth-filter";
+
+    protected final String authorization;
+    protected final byte[] body;
+
+    /**
+     * @param body of the 401
+     */
+    public AuthFilter(String apiKey, byte[] body) {
+        this.authorization = "Bearer " + apiKey;
+        this.body = body;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public RequestFilterAction filter(Request request, ServeEvent serveEvent) {
+        if (authorization.equals(request.getHeader("Authorization"))) {
+            return RequestFilterAction.continueWith(request);
+        }
+
+        return RequestFilterAction.stopWith(ResponseDefinitionBuilder.responseDefinition()
+            .withStatus(401)
+            .withHeader("Content-Type", "application/json")
+            .withBody(body)
+            .build());
+    }
+}
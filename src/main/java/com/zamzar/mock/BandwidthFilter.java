@@ -0,0 +1,94 @@
+package com.zamzar.mock;
+
+import com.zamzar.mock.faults.Bandwidth;
+import com.zamzar.mock.faults.FaultProfile;
+import com.zamzar.mock.faults.FaultProfiles;
+import com.zamzar.mock.faults.Throttle;
+import com.zamzar.mock.faults.ThrottledInputStream;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Reads request bodies (e.g. uploads to {@code POST /v1/files}) at the upload bandwidth of the active
+ * {@link FaultProfile}, so that clients see their uploads held back as they would be over a slow link. Wiremock reads
+ * request bodies before any stub or transformer sees them, so this is done in front of Wiremock, as a servlet filter.
+ */
+public class BandwidthFilter implements Filter {
+
+    protected final FaultProfiles profiles;
+
+    public BandwidthFilter(FaultProfiles profiles) {
+        this.profiles = profiles;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        final HttpServletRequest http = (HttpServletRequest) request;
+        final Optional<Throttle> throttle = http.getContentLengthLong() == 0 ?
+            Optional.empty() :
+            profiles.throttle(FaultInjectionTransformer.groupOf(http.getRequestURI()), Bandwidth.Direction.UPLOAD);
+        chain.doFilter(throttle.isEmpty() ? request : new ThrottledRequest(http, throttle.get()), response);
+    }
+
+    protected static class ThrottledRequest extends HttpServletRequestWrapper {
+        protected final Throttle throttle;
+        protected ServletInputStream stream;
+
+        protected ThrottledRequest(HttpServletRequest request, Throttle throttle) {
+            super(request);
+            this.throttle = throttle;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                final ServletInputStream original = super.getInputStream();
+                final InputStream throttled = new ThrottledInputStream(original, throttle);
+                stream = new ServletInputStream() {
+                    // set once the body is read asynchronously
+                    protected volatile boolean async;
+
+                    @Override
+                    public boolean isFinished() {
+                        return original.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return original.isReady();
+                    }
+
+                    // the throttle waits by sleeping, which asynchronous readers must not do on the container's
+                    // threads, so their reads are not held back
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        async = true;
+                        original.setReadListener(readListener);
+                    }
+
+                    @Override
+                    public int read() throws IOException {
+                        return async ? original.read() : throttled.read();
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        return async ? original.read(b, off, len) : throttled.read(b, off, len);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+}
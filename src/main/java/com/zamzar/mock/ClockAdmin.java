@@ -0,0 +1,71 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.common.Errors;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.zamzar.mock.state.VirtualClock;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Admin endpoints for the {@link VirtualClock}, which decides how far jobs and imports have progressed when they move
+ * through their lifecycle over time:
+ * <ul>
+ *     <li>{@code GET /__admin/clock} shows the time according to the mock</li>
+ *     <li>{@code POST /__admin/clock/advance?seconds=N} moves the clock forward</li>
+ *     <li>{@code POST /__admin/clock/reset} brings the clock back to real time</li>
+ * </ul>
+ * Mocks that share their states share the clock too, so moving it through one mock moves it for all of them.
+ */
+public class ClockAdmin implements AdminApiExtension {
+
+    public static final String NAME = "clock-admin";
+
+    protected final VirtualClock clock;
+
+    public ClockAdmin(VirtualClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/clock", (admin, serveEvent, pathParams) -> describe());
+
+        router.add(RequestMethod.POST, "/clock/advance", (admin, serveEvent, pathParams) -> {
+            final QueryParameter seconds = serveEvent.getRequest().queryParameter("seconds");
+            final Duration duration;
+            try {
+                duration = Duration.ofMillis(Math.round(Double.parseDouble(seconds.firstValue()) * 1000));
+            } catch (RuntimeException e) {
+                return ResponseDefinition.badRequest(Errors.single(10, "seconds must be given as a number, e.g. ?seconds=3600"));
+            }
+            if (duration.isNegative()) {
+                return ResponseDefinition.badRequest(Errors.single(10, "The clock cannot go back"));
+            }
+
+            clock.advance(duration);
+            return describe();
+        });
+
+        router.add(RequestMethod.POST, "/clock/reset", (admin, serveEvent, pathParams) -> {
+            clock.reset();
+            return describe();
+        });
+    }
+
+    protected ResponseDefinition describe() {
+        return ResponseDefinition.okForJson(Map.of(
+            "now", clock.now().toString(),
+            "offset_seconds", clock.getOffset().toMillis() / 1000.0
+        ));
+    }
+}
@@ -1,19 +1,60 @@
 package com.zamzar.mock;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
-import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubImportBuilder;
+import com.zamzar.mock.content.FileContent;
+import com.zamzar.mock.content.SyntheticContent;
+import com.zamzar.mock.examples.BodyCache;
+import com.zamzar.mock.examples.CreatedLog;
 import com.zamzar.mock.examples.ExamplesRepository;
+import com.zamzar.mock.faults.FaultProfile;
+import com.zamzar.mock.faults.FaultProfiles;
+import com.zamzar.mock.journal.JournalMode;
+import com.zamzar.mock.journal.JournalStores;
+import com.zamzar.mock.journal.RingJournalStore;
+import com.zamzar.mock.metrics.Metrics;
+import com.zamzar.mock.routing.Routes;
+import com.zamzar.mock.state.Lifecycle;
+import com.zamzar.mock.state.Lifecycle.Outcome;
+import com.zamzar.mock.state.DurationDistribution;
+import com.zamzar.mock.state.MappedStateStore;
+import com.zamzar.mock.state.MemoryStateStore;
+import com.zamzar.mock.state.StateStore;
+import com.zamzar.mock.state.VirtualClock;
+import com.zamzar.mock.synthetic.Distribution;
+import com.zamzar.mock.synthetic.SyntheticFiles;
+import com.zamzar.mock.synthetic.SyntheticImports;
+import com.zamzar.mock.synthetic.SyntheticJobs;
+import com.zamzar.mock.uploads.UploadFilter;
+import com.zamzar.mock.uploads.Uploads;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
@@ -27,6 +68,38 @@ public class ConfigureWireMock {
 
     protected static final String BASE_PATH = "/v1";
 
+    protected static final int DEFAULT_PORT = 8080;
+
+    // Wiremock's own defaults
+    protected static final int DEFAULT_CONTAINER_THREADS = Options.DEFAULT_CONTAINER_THREADS;
+    protected static final int DEFAULT_ASYNC_RESPONSE_THREADS = 10;
+
+    protected static final long DEFAULT_LARGE_FILE_SIZE = 256L * 1024 * 1024;
+
+    // far more than the examples take up, so that every body is read from disk once
+    protected static final long DEFAULT_BODY_CACHE_SIZE = 16L * 1024 * 1024;
+
+    // smaller responses are not worth compressing: they fit in a packet either way
+    protected static final int DEFAULT_COMPRESSION_MIN_SIZE = 1024;
+
+    // Wiremock reads (up to) this many bytes of every response body into its request journal. Without a limit, each
+    // download of the large file would be buffered in full, defeating the point of streaming it.
+    protected static final int MAX_LOGGED_RESPONSE_SIZE = 64 * 1024;
+
+    // requests kept by a ring journal: with bodies of up to MAX_LOGGED_RESPONSE_SIZE, at most 64MB
+    protected static final int DEFAULT_JOURNAL_SIZE = 1000;
+
+    // Generated items have ids from here on, well clear of the ids of the examples
+    protected static final long DEFAULT_SYNTHETIC_FIRST_ID = 1000;
+
+    // The stub for single items matches any id, so it must come after stubs for particular paths (e.g. the large file)
+    protected static final int ROUTED_PRIORITY = 10;
+
+    // How long jobs and imports spend in each state, when they move through their lifecycle over time
+    protected static final String DEFAULT_INITIALISING_TIME = "1s";
+    protected static final String DEFAULT_CONVERSION_TIME = "2s..10s+100ms/MB";
+    protected static final String DEFAULT_DOWNLOAD_TIME = "1s..5s+50ms/MB";
+
     protected final WireMockServer wiremock;
 
     @Deprecated
@@ -34,19 +107,50 @@ public class ConfigureWireMock {
 
     protected final ExamplesRepository examples;
 
+    protected final StateStore states;
+
+    protected final VirtualClock clock;
+
+    // spec -> parsed durations, as durations are worked out whenever a job or import is polled
+    protected final Map<String, DurationDistribution> durations = new ConcurrentHashMap<>();
+
+    protected final Startup startup;
+
+    // the lifecycle of every example, so that one stub serves every item (see stubRoutes)
+    protected final Routes routes = new Routes(BASE_PATH);
+
+    // stubs to register once they have all been built (see registerStubs)
+    protected final List<MappingBuilder> stubs = new ArrayList<>();
+
+    // e.g. "jobs/1.completed" -> the parsed example, parsed once at startup
+    protected Map<String, JsonNode> parsedExamples = Map.of();
 
     public static void main(String[] args) throws IOException {
         printBanner();
 
+        final Startup startup = new Startup();
         final FileSource fileSource = new SingleRootFileSource(PATH_TO_EXAMPLES);
-        final WireMockServer wireMockServer = startWireMock(fileSource);
-        new ConfigureWireMock(wireMockServer, fileSource).run();
-
-        // Keep the application running
-        try {
-            Thread.sleep(Long.MAX_VALUE);
-        } catch (InterruptedException e) {
-        }
+        final StateStore states = createStates();
+        final VirtualClock clock = new VirtualClock(System::currentTimeMillis, states.clockOffset());
+        final FaultProfiles profiles = startup.time("fault-profiles", () -> loadFaultProfiles(fileSource));
+        final Metrics metrics = new Metrics();
+        final Uploads uploads = createUploads();
+        final Optional<CreatedLog> createdLog = createCreatedLog();
+        final WireMockServer wireMockServer = startup.time("server", () ->
+            startWireMock(Settings.getInt("port", DEFAULT_PORT), fileSource, states, clock, profiles, metrics, uploads, startup));
+        final ConfigureWireMock configureWireMock = new ConfigureWireMock(wireMockServer, fileSource, states, clock, uploads, startup);
+        configureWireMock.measure(metrics);
+        createdLog.ifPresent(configureWireMock::shareCreated);
+        configureWireMock.run();
+
+        // Jetty's threads keep the application running once main returns, until it is stopped
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            wireMockServer.stop();
+            // shared uploads are kept, like the rest of the shared state
+            if (createdLog.isEmpty()) {
+                uploads.clear();
+            }
+        }, "zamzar-mock-shutdown"));
     }
 
     protected static void printBanner() {
@@ -62,43 +166,342 @@ public class ConfigureWireMock {
         System.out.println();
     }
 
-    protected static WireMockServer startWireMock(FileSource fileSource) {
+    /**
+     * Keeps states in memory, or in a file that several mocks share (so that they can be load balanced)
+     */
+    protected static StateStore createStates() {
+        switch (stateStoreKind()) {
+            case MAPPED:
+                final String file = stateFile();
+                final MappedStateStore mapped = new MappedStateStore(Path.of(file), Settings.getInt("state.capacity", MappedStateStore.DEFAULT_CAPACITY));
+                System.out.println("Sharing state through " + file + " (" + mapped.getCapacity() + " scenarios)");
+                return mapped;
+
+            default:
+                return new MemoryStateStore();
+        }
+    }
+
+    protected static StateStore.Kind stateStoreKind() {
+        return StateStore.Kind.of(Settings.getString("state.store", "memory"));
+    }
+
+    protected static String stateFile() {
+        return Settings.get("state.file")
+            .orElseThrow(() -> new IllegalArgumentException("Setting state.file is required by the mapped state store"));
+    }
+
+    /**
+     * Keeps the jobs and files created through the API next to the state file, if mocks share their states, so that
+     * every mock serves them
+     */
+    protected static Optional<CreatedLog> createCreatedLog() {
+        if (stateStoreKind() != StateStore.Kind.MAPPED) {
+            return Optional.empty();
+        }
+        return Optional.of(new CreatedLog(Path.of(stateFile() + ".created")));
+    }
+
+    /**
+     * Stores uploads in the configured directory, or else next to the state file (if mocks share their states) or in a
+     * new temporary directory
+     */
+    protected static Uploads createUploads() {
+        final Optional<String> directory = Settings.get("uploads.dir");
+        try {
+            if (directory.isPresent()) {
+                return new Uploads(Path.of(directory.get()), contentTransfer());
+            }
+            if (stateStoreKind() == StateStore.Kind.MAPPED) {
+                return new Uploads(Path.of(stateFile() + ".uploads"), contentTransfer());
+            }
+
+            // uploads are deleted when the server stops, and then the directory
+            final Path temporary = Files.createTempDirectory("zamzar-mock-uploads");
+            temporary.toFile().deleteOnExit();
+            return new Uploads(temporary, contentTransfer());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create directory for uploads", e);
+        }
+    }
+
+    protected static FileContent.Transfer contentTransfer() {
+        return FileContent.Transfer.of(Settings.getString("content.transfer", "mapped"));
+    }
+
+    /**
+     * Loads the fault profiles (see {@code src/main/resources/profiles}), activating the one named by
+     * {@code ZAMZAR_MOCK_FAULT_PROFILE} (if any)
+     */
+    protected static FaultProfiles loadFaultProfiles(FileSource fileSource) {
+        final FaultProfiles profiles = new FaultProfiles();
+        profiles.load(fileSource.child("profiles"));
+        profiles.activate(Settings.getString("fault-profile", FaultProfile.NONE));
+        return profiles;
+    }
+
+    // e.g. "401" for the body of errors/401.json, which is sent before any stub (and so any transformer) is involved
+    protected static byte[] errorBody(FileSource fileSource, String name) {
+        return fileSource.child("__files").child("errors").getBinaryFileNamed(name + ".json").readContents();
+    }
+
+    /**
+     * @param port the port to listen on, or 0 for any free port
+     */
+    protected static WireMockServer startWireMock(int port, FileSource fileSource, StateStore states, VirtualClock clock, FaultProfiles profiles, Metrics metrics, Uploads uploads, Startup startup) {
+        final ServerThreadPoolFactory threads = new ServerThreadPoolFactory(Settings.getBoolean("server.virtual-threads", true));
+        final boolean compression = Settings.getBoolean("compression", true);
         final WireMockConfiguration config = options()
+            .port(port)
+            .httpServerFactory(new JettyServerFactory(Settings.getInt("compression.min-size", DEFAULT_COMPRESSION_MIN_SIZE))
+                // request bodies are slowed down before they are read, whether by Wiremock or the upload filter
+                .withFilter("/*", new BandwidthFilter(profiles))
+                // Wiremock would read each upload into memory, so uploads are stored before it sees them
+                .withFilter(BASE_PATH + "/files", new UploadFilter(uploads, CreateFileTransformer.CONTENT_PART)))
+            .gzipDisabled(!compression)
+            .threadPoolFactory(threads)
+            .containerThreads(Settings.getInt("server.container-threads", DEFAULT_CONTAINER_THREADS))
+            // delayed responses (e.g. from fault profiles) wait on a scheduler, rather than holding on to their thread
+            .asynchronousResponseEnabled(Settings.getBoolean("server.async-responses", false))
+            .asynchronousResponseThreads(Settings.getInt("server.async-response-threads", DEFAULT_ASYNC_RESPONSE_THREADS))
             .fileSource(fileSource)
-            .extensions(new IndexTransformer())
-            .extensions(new LargeFileTransformer());
+            .maxLoggedResponseSize(Settings.getInt("journal.body-size", MAX_LOGGED_RESPONSE_SIZE))
+            .extensions(new TimedTransformer(new IndexTransformer(), metrics))
+            .extensions(new TimedTransformer(new LargeFileTransformer(), metrics))
+            .extensions(new ExampleTransformer())
+            .extensions(new RoutingTransformer())
+            .extensions(new CreateJobTransformer())
+            .extensions(new CreateFileTransformer())
+            .extensions(new TenantsAdmin(states))
+            .extensions(new ClockAdmin(clock))
+            .extensions(new ProfilesAdmin(profiles))
+            .extensions(new MetricsAdmin(metrics))
+            .extensions(new MetricsListener(metrics))
+            .extensions(new ReadinessAdmin(startup))
+            .extensions(new AuthFilter(API_KEY, errorBody(fileSource, "401")))
+            // registered last, so that it breaks responses after every other transformer has made them
+            .extensions(new FaultInjectionTransformer(profiles, errorBody(fileSource, "500")));
+
+        // like the real API, each API key can make a burst of requests and then a number of requests per second
+        final int burst = Settings.getInt("rate-limit.burst", 0);
+        if (burst > 0) {
+            config.extensions(new RateLimitFilter(burst, Settings.getDouble("rate-limit.per-second", burst), errorBody(fileSource, "429")));
+        }
+
+        journal(config, fileSource, metrics);
+
+        // Jetty picks the number of acceptors from the number of processors, unless told otherwise
+        final int acceptors = Settings.getInt("server.acceptors", 0);
+        if (acceptors > 0) {
+            config.jettyAcceptors(acceptors);
+        }
 
         final WireMockServer wireMockServer = new WireMockServer(config);
         wireMockServer.start();
 
         System.out.println("zamzar-mock is running at: " + wireMockServer.baseUrl());
+        if (threads.usesVirtualThreads()) {
+            System.out.println("Handling requests on virtual threads");
+        }
         System.out.println();
 
         return wireMockServer;
     }
 
-    public ConfigureWireMock(WireMockServer wiremock, FileSource fileSource) {
+    /**
+     * Keeps requests in Wiremock's request journal as configured. A mock that runs for days would otherwise keep every
+     * request it has ever served.
+     */
+    protected static void journal(WireMockConfiguration config, FileSource fileSource, Metrics metrics) {
+        switch (JournalMode.of(Settings.getString("journal.mode", "unbounded"))) {
+            case RING:
+                final RingJournalStore ring = new RingJournalStore(Settings.getInt("journal.size", DEFAULT_JOURNAL_SIZE));
+                config.withStores(new JournalStores(fileSource, ring));
+                metrics.gauge("zamzar_mock_journal_entries", "Requests in the request journal", ring::size);
+                metrics.counter("zamzar_mock_journal_evictions_total", "Requests dropped from the request journal to make room for later ones", ring::getEvictions);
+                break;
+
+            case OFF:
+                // requests are still counted and timed by the metrics listener
+                config.disableRequestJournal();
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    public ConfigureWireMock(WireMockServer wiremock, FileSource fileSource, StateStore states, VirtualClock clock, Uploads uploads, Startup startup) {
         this.wiremock = wiremock;
         this.fileSource = fileSource;
-        this.examples = new ExamplesRepository(fileSource);
+        this.examples = startup.time("index", () -> new ExamplesRepository(fileSource));
+        this.examples.transferContent(contentTransfer());
+        this.examples.storeUploads(uploads);
+        this.examples.cacheBodies(Settings.getLong("body-cache.size", DEFAULT_BODY_CACHE_SIZE));
+        this.examples.compressBodies(Settings.getBoolean("compression", true), Settings.getInt("compression.min-size", DEFAULT_COMPRESSION_MIN_SIZE));
+        this.states = states;
+        this.clock = clock;
+        this.startup = startup;
+    }
+
+    /**
+     * Shares the jobs and files created through the API, and their uploads, with the other mocks writing to the log
+     */
+    public void shareCreated(CreatedLog log) {
+        examples.shareCreated(log);
+    }
+
+    /**
+     * Adds the figures of the examples' {@link BodyCache} to the metrics
+     */
+    public void measure(Metrics metrics) {
+        final BodyCache cache = examples.getBodyCache();
+        metrics.counter("zamzar_mock_body_cache_hits_total", "Bodies of examples served from memory", cache::getHits);
+        metrics.counter("zamzar_mock_body_cache_misses_total", "Bodies of examples read from disk", cache::getMisses);
+        metrics.counter("zamzar_mock_body_cache_evictions_total", "Bodies of examples evicted to make room for others", cache::getEvictions);
+        metrics.gauge("zamzar_mock_body_cache_bytes", "Size of the bodies of examples in memory", cache::getBytes);
+        metrics.gauge("zamzar_mock_body_cache_entries", "Number of bodies of examples in memory", cache::getSize);
     }
 
     public void run() {
-        stubAccount();
-        stubFiles();
-        stubFormats();
-        stubImports();
-        stubJobs();
-        stubCatchAlls();
+        if (Settings.getBoolean("examples.watch", false)) {
+            examples.watch();
+        }
+
+        parsedExamples = startup.time("examples", examples::parseAll);
+        startup.time("synthetic-data", this::generateSyntheticData);
+
+        // created ids follow on from every example and generated id, so they never collide
+        examples.creatable("jobs", examples.maxId("jobs") + 1);
+        examples.creatable("files", examples.maxId("files") + 1);
+
+        startup.time("stubs", () -> {
+            stubAccount();
+            stubFiles();
+            stubFormats();
+            stubImports();
+            stubJobs();
+            stubRoutes();
+        });
+        startup.time("register", this::registerStubs);
+
+        startup.ready();
+        System.out.println("zamzar-mock is ready (" + startup + ")");
+        System.out.println();
+    }
+
+    protected void stub(MappingBuilder stub) {
+        stubs.add(stub);
+    }
+
+    /**
+     * Registers every stub in a single import, rather than one at a time. Wiremock imports stubs from last to first, so
+     * they are given in reverse: as when they are registered one at a time, a later stub then takes precedence over an
+     * earlier one with the same priority.
+     */
+    protected void registerStubs() {
+        final StubImportBuilder bulk = StubImport.stubImport();
+        for (int i = stubs.size() - 1; i >= 0; i--) {
+            bulk.stub(stubs.get(i));
+        }
+        wiremock.importStubs(bulk.build());
+        stubs.clear();
+    }
+
+    /**
+     * Generates jobs, files and imports (in addition to the examples) when configured to, e.g. with
+     * {@code ZAMZAR_MOCK_SYNTHETIC_JOBS=1000000}. Items are generated on demand, so large data sets start instantly.
+     */
+    protected void generateSyntheticData() {
+        final int jobCount = Settings.getInt("synthetic.jobs", 0);
+        final int fileCount = Settings.getInt("synthetic.files", 0);
+        final int importCount = Settings.getInt("synthetic.imports", 0);
+        if (jobCount == 0 && fileCount == 0 && importCount == 0) {
+            return;
+        }
+
+        final long seed = Settings.getLong("synthetic.seed", 0);
+        final long firstId = Settings.getLong("synthetic.first-id", DEFAULT_SYNTHETIC_FIRST_ID);
+        final Map<String, List<String>> conversions = readConversions();
+        final List<String> formats = new ArrayList<>(conversions.keySet());
+
+        final SyntheticFiles files = new SyntheticFiles(firstId, fileCount, seed, API_KEY, formats);
+        if (fileCount > 0) {
+            examples.generate(files);
+        }
+        if (jobCount > 0) {
+            examples.generate(new SyntheticJobs(
+                firstId,
+                jobCount,
+                seed,
+                files,
+                conversions,
+                Distribution.parse(Settings.getString("synthetic.job-statuses", SyntheticJobs.DEFAULT_STATUSES)),
+                Settings.getInt("synthetic.max-target-files", 4)
+            ));
+        }
+        if (importCount > 0) {
+            examples.generate(new SyntheticImports(
+                firstId,
+                importCount,
+                seed,
+                API_KEY,
+                files,
+                formats,
+                Distribution.parse(Settings.getString("synthetic.import-statuses", SyntheticImports.DEFAULT_STATUSES))
+            ));
+        }
+
+        System.out.println("Generated " + jobCount + " jobs, " + fileCount + " files and " + importCount + " imports (seed: " + seed + ")");
+    }
+
+    // source format -> target formats, from the examples of formats
+    protected Map<String, List<String>> readConversions() {
+        final Map<String, List<String>> conversions = new TreeMap<>(); // sorted, so that generation is deterministic
+        for (String name : examples.all("formats")) {
+            final List<String> targets = new ArrayList<>();
+            parseExample("formats", name).path("targets").forEach(t -> targets.add(t.get("name").asText()));
+            if (!targets.isEmpty()) {
+                conversions.put(name, targets);
+            }
+        }
+        return conversions;
+    }
+
+    /**
+     * Stubs every request for a single item (e.g. {@code GET /v1/jobs/1}) with one stub, which looks the item up in
+     * {@link #routes}. Items without an example of their own are created through the API or generated.
+     */
+    protected void stubRoutes() {
+        final String resources = String.join("|", routes.getResources());
+        final String suffixes = routes.getSuffixes().stream()
+            .filter(suffix -> !suffix.isEmpty())
+            .map(Pattern::quote)
+            .collect(Collectors.joining("|"));
+
+        stub(any(urlPathMatching(BASE_PATH + "/(" + resources + ")/[^/]+(" + suffixes + ")?"))
+            .atPriority(ROUTED_PRIORITY)
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withTransformers(RoutingTransformer.NAME)
+                .withTransformerParameter(RoutingTransformer.EXAMPLES_REPOSITORY_PARAMETER, examples)
+                .withTransformerParameter(RoutingTransformer.ROUTES_PARAMETER, routes)
+                .withTransformerParameter(RoutingTransformer.STATE_STORE_PARAMETER, states)
+                .withTransformerParameter(RoutingTransformer.CLOCK_PARAMETER, clock)
+                .withTransformerParameter(RoutingTransformer.PRETTY_PARAMETER, Settings.getBoolean("json.pretty", true))
+            ));
     }
 
     protected void stubAccount() {
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/account"))
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
+        stub(get(urlPathEqualTo(BASE_PATH + "/account"))
             .willReturn(aResponse()
                 .withStatus(200)
                 .withHeader("Content-Type", "application/json")
-                .withBodyFile("account.json")));
+                .withTransformers(ExampleTransformer.NAME)
+                .withTransformerParameter(ExampleTransformer.EXAMPLES_REPOSITORY_PARAMETER, examples)
+                .withTransformerParameter(ExampleTransformer.RESOURCE_PARAMETER, "")
+                .withTransformerParameter(ExampleTransformer.EXAMPLE_PARAMETER, "account")));
     }
 
     protected void stubFiles() {
@@ -110,76 +513,57 @@ public class ConfigureWireMock {
             .collect(Collectors.toList());
 
         fileIds.forEach(this::stubFile);
+        stubCreatedFiles();
         stubPaginatedList("files", "id", false);
         stubLargeFile();
         stubFileUpload();
     }
 
     protected void stubLargeFile() {
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/files/0"))
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
+        final long size = Settings.getLong("large-file.size", DEFAULT_LARGE_FILE_SIZE);
+        final SyntheticContent.Pattern pattern = SyntheticContent.Pattern.of(Settings.getString("large-file.pattern", "zeros"));
+        final long seed = Settings.getLong("large-file.seed", 0);
+
+        // the size of the large file is configurable, so keep its metadata in step with its content
+        final ObjectNode metadata;
+        try {
+            metadata = (ObjectNode) examples.parse("files", "0");
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not parse metadata for large file", e);
+        }
+        metadata.put("size", size);
+
+        stub(get(urlPathEqualTo(BASE_PATH + "/files/0"))
             .willReturn(aResponse()
                 .withStatus(200)
                 .withHeader("Content-Type", "application/json")
-                .withBodyFile("files/0.json")));
+                .withJsonBody(metadata)));
 
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/files/0/content"))
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
+        stub(get(urlPathEqualTo(BASE_PATH + "/files/0/content"))
             .willReturn(aResponse()
                 .withStatus(200)
                 .withTransformers(LargeFileTransformer.NAME)
-                .withTransformerParameter(LargeFileTransformer.GET_SIZE_IN_MB_PARAMETER, 256)
+                .withTransformerParameter(LargeFileTransformer.SIZE_IN_BYTES_PARAMETER, size)
+                .withTransformerParameter(LargeFileTransformer.PATTERN_PARAMETER, pattern.name())
+                .withTransformerParameter(LargeFileTransformer.SEED_PARAMETER, seed)
             ));
     }
 
     protected void stubFile(int id) {
-        final String scenarioName = "FileDeletion" + id;
+        final Lifecycle lifecycle = new Lifecycle("files", String.valueOf(id))
+            .on(Lifecycle.GET, StateStore.INITIAL_STATE, Outcome.example(String.valueOf(id)))
+            .on(Lifecycle.CONTENT, StateStore.INITIAL_STATE, Outcome.content())
+            .on(Lifecycle.DELETE, StateStore.INITIAL_STATE, Outcome.example(String.valueOf(id)), "FileDeleted");
 
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/files/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs(Scenario.STARTED)
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("files/" + id + ".json")));
-
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/files/" + id + "/content"))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs(Scenario.STARTED)
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/octet-stream")
-                .withBodyFile("files/content/" + id)));
-
-        wiremock.stubFor(delete(urlPathEqualTo(BASE_PATH + "/files/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs(Scenario.STARTED)
-            .willSetStateTo("FileDeleted")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("files/" + id + ".json")));
-
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/files/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs("FileDeleted")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(404)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("errors/404.json")));
+        routes.add(lifecycle);
+    }
 
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/files/" + id + "/content"))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs("FileDeleted")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(404)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("errors/404.json")));
+    // files created through the API (which can be deleted, like examples), and generated files (which never change)
+    protected void stubCreatedFiles() {
+        routes.share("files", new Lifecycle("files", "*")
+            .on(Lifecycle.GET, StateStore.INITIAL_STATE, Outcome.example(""))
+            .on(Lifecycle.CONTENT, StateStore.INITIAL_STATE, Outcome.content())
+            .on(Lifecycle.DELETE, StateStore.INITIAL_STATE, Outcome.example(""), "FileDeleted"));
     }
 
     protected void stubFormats() {
@@ -194,21 +578,19 @@ public class ConfigureWireMock {
     }
 
     protected void stubFormat(String name) {
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/formats/" + name))
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("formats/" + name + ".json")));
+        // formats never change, so they never leave their initial state (and so take up no state)
+        routes.add(new Lifecycle("formats", name)
+            .on(Lifecycle.GET, StateStore.INITIAL_STATE, Outcome.example(name)));
     }
 
     protected void stubFileUpload() {
-        wiremock.stubFor(post(urlPathEqualTo(BASE_PATH + "/files"))
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
+        stub(post(urlPathEqualTo(BASE_PATH + "/files"))
             .willReturn(aResponse()
                 .withStatus(201)
                 .withHeader("Content-Type", "application/json")
-                .withBodyFile("files/1.json")));
+                .withTransformers(CreateFileTransformer.NAME)
+                .withTransformerParameter(CreateFileTransformer.EXAMPLES_REPOSITORY_PARAMETER, examples)
+                .withTransformerParameter(CreateFileTransformer.PRETTY_PARAMETER, Settings.getBoolean("json.pretty", true))));
     }
 
     protected void stubImports() {
@@ -220,43 +602,34 @@ public class ConfigureWireMock {
             .collect(Collectors.toList());
 
         importIds.forEach(this::stubImport);
+        routes.share("imports", null);
         stubPaginatedList("imports", ".initialising", "id", false);
         stubStartImport();
     }
 
     protected void stubImport(int id) {
-        final String scenarioName = "ImportProgression" + id;
-
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/imports/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs(Scenario.STARTED)
-            .willSetStateTo("ImportDownloading")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("imports/" + id + ".initialising.json")));
-
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/imports/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs("ImportDownloading")
-            .willSetStateTo("ImportCompleted")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("imports/" + id + ".downloading.json")));
-
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/imports/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs("ImportCompleted")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("imports/" + id + ".completed.json")));
+        final JsonNode completed = parseExample("imports", id + ".completed");
+        final long size = completed.path("file").path("size").asLong();
+
+        final Lifecycle lifecycle = new Lifecycle("imports", String.valueOf(id));
+        if (isTimed()) {
+            lifecycle
+                .on(Lifecycle.GET, StateStore.INITIAL_STATE, Outcome.example(id + ".initialising"), "ImportInitialising")
+                .on(Lifecycle.GET, "ImportInitialising", Outcome.example(id + ".initialising"))
+                .after("ImportInitialising", i -> duration("lifecycle.initialising-time", DEFAULT_INITIALISING_TIME, "imports/" + i, 0), "ImportDownloading")
+                .on(Lifecycle.GET, "ImportDownloading", Outcome.example(id + ".downloading"))
+                .after("ImportDownloading", i -> duration("lifecycle.download-time", DEFAULT_DOWNLOAD_TIME, "imports/" + i, size), "ImportCompleted");
+        } else {
+            lifecycle
+                .on(Lifecycle.GET, StateStore.INITIAL_STATE, Outcome.example(id + ".initialising"), "ImportDownloading")
+                .on(Lifecycle.GET, "ImportDownloading", Outcome.example(id + ".downloading"), "ImportCompleted");
+        }
+        lifecycle
+            .on(Lifecycle.GET, "ImportCompleted", Outcome.example(id + ".completed"))
+            .on(Lifecycle.DESTROY, Lifecycle.ANY_STATE, Outcome.empty(), "Destroyed")
+            .on(Lifecycle.GET, "Destroyed", Outcome.notFound());
 
-        stubDestroy("imports", String.valueOf(id), scenarioName);
+        routes.add(lifecycle);
     }
 
     protected void stubStartImport() {
@@ -266,8 +639,7 @@ public class ConfigureWireMock {
         // is no file to upload. This is a common mistake, so we should handle it gracefully.
         stubCreate("imports", "multipart/form-data");
 
-        wiremock.stubFor(post(urlPathEqualTo(BASE_PATH + "/imports"))
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
+        stub(post(urlPathEqualTo(BASE_PATH + "/imports"))
             .withHeader("Content-Type", containing("application/x-www-form-urlencoded"))
             .withRequestBody(matching(".*url=.*unknown.*"))
             .withRequestBody(notContaining("filename"))
@@ -275,7 +647,10 @@ public class ConfigureWireMock {
             .willReturn(aResponse()
                 .withStatus(422)
                 .withHeader("Content-Type", "application/json")
-                .withBodyFile("errors/422.unknown_filename.json")));
+                .withTransformers(ExampleTransformer.NAME)
+                .withTransformerParameter(ExampleTransformer.EXAMPLES_REPOSITORY_PARAMETER, examples)
+                .withTransformerParameter(ExampleTransformer.RESOURCE_PARAMETER, "errors")
+                .withTransformerParameter(ExampleTransformer.EXAMPLE_PARAMETER, "422.unknown_filename")));
     }
 
     protected void stubJobs() {
@@ -287,6 +662,7 @@ public class ConfigureWireMock {
             .collect(Collectors.toList());
 
         jobIds.forEach(this::stubJob);
+        stubCreatedJobs();
         stubPaginatedList(
             "jobs",
             ".initialising",
@@ -305,70 +681,111 @@ public class ConfigureWireMock {
     }
 
     protected void stubJob(int id) {
-        final String scenarioName = "JobProgression" + id;
+        final JsonNode completed = parseExample("jobs", id + ".completed");
+        final Lifecycle lifecycle = jobLifecycle(String.valueOf(id), id + ".", i -> completed)
+            .on(Lifecycle.DESTROY, Lifecycle.ANY_STATE, Outcome.empty(), "Destroyed")
+            .on(Lifecycle.GET, "Destroyed", Outcome.notFound());
 
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/jobs/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs(Scenario.STARTED)
-            .willSetStateTo("JobConverting")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("jobs/" + id + ".initialising.json")));
+        routes.add(lifecycle);
+    }
 
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/jobs/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs("JobConverting")
-            .willSetStateTo("JobCompleted")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("jobs/" + id + ".converting.json")));
+    // jobs created through the API, and generated jobs (which never change)
+    protected void stubCreatedJobs() {
+        // the lifecycle is shared by all created jobs; its outcomes name the variants that each job is created with
+        final Lifecycle lifecycle = jobLifecycle("*", "", i -> examples.created("jobs")
+            .flatMap(created -> created.get(Long.parseLong(i), "completed"))
+            .orElse(MissingNode.getInstance()));
 
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/jobs/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs("JobCompleted")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("jobs/" + id + ".completed.json")));
+        routes.share("jobs", lifecycle);
+    }
 
-        wiremock.stubFor(delete(urlPathEqualTo(BASE_PATH + "/jobs/" + id))
-            .inScenario(scenarioName)
-            .willSetStateTo("JobCancelled")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("jobs/" + id + ".cancelled.json")));
+    /**
+     * @param prefix    of the names of the examples for each state, e.g. "1." for {@code 1.initialising}
+     * @param completed gives the completed job with the given id, whose source file and target format decide how long
+     *                  it takes to convert
+     */
+    protected Lifecycle jobLifecycle(String id, String prefix, Function<String, JsonNode> completed) {
+        final Lifecycle lifecycle = new Lifecycle("jobs", id);
+        if (isTimed()) {
+            lifecycle
+                .on(Lifecycle.GET, StateStore.INITIAL_STATE, Outcome.example(prefix + "initialising"), "JobInitialising")
+                .on(Lifecycle.GET, "JobInitialising", Outcome.example(prefix + "initialising"))
+                .after("JobInitialising", i -> duration("lifecycle.initialising-time", DEFAULT_INITIALISING_TIME, "jobs/" + i, 0), "JobConverting")
+                .on(Lifecycle.GET, "JobConverting", Outcome.example(prefix + "converting"))
+                .after("JobConverting", i -> conversionTime(i, completed.apply(i)), "JobCompleted");
+        } else {
+            lifecycle
+                .on(Lifecycle.GET, StateStore.INITIAL_STATE, Outcome.example(prefix + "initialising"), "JobConverting")
+                .on(Lifecycle.GET, "JobConverting", Outcome.example(prefix + "converting"), "JobCompleted");
+        }
+        return lifecycle
+            .on(Lifecycle.GET, "JobCompleted", Outcome.example(prefix + "completed"))
+            .on(Lifecycle.GET, "JobCancelled", Outcome.example(prefix + "cancelled"))
+            .on(Lifecycle.DELETE, Lifecycle.ANY_STATE, Outcome.example(prefix + "cancelled"), "JobCancelled");
+    }
 
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/jobs/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs("JobCancelled")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("jobs/" + id + ".cancelled.json")));
+    // Conversions can take longer for some target formats (e.g. ZAMZAR_MOCK_LIFECYCLE_CONVERSION_TIME_MP4=30s..2m)
+    protected long conversionTime(String id, JsonNode job) {
+        final String format = job.path("target_format").asText();
+        final String defaultSpec = Settings.getString("lifecycle.conversion-time", DEFAULT_CONVERSION_TIME);
+        final String spec = format.isEmpty() ? defaultSpec : Settings.getString("lifecycle.conversion-time." + format, defaultSpec);
+        return durations.computeIfAbsent(spec, DurationDistribution::parse)
+            .sample(job.path("source_file").path("size").asLong(), new SplittableRandom(("jobs/" + id).hashCode()));
+    }
+
+    /**
+     * @param key  identifies what takes this long, so that it always takes as long
+     * @param size of the file involved
+     * @return the duration in milliseconds
+     */
+    protected long duration(String setting, String defaultSpec, String key, long size) {
+        return durations.computeIfAbsent(Settings.getString(setting, defaultSpec), DurationDistribution::parse)
+            .sample(size, new SplittableRandom(key.hashCode()));
+    }
+
+    // Jobs and imports move to their next state each time they are polled or, with ZAMZAR_MOCK_LIFECYCLE_MODE=time,
+    // once they have spent long enough in their current state (according to the virtual clock)
+    protected boolean isTimed() {
+        return "time".equalsIgnoreCase(Settings.getString("lifecycle.mode", "polls"));
+    }
 
-        stubDestroy("jobs", String.valueOf(id), scenarioName);
+    protected JsonNode parseExample(String resource, String name) {
+        final JsonNode parsed = parsedExamples.get(resource + "/" + name);
+        if (parsed != null) {
+            return parsed;
+        }
+        try {
+            return examples.parse(resource, name);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not parse example: " + resource + "/" + name, e);
+        }
     }
 
     protected void stubSubmitJob() {
-        stubCreate("jobs", "multipart/form-data");
+        for (String contentType : List.of("multipart/form-data", "application/x-www-form-urlencoded")) {
+            stub(post(urlPathEqualTo(BASE_PATH + "/jobs"))
+                .withHeader("Content-Type", containing(contentType))
+                .atPriority(2) // to allow overriding for, say, returning 422s
+                .willReturn(aResponse()
+                    .withStatus(201)
+                    .withHeader("Content-Type", "application/json")
+                    .withTransformers(CreateJobTransformer.NAME)
+                    .withTransformerParameter(CreateJobTransformer.EXAMPLES_REPOSITORY_PARAMETER, examples)
+                    .withTransformerParameter(CreateJobTransformer.PRETTY_PARAMETER, Settings.getBoolean("json.pretty", true))
+                ));
+        }
 
-        wiremock.stubFor(post(urlPathEqualTo(BASE_PATH + "/jobs"))
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
+        stub(post(urlPathEqualTo(BASE_PATH + "/jobs"))
             .withHeader("Content-Type", containing("multipart/form-data"))
             .withRequestBody(matching(".*name=\"target_format\"[\\s\\S]*unsupported.*"))
             .atPriority(1)
             .willReturn(aResponse()
                 .withStatus(422)
                 .withHeader("Content-Type", "application/json")
-                .withBodyFile("errors/422.target_format.json")));
+                .withTransformers(ExampleTransformer.NAME)
+                .withTransformerParameter(ExampleTransformer.EXAMPLES_REPOSITORY_PARAMETER, examples)
+                .withTransformerParameter(ExampleTransformer.RESOURCE_PARAMETER, "errors")
+                .withTransformerParameter(ExampleTransformer.EXAMPLE_PARAMETER, "422.target_format")));
     }
 
     protected void stubPaginatedList(String resource, String idFieldName, boolean isAscending) {
@@ -380,8 +797,7 @@ public class ConfigureWireMock {
     }
 
     protected void stubPaginatedList(String path, String resource, String filenameSuffix, String idFieldName, boolean isAscending, Predicate<JsonNode> filter) {
-        wiremock.stubFor(get(urlMatching(BASE_PATH + "/" + path + "(\\?.*)?"))
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
+        stub(get(urlMatching(BASE_PATH + "/" + path + "(\\?.*)?"))
             .willReturn(aResponse()
                 .withStatus(200)
                 .withHeader("Content-Type", "application/json")
@@ -392,57 +808,21 @@ public class ConfigureWireMock {
                 .withTransformerParameter(IndexTransformer.ID_FIELD_NAME_PARAMETER, idFieldName)
                 .withTransformerParameter(IndexTransformer.ASCENDING_PARAMETER, isAscending)
                 .withTransformerParameter(IndexTransformer.PREDICATE_PARAMETER, filter)
+                .withTransformerParameter(IndexTransformer.PRETTY_PARAMETER, Settings.getBoolean("json.pretty", true))
             ));
     }
 
     protected void stubCreate(String resource, String contentType) {
-        wiremock.stubFor(post(urlPathEqualTo(BASE_PATH + "/" + resource))
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
+        stub(post(urlPathEqualTo(BASE_PATH + "/" + resource))
             .withHeader("Content-Type", containing(contentType))
             .atPriority(2) // to allow overriding for, say, returning 422s
             .willReturn(aResponse()
                 .withStatus(201)
                 .withHeader("Content-Type", "application/json")
-                .withBodyFile(resource + "/1.initialising.json")
+                .withTransformers(ExampleTransformer.NAME)
+                .withTransformerParameter(ExampleTransformer.EXAMPLES_REPOSITORY_PARAMETER, examples)
+                .withTransformerParameter(ExampleTransformer.RESOURCE_PARAMETER, resource)
+                .withTransformerParameter(ExampleTransformer.EXAMPLE_PARAMETER, "1.initialising")
             ));
     }
-
-    protected void stubDestroy(String resource, String id, String scenarioName) {
-        wiremock.stubFor(post(urlPathEqualTo(BASE_PATH + "/" + resource + "/" + id + "/destroy"))
-            .inScenario(scenarioName)
-            .willSetStateTo("Destroyed")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(200)
-                .withHeader("Content-Type", "application/json")));
-
-
-        wiremock.stubFor(get(urlPathEqualTo(BASE_PATH + "/" + resource + "/" + id))
-            .inScenario(scenarioName)
-            .whenScenarioStateIs("Destroyed")
-            .withHeader("Authorization", equalTo("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(404)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("errors/404.json")));
-    }
-
-    protected void stubCatchAlls() {
-        wiremock.stubFor(any(urlPathMatching(".*"))
-            .atPriority(99)
-            .withHeader("Authorization", notMatching("Bearer " + API_KEY))
-            .willReturn(aResponse()
-                .withStatus(401)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("errors/401.json")));
-
-        wiremock.stubFor(any(urlPathMatching(".*"))
-            .atPriority(99)
-            .withHeader("Authorization", absent())
-            .willReturn(aResponse()
-                .withStatus(401)
-                .withHeader("Content-Type", "application/json")
-                .withBodyFile("errors/401.json")));
-    }
 }
-
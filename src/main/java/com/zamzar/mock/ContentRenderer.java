@@ -0,0 +1,133 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.zamzar.mock.content.ByteRange;
+import com.zamzar.mock.content.Content;
+import com.zamzar.mock.content.MultipartByteRanges;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Renders binary content as a response, honouring {@code Range} (including multiple ranges) and {@code If-Range}
+ * request headers.
+ */
+public class ContentRenderer {
+
+    protected static final String CONTENT_TYPE = "application/octet-stream";
+
+    protected static final DateTimeFormatter HTTP_DATE =
+        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.ENGLISH).withZone(ZoneOffset.UTC);
+
+    public Response render(Response response, Request request, Content content) {
+        final List<HttpHeader> headers = new ArrayList<>();
+        headers.add(new HttpHeader("Accept-Ranges", "bytes"));
+        headers.add(new HttpHeader("ETag", content.getETag()));
+        content.getLastModified().ifPresent(t -> headers.add(new HttpHeader("Last-Modified", HTTP_DATE.format(t))));
+
+        final Optional<List<ByteRange>> ranges = getRequestedRanges(request, content);
+        if (ranges.isEmpty()) {
+            return full(response, content, headers);
+        } else if (ranges.get().isEmpty()) {
+            return unsatisfiable(response, content, headers);
+        } else if (ranges.get().size() == 1) {
+            return single(response, content, ranges.get().get(0), headers);
+        } else {
+            return multiple(response, content, ranges.get(), headers);
+        }
+    }
+
+    /**
+     * @return the ranges to serve (an empty list if none are satisfiable), or empty if the full content should be served
+     */
+    protected Optional<List<ByteRange>> getRequestedRanges(Request request, Content content) {
+        final String range = request.getHeader("Range");
+        if (range == null || !RequestMethod.GET.equals(request.getMethod())) {
+            return Optional.empty();
+        }
+
+        // a range request is conditional on the content not having changed since the client last saw it
+        final String ifRange = request.getHeader("If-Range");
+        if (ifRange != null && !isUnchanged(ifRange, content)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(ByteRange.parse(range, content.getSize()));
+        } catch (IllegalArgumentException e) {
+            // malformed ranges are ignored, rather than rejected
+            return Optional.empty();
+        }
+    }
+
+    protected boolean isUnchanged(String ifRange, Content content) {
+        final String validator = ifRange.trim();
+        if (validator.startsWith("\"") || validator.startsWith("W/")) {
+            // weak entity tags never match, as If-Range requires a strong comparison
+            return validator.equals(content.getETag());
+        }
+
+        try {
+            final ZonedDateTime date = ZonedDateTime.parse(validator, HTTP_DATE);
+            return content.getLastModified().map(t -> t.equals(date.toInstant())).orElse(false);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    protected Response full(Response response, Content content, List<HttpHeader> headers) {
+        headers.add(new HttpHeader("Content-Type", CONTENT_TYPE));
+        headers.add(new HttpHeader("Content-Length", String.valueOf(content.getSize())));
+
+        return Response.Builder.like(response).but()
+            .status(200)
+            .headers(new HttpHeaders(headers))
+            .body(content)
+            .build();
+    }
+
+    protected Response single(Response response, Content content, ByteRange range, List<HttpHeader> headers) {
+        headers.add(new HttpHeader("Content-Type", CONTENT_TYPE));
+        headers.add(new HttpHeader("Content-Range", range.toContentRange(content.getSize())));
+        headers.add(new HttpHeader("Content-Length", String.valueOf(range.getLength())));
+
+        return Response.Builder.like(response).but()
+            .status(206)
+            .headers(new HttpHeaders(headers))
+            .body(() -> content.getStream(range.getFirst(), range.getLength()))
+            .build();
+    }
+
+    protected Response multiple(Response response, Content content, List<ByteRange> ranges, List<HttpHeader> headers) {
+        final MultipartByteRanges body = new MultipartByteRanges(content, ranges, CONTENT_TYPE);
+        headers.add(new HttpHeader("Content-Type", body.getContentType()));
+        headers.add(new HttpHeader("Content-Length", String.valueOf(body.getLength())));
+
+        return Response.Builder.like(response).but()
+            .status(206)
+            .headers(new HttpHeaders(headers))
+            .body(body)
+            .build();
+    }
+
+    protected Response unsatisfiable(Response response, Content content, List<HttpHeader> headers) {
+        headers.add(new HttpHeader("Content-Range", "bytes */" + content.getSize()));
+        headers.add(new HttpHeader("Content-Length", "0"));
+
+        return Response.Builder.like(response).but()
+            .status(416)
+            .headers(new HttpHeaders(headers))
+            .body(new byte[0])
+            .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.content.Content;
+
+import java.util.Optional;
+
+/**
+ * Serves binary content, honouring {@code Range} (including multiple ranges) and {@code If-Range} request headers (see
+ * {@link ContentRenderer}).
+ */
+public abstract class ContentTransformer implements ResponseTransformerV2 {
+
+    protected final ContentRenderer renderer = new ContentRenderer();
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        final Optional<Content> content = getContent(serveEvent);
+        if (content.isEmpty()) {
+            return notFound(response, serveEvent);
+        }
+        return render(response, serveEvent.getRequest(), content.get());
+    }
+
+    /**
+     * @return the content to serve in response to the request (which may depend on the stub's parameters, or on the
+     * request itself), or empty if there is no such content
+     */
+    protected abstract Optional<Content> getContent(ServeEvent serveEvent);
+
+    /**
+     * @return the response when there is no content to serve
+     */
+    protected Response notFound(Response response, ServeEvent serveEvent) {
+        return Response.Builder.like(response).but()
+            .status(404)
+            .body(new byte[0])
+            .build();
+    }
+
+    protected Response render(Response response, Request request, Content content) {
+        return renderer.render(response, request, content);
+    }
+}
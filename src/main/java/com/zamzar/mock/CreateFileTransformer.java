@@ -0,0 +1,83 @@
+package com.zamzar.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.examples.CreatedExamples;
+import com.zamzar.mock.examples.ExamplesRepository;
+import com.zamzar.mock.state.Tenants;
+import com.zamzar.mock.uploads.Upload;
+import com.zamzar.mock.uploads.UploadFilter;
+import com.zamzar.mock.uploads.Uploads;
+
+import java.util.Optional;
+
+/**
+ * Creates a file from its uploaded content (e.g. {@code POST /v1/files}), so that it can then be retrieved, downloaded
+ * and listed like any other file.
+ * <p>
+ * The content has usually been stored already, as the request arrived (see {@link UploadFilter}), and is then served as
+ * it was uploaded. Otherwise, only the file's metadata is kept (as for files created by {@link CreateJobTransformer}).
+ */
+public class CreateFileTransformer implements ResponseTransformerV2 {
+
+    public static final String NAME = "create-file-transformer";
+
+    public static final String EXAMPLES_REPOSITORY_PARAMETER = "repo";
+    public static final String PRETTY_PARAMETER = "pretty";
+
+    protected static final String CONTENT_PART = "content";
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        final Parameters parameters = serveEvent.getTransformerParameters();
+        final ExamplesRepository repository = getExamplesRepository(parameters);
+        final Request request = serveEvent.getRequest();
+
+        final CreatedExamples files = repository.created("files")
+            .orElseThrow(() -> new IllegalStateException("Files cannot be created"));
+
+        final String token = request.getHeader(UploadFilter.TOKEN_HEADER);
+        final Optional<Uploads> uploads = repository.uploads();
+        final Optional<Upload> upload = token == null ? Optional.empty() : uploads.flatMap(u -> u.claim(token));
+
+        final JsonNode file;
+        if (upload.isPresent()) {
+            final String name = CreateJobTransformer.getParameter(request, "name").orElse(upload.get().getFilename());
+            file = CreateJobTransformer.createFile(files, Tenants.of(request), name, upload.get().getSize());
+            uploads.get().attach(file.path("id").asLong(), upload.get());
+        } else {
+            final Optional<Request.Part> part = CreateJobTransformer.getUpload(request, CONTENT_PART);
+            if (part.isEmpty()) {
+                return CreateJobTransformer.error(response, 10, "no value was specified for a mandatory parameter", CONTENT_PART, null);
+            }
+            final String name = CreateJobTransformer.getParameter(request, "name").orElse(CreateJobTransformer.getFilename(part.get()));
+            file = CreateJobTransformer.createFile(files, Tenants.of(request), name, part.get().getBody().asBytes().length);
+        }
+
+        return Response.Builder.like(response).but()
+            .body(CreateJobTransformer.serialize(file, isPretty(parameters)))
+            .build();
+    }
+
+    protected ExamplesRepository getExamplesRepository(Parameters parameters) {
+        return (ExamplesRepository) parameters.get(EXAMPLES_REPOSITORY_PARAMETER);
+    }
+
+    protected boolean isPretty(Parameters parameters) {
+        return (boolean) parameters.getOrDefault(PRETTY_PARAMETER, true);
+    }
+}
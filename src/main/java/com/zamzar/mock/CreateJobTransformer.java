@@ -0,0 +1,229 @@
+package com.zamzar.mock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.FormParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.examples.CreatedExamples;
+import com.zamzar.mock.examples.ExamplesRepository;
+import com.zamzar.mock.state.Tenants;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Creates a job (e.g. {@code POST /v1/jobs}) from its source file and target format, so that it can then be retrieved,
+ * polled through its lifecycle and listed like any other job.
+ * <p>
+ * The source file can be uploaded, or given by the id of an existing file or by a URL. Uploaded (and imported) source
+ * files, and the target files of the job, are created too.
+ */
+public class CreateJobTransformer implements ResponseTransformerV2 {
+
+    public static final String NAME = "create-job-transformer";
+
+    public static final String EXAMPLES_REPOSITORY_PARAMETER = "repo";
+    public static final String PRETTY_PARAMETER = "pretty";
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        final Parameters parameters = serveEvent.getTransformerParameters();
+        final ExamplesRepository repository = getExamplesRepository(parameters);
+        final Request request = serveEvent.getRequest();
+        final String tenant = Tenants.of(request);
+
+        final CreatedExamples jobs = repository.created("jobs")
+            .orElseThrow(() -> new IllegalStateException("Jobs cannot be created"));
+        final CreatedExamples files = repository.created("files")
+            .orElseThrow(() -> new IllegalStateException("Files cannot be created"));
+
+        final Optional<String> targetFormat = getParameter(request, "target_format");
+        if (targetFormat.isEmpty()) {
+            return error(response, 10, "no value was specified for a mandatory parameter", "target_format", null);
+        }
+
+        // validate everything before creating anything, so that a rejected request has no side effects
+        final Optional<JsonNode> existingFile;
+        final Optional<Request.Part> upload = getUpload(request, "source_file");
+        final Optional<String> sourceFile = getParameter(request, "source_file");
+        if (upload.isPresent()) {
+            existingFile = Optional.empty();
+        } else if (sourceFile.isEmpty()) {
+            return error(response, 10, "no value was specified for a mandatory parameter", "source_file", null);
+        } else if (sourceFile.get().matches("[0-9]+")) {
+            existingFile = repository.find("files", tenant, Long.parseLong(sourceFile.get()));
+            if (existingFile.isEmpty()) {
+                return error(response, 11, "an invalid value was specified for a parameter", "source_file", sourceFile.get() + " does not exist");
+            }
+        } else if (isUrl(sourceFile.get())) {
+            existingFile = Optional.empty();
+        } else {
+            return error(response, 11, "an invalid value was specified for a parameter", "source_file", sourceFile.get() + " is not a file ID or a URL");
+        }
+
+        final JsonNode source = existingFile.orElseGet(() -> upload.isPresent() ?
+            createFile(files, tenant, getFilename(upload.get()), upload.get().getBody().asBytes().length) :
+            createFile(files, tenant, getFilename(sourceFile.get()), sizeOf(sourceFile.get())));
+
+        final String name = source.path("name").asText();
+        final String baseName = name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
+        final JsonNode targetFile = createFile(files, tenant, baseName + "." + targetFormat.get(), source.path("size").asLong());
+        final Optional<String> exportUrl = getParameter(request, "export_url");
+
+        final long id = jobs.create(tenant, jobId -> Map.of(
+            "initialising", job(jobId, "initialising", targetFormat.get(), source, null, exportUrl),
+            "converting", job(jobId, "converting", targetFormat.get(), source, null, exportUrl),
+            "completed", job(jobId, "successful", targetFormat.get(), source, targetFile, exportUrl),
+            "cancelled", job(jobId, "cancelled", targetFormat.get(), source, null, exportUrl)
+        ));
+
+        return Response.Builder.like(response).but()
+            .body(serialize(jobs.stored(id, "initialising"), isPretty(parameters)))
+            .build();
+    }
+
+    protected ObjectNode job(long id, String status, String targetFormat, JsonNode source, JsonNode targetFile, Optional<String> exportUrl) {
+        final ObjectNode job = MAPPER.createObjectNode();
+        job.put("id", id);
+        job.put("status", status);
+        job.put("target_format", targetFormat);
+
+        final ObjectNode sourceFile = job.putObject("source_file");
+        sourceFile.set("id", source.get("id"));
+        sourceFile.set("name", source.get("name"));
+        sourceFile.set("size", source.get("size"));
+
+        exportUrl.ifPresent(url -> job.put("export_url", url));
+
+        final var targetFiles = job.putArray("target_files");
+        if (targetFile != null) {
+            final ObjectNode target = targetFiles.addObject();
+            target.set("id", targetFile.get("id"));
+            target.set("name", targetFile.get("name"));
+            target.set("size", targetFile.get("size"));
+        }
+        return job;
+    }
+
+    protected static JsonNode createFile(CreatedExamples files, String tenant, String name, long size) {
+        final String now = Instant.now().truncatedTo(java.time.temporal.ChronoUnit.SECONDS).toString();
+        final long id = files.create(tenant, fileId -> {
+            final ObjectNode file = MAPPER.createObjectNode();
+            file.put("id", fileId);
+            file.put("key", ConfigureWireMock.API_KEY);
+            file.put("name", name);
+            file.put("size", size);
+            file.put("format", name.contains(".") ? name.substring(name.lastIndexOf('.') + 1).toLowerCase() : "");
+            file.put("created_at", now);
+            return Map.of("", file);
+        });
+        return files.stored(id, "");
+    }
+
+    protected static Response error(Response response, int code, String message, String parameter, String reason) {
+        final ObjectNode body = MAPPER.createObjectNode();
+        final ObjectNode error = body.putArray("errors").addObject();
+        error.put("message", message);
+        error.put("code", code);
+        final ObjectNode context = error.putObject("context");
+        context.put("parameter", parameter);
+        if (reason != null) {
+            context.put("reason", reason);
+        }
+
+        return Response.Builder.like(response).but()
+            .status(422)
+            .body(serialize(body, true))
+            .build();
+    }
+
+    protected static String serialize(JsonNode node, boolean isPretty) {
+        try {
+            return isPretty ? MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(node) : MAPPER.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize: " + node, e);
+        }
+    }
+
+    // A parameter can be sent as a (non-file) part of a multipart body, or as a form parameter
+    protected static Optional<String> getParameter(Request request, String name) {
+        if (request.isMultipart()) {
+            final Request.Part part = request.getPart(name);
+            return part == null || getFilename(part) != null ? Optional.empty() : nonBlank(part.getBody().asString());
+        }
+
+        final FormParameter parameter = request.formParameters().get(name);
+        return parameter == null || !parameter.isPresent() ? Optional.empty() : nonBlank(parameter.firstValue());
+    }
+
+    protected static Optional<Request.Part> getUpload(Request request, String name) {
+        if (!request.isMultipart()) {
+            return Optional.empty();
+        }
+        final Request.Part part = request.getPart(name);
+        return part != null && getFilename(part) != null ? Optional.of(part) : Optional.empty();
+    }
+
+    // e.g. Content-Disposition: form-data; name="source_file"; filename="example.mp3"
+    protected static String getFilename(Request.Part part) {
+        final String disposition = part.getHeader("Content-Disposition").firstValue();
+        final int start = disposition.indexOf("filename=");
+        if (start < 0) {
+            return null;
+        }
+        final String filename = disposition.substring(start + "filename=".length()).split(";")[0].trim();
+        return filename.replaceAll("^\"|\"$", "");
+    }
+
+    protected static String getFilename(String url) {
+        final String path = URI.create(url).getPath();
+        final String name = path == null ? "" : path.substring(path.lastIndexOf('/') + 1);
+        return name.isEmpty() ? "file" : name;
+    }
+
+    // imported files are not actually downloaded, so they are given a plausible size that is stable for each URL
+    protected static long sizeOf(String url) {
+        return 1024 + Math.floorMod(url.hashCode(), 10 * 1024 * 1024);
+    }
+
+    protected static boolean isUrl(String value) {
+        try {
+            final URI uri = URI.create(value);
+            return uri.getScheme() != null && uri.getHost() != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    protected static Optional<String> nonBlank(String value) {
+        return value == null || value.isBlank() ? Optional.empty() : Optional.of(value.trim());
+    }
+
+    protected ExamplesRepository getExamplesRepository(Parameters parameters) {
+        return (ExamplesRepository) parameters.get(EXAMPLES_REPOSITORY_PARAMETER);
+    }
+
+    protected boolean isPretty(Parameters parameters) {
+        return (boolean) parameters.getOrDefault(PRETTY_PARAMETER, true);
+    }
+}
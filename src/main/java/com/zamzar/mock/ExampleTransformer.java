@@ -0,0 +1,50 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.examples.ExamplesRepository;
+
+/**
+ * Serves an example that never changes (e.g. {@code account.json}), from memory and compressed for clients that accept
+ * compressed responses (see {@link Responses#example}).
+ */
+public class ExampleTransformer implements ResponseTransformerV2 {
+
+    public static final String NAME = "example-transformer";
+
+    public static final String EXAMPLES_REPOSITORY_PARAMETER = "repo";
+    // e.g. "errors", or "" for an example at the top level
+    public static final String RESOURCE_PARAMETER = "resource";
+    // e.g. "422.target_format"
+    public static final String EXAMPLE_PARAMETER = "example";
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        final Parameters parameters = serveEvent.getTransformerParameters();
+        return Responses.example(response, serveEvent.getRequest(), getExamplesRepository(parameters), getResource(parameters), getExample(parameters));
+    }
+
+    protected ExamplesRepository getExamplesRepository(Parameters parameters) {
+        return (ExamplesRepository) parameters.get(EXAMPLES_REPOSITORY_PARAMETER);
+    }
+
+    protected String getResource(Parameters parameters) {
+        return (String) parameters.get(RESOURCE_PARAMETER);
+    }
+
+    protected String getExample(Parameters parameters) {
+        return (String) parameters.get(EXAMPLE_PARAMETER);
+    }
+}
@@ -0,0 +1,179 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.faults.FaultProfile;
+import com.zamzar.mock.faults.Bandwidth;
+import com.zamzar.mock.faults.FaultProfiles;
+import com.zamzar.mock.faults.Throttle;
+import com.zamzar.mock.faults.ThrottledInputStream;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Slows down or breaks responses according to the active {@link FaultProfile}, so that clients' timeouts and retries
+ * can be tested. Applies to every response, after any other transformer.
+ * <p>
+ * Bodies of groups with limited bandwidth are sent at that rate (request bodies are slowed by {@link BandwidthFilter}).
+ */
+public class FaultInjectionTransformer implements ResponseTransformerV2 {
+
+    public static final String NAME = "fault-injection-transformer";
+
+    protected final FaultProfiles profiles;
+    protected final byte[] errorBody;
+
+    /**
+     * @param errorBody of injected errors
+     */
+    public FaultInjectionTransformer(FaultProfiles profiles, byte[] errorBody) {
+        this.profiles = profiles;
+        this.errorBody = errorBody;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        final String group = groupOf(serveEvent.getRequest());
+        final Response injected = inject(response, profiles.next(group));
+
+        final Optional<Throttle> throttle = profiles.throttle(group, Bandwidth.Direction.DOWNLOAD);
+        return throttle.isEmpty() || injected.getFault() != null ? injected : throttle(injected, throttle.get());
+    }
+
+    protected Response inject(Response response, FaultProfiles.Injection injection) {
+        if (injection == FaultProfiles.Injection.NONE) {
+            return response;
+        }
+
+        final Response.Builder builder = Response.Builder.like(response).but()
+            .incrementInitialDelay(injection.getLatencyMillis());
+        switch (injection.getFault()) {
+            case RESET:
+                return builder.fault(Fault.CONNECTION_RESET_BY_PEER).build();
+
+            case ERROR:
+                return builder
+                    .status(injection.getStatus())
+                    .headers(new HttpHeaders(new HttpHeader("Content-Type", "application/json")))
+                    .body(errorBody)
+                    .build();
+
+            case TRUNCATE:
+                return truncate(response, builder, injection.getTruncateAt());
+
+            default:
+                return builder.build();
+        }
+    }
+
+    /**
+     * Sends part of the body, but promises all of it (with {@code Content-Length}), so that the server closes the
+     * connection once the part has been sent and the client sees a body that ends early.
+     */
+    protected Response truncate(Response response, Response.Builder builder, double fraction) {
+        final long length;
+        if (response.hasInlineBody()) {
+            length = response.getBody() == null ? 0 : response.getBody().length;
+        } else {
+            final HttpHeader contentLength = response.getHeaders().getHeader("Content-Length");
+            if (!contentLength.isPresent()) {
+                return builder.fault(Fault.RANDOM_DATA_THEN_CLOSE).build();
+            }
+            length = Long.parseLong(contentLength.firstValue());
+        }
+        if (length == 0) {
+            return builder.fault(Fault.EMPTY_RESPONSE).build();
+        }
+
+        final long sent = (long) (length * fraction);
+        final HttpHeaders headers = new HttpHeaders(response.getHeaders().all().stream()
+            .filter(header -> !header.keyEquals("Content-Length"))
+            .collect(Collectors.toList()))
+            .plus(new HttpHeader("Content-Length", String.valueOf(length)));
+        builder.headers(headers);
+
+        if (response.hasInlineBody()) {
+            return builder.body(Arrays.copyOf(response.getBody(), (int) sent)).build();
+        }
+        return builder.body(() -> new LimitedInputStream(response.getBodyStream(), sent)).build();
+    }
+
+    /**
+     * Sends the body through the throttle. The body is then always streamed, even if it was held in memory.
+     */
+    protected Response throttle(Response response, Throttle throttle) {
+        return Response.Builder.like(response).but()
+            .body(() -> new ThrottledInputStream(response.getBodyStream(), throttle))
+            .build();
+    }
+
+    /**
+     * @return the endpoint group of the request, e.g. "jobs" for {@code /v1/jobs/1} or "content" for
+     * {@code /v1/files/1/content}
+     */
+    protected static String groupOf(Request request) {
+        return groupOf(URI.create(request.getUrl()).getPath());
+    }
+
+    protected static String groupOf(String path) {
+        final String[] segments = path.replaceFirst("^" + ConfigureWireMock.BASE_PATH + "/", "").split("/");
+        if (segments.length >= 3 && segments[0].equals("files") && segments[2].equals("content")) {
+            return "content";
+        }
+        return segments[0];
+    }
+
+    protected static class LimitedInputStream extends FilterInputStream {
+        protected long remaining;
+
+        protected LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+}
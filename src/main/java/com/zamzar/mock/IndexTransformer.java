@@ -1,19 +1,32 @@
 package com.zamzar.mock;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.Response;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.examples.CreatedExamples;
+import com.zamzar.mock.examples.CreatedList;
 import com.zamzar.mock.examples.ExamplesRepository;
 import com.zamzar.mock.pagination.Anchor;
+import com.zamzar.mock.pagination.GeneratedList;
+import com.zamzar.mock.pagination.IndexedList;
 import com.zamzar.mock.pagination.PageCoordinates;
+import com.zamzar.mock.state.Tenants;
+import com.zamzar.mock.synthetic.SyntheticResource;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -29,6 +42,17 @@ public class IndexTransformer implements ResponseTransformerV2 {
 
     public static final String PREDICATE_PARAMETER = "predicate";
 
+    // pretty-printed (the default) or compact JSON
+    public static final String PRETTY_PARAMETER = "pretty";
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // a pretty-printed item is nested two levels deep in a page: {"data": [ item, ... ]}
+    protected static final String NESTED_LINE_SEPARATOR = DefaultIndenter.SYS_LF + "  ";
+
+    // Parsed, sorted and filtered items for each list endpoint, so that a page can be cut without touching the disk
+    protected final Map<ListKey, CachedList> cache = new ConcurrentHashMap<>();
+
     @Override
     public boolean applyGlobally() {
         return false;
@@ -51,16 +75,18 @@ public class IndexTransformer implements ResponseTransformerV2 {
         final boolean isAscending = isAscending(parameters);
         final String filenameSuffix = getFilenameSuffix(parameters);
         final Predicate<JsonNode> predicate = getPredicate(parameters);
+        final boolean isPretty = isPretty(parameters);
 
         try {
-            final List<JsonNode> all = readAll(repository, resource, isAscending, filenameSuffix, predicate);
-            final String responseBody = buildResponseBody(all, coordinates, idFieldName);
+            final CachedList all = withCreated(repository, resource, Tenants.of(request), isAscending, filenameSuffix, predicate,
+                readCached(repository, resource, isAscending, filenameSuffix, predicate));
+            final byte[] responseBody = buildResponseBody(all, coordinates, idFieldName, isPretty);
 
             return Response.Builder.like(response).but()
                 .body(responseBody)
                 .build();
 
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             throw new RuntimeException("Could not generate page for resource: " + resource, e);
         }
     }
@@ -71,6 +97,69 @@ public class IndexTransformer implements ResponseTransformerV2 {
         boolean isAscending,
         String filenameSuffix,
         Predicate<JsonNode> filter
+    ) throws JsonProcessingException {
+        return readCached(repo, resource, isAscending, filenameSuffix, filter).items;
+    }
+
+    protected CachedList readCached(
+        ExamplesRepository repo,
+        String resource,
+        boolean isAscending,
+        String filenameSuffix,
+        Predicate<JsonNode> filter
+    ) throws JsonProcessingException {
+        final ListKey key = new ListKey(repo, resource, isAscending, filenameSuffix, filter);
+
+        // read the version first, so that a change made while we're loading causes a reload on the next request
+        final long version = repo.version(resource);
+        final CachedList cached = cache.get(key);
+        if (cached != null && cached.version == version) {
+            return cached;
+        }
+
+        final List<JsonNode> loaded = load(repo, resource, isAscending, filenameSuffix, filter);
+        final List<JsonNode> items = loaded instanceof GeneratedList ? loaded : Collections.unmodifiableList(loaded);
+        final CachedList list = new CachedList(version, items);
+        cache.put(key, list);
+        return list;
+    }
+
+    // Items created through the API change far more often than examples, so they are added to the cached list on each
+    // request (only those created by the request's tenant)
+    protected CachedList withCreated(
+        ExamplesRepository repo,
+        String resource,
+        String tenant,
+        boolean isAscending,
+        String filenameSuffix,
+        Predicate<JsonNode> filter,
+        CachedList cached
+    ) {
+        final Optional<CreatedExamples> created = repo.created(resource);
+        final int size = created.map(CreatedExamples::size).orElse(0);
+        if (size == 0) {
+            return cached;
+        }
+
+        // e.g. ".completed" => the "completed" variant
+        final String variant = filenameSuffix.startsWith(".") ? filenameSuffix.substring(1) : filenameSuffix;
+        final CreatedList list = new CreatedList(
+            created.get(),
+            variant,
+            created.get().select(tenant, variant, filter, size),
+            cached.items,
+            (idFieldName, id) -> cached.indexedBy(idFieldName).positionOf(id),
+            isAscending
+        );
+        return new CachedList(cached.version, list);
+    }
+
+    protected List<JsonNode> load(
+        ExamplesRepository repo,
+        String resource,
+        boolean isAscending,
+        String filenameSuffix,
+        Predicate<JsonNode> filter
     ) throws JsonProcessingException {
         final Collection<String> allFilenames = repo.all(resource, true)
             .stream()
@@ -92,34 +181,62 @@ public class IndexTransformer implements ResponseTransformerV2 {
                 }
             }
         }
-        return all;
+
+        // generated items have a single state, so the filename suffix does not apply to them
+        final Optional<SyntheticResource> generated = repo.generated(resource);
+        return generated.isPresent() ? generated.get().list(all, isAscending, filter) : all;
     }
 
-    protected String buildResponseBody(List<JsonNode> all, PageCoordinates coordinates, String idField) {
-        // Apply coordinates to obtain a page
-        final List<JsonNode> pagedItems = coordinates.applyTo(all, idField);
+    // Items are serialized once and then copied into each page that includes them, without building a tree per request
+    protected byte[] buildResponseBody(CachedList all, PageCoordinates coordinates, String idField, boolean isPretty) throws IOException {
+        final IndexedList indexed = all.indexedBy(idField);
+        final PageCoordinates.Range range = coordinates.rangeOf(indexed);
 
-        final ObjectMapper mapper = new ObjectMapper();
-        final ObjectNode response = mapper.createObjectNode();
-        response.putArray("data").addAll(pagedItems);
-        response.set("paging", buildPaging(pagedItems, all.size(), coordinates.getLimit(), idField));
-        return response.toPrettyString();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(range.size() * 512 + 128);
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out)) {
+            if (isPretty) {
+                generator.useDefaultPrettyPrinter();
+            }
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("data");
+            for (int i = range.getFrom(); i < range.getTo(); i++) {
+                generator.writeRawValue(all.fragment(i, isPretty));
+            }
+            generator.writeEndArray();
+
+            generator.writeObjectFieldStart("paging");
+            generator.writeNumberField("total_count", indexed.size());
+            if (range.size() > 0) {
+                writeId(generator, "first", all.items.get(range.getFrom()), idField);
+                writeId(generator, "last", all.items.get(range.getTo() - 1), idField);
+            }
+            generator.writeNumberField("limit", coordinates.getLimit());
+            generator.writeEndObject();
+
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
     }
 
-    protected JsonNode buildPaging(List<JsonNode> pagedItems, int total, int limit, String idField) {
-        final ObjectMapper mapper = new ObjectMapper();
-        final JsonNode first = pagedItems.stream().findFirst().map(n -> n.get(idField)).orElse(null);
-        final JsonNode last = pagedItems.stream().reduce((f, s) -> s).map(n -> n.get(idField)).orElse(null);
-        final ObjectNode paging = mapper.createObjectNode();
-        paging.put("total_count", total);
-        if (first != null) {
-            paging.set("first", first);
+    protected void writeId(JsonGenerator generator, String fieldName, JsonNode item, String idField) throws IOException {
+        final JsonNode id = item.get(idField);
+        if (id != null) {
+            generator.writeFieldName(fieldName);
+            MAPPER.writeTree(generator, id);
         }
-        if (last != null) {
-            paging.set("last", last);
+    }
+
+    protected static SerializableString serialize(JsonNode item, boolean isPretty) {
+        try {
+            if (!isPretty) {
+                return new SerializedString(MAPPER.writeValueAsString(item));
+            }
+            final String standalone = MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(item);
+            // line breaks only occur between tokens (those in strings are escaped), so this indents the whole item
+            return new SerializedString(standalone.replace(DefaultIndenter.SYS_LF, NESTED_LINE_SEPARATOR));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize item: " + item, e);
         }
-        paging.put("limit", limit);
-        return paging;
     }
 
     protected ExamplesRepository getExamplesRepository(Parameters parameters) {
@@ -142,6 +259,10 @@ public class IndexTransformer implements ResponseTransformerV2 {
         return (String) parameters.getOrDefault(FILENAME_SUFFIX_PARAMETER, ".initialising");
     }
 
+    protected boolean isPretty(Parameters parameters) {
+        return (boolean) parameters.getOrDefault(PRETTY_PARAMETER, true);
+    }
+
     @SuppressWarnings("unchecked")
     protected Predicate<JsonNode> getPredicate(Parameters parameters) {
         return (Predicate<JsonNode>) parameters.getOrDefault(PREDICATE_PARAMETER, (Predicate<JsonNode>) (n) -> true);
@@ -163,4 +284,74 @@ public class IndexTransformer implements ResponseTransformerV2 {
 
         return new PageCoordinates(anchor, limit);
     }
+
+    protected static class ListKey {
+        protected final ExamplesRepository repo;
+        protected final String resource;
+        protected final boolean isAscending;
+        protected final String filenameSuffix;
+        protected final Predicate<JsonNode> filter;
+
+        protected ListKey(ExamplesRepository repo, String resource, boolean isAscending, String filenameSuffix, Predicate<JsonNode> filter) {
+            this.repo = repo;
+            this.resource = resource;
+            this.isAscending = isAscending;
+            this.filenameSuffix = filenameSuffix;
+            this.filter = filter;
+        }
+
+        // repositories and predicates are compared by identity: each stub passes the same instances on every request
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ListKey)) return false;
+            final ListKey other = (ListKey) o;
+            return repo == other.repo &&
+                resource.equals(other.resource) &&
+                isAscending == other.isAscending &&
+                filenameSuffix.equals(other.filenameSuffix) &&
+                filter == other.filter;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(repo), resource, isAscending, filenameSuffix, System.identityHashCode(filter));
+        }
+    }
+
+    protected static class CachedList {
+        protected final long version;
+        protected final List<JsonNode> items;
+        protected final Map<String, IndexedList> indexes = new ConcurrentHashMap<>();
+
+        // serialized form of each item, filled in as items are first served (most lists are only ever partly paged through)
+        protected final AtomicReferenceArray<SerializableString> prettyFragments;
+        protected final AtomicReferenceArray<SerializableString> compactFragments;
+
+        protected CachedList(long version, List<JsonNode> items) {
+            this.version = version;
+            this.items = items;
+            // generated items are cheap to serialize again, whereas caching every one of them could take a lot of memory
+            this.prettyFragments = items instanceof GeneratedList ? null : new AtomicReferenceArray<>(items.size());
+            this.compactFragments = items instanceof GeneratedList ? null : new AtomicReferenceArray<>(items.size());
+        }
+
+        protected IndexedList indexedBy(String idFieldName) {
+            return indexes.computeIfAbsent(idFieldName, f -> new IndexedList(items, f));
+        }
+
+        protected SerializableString fragment(int position, boolean isPretty) {
+            final AtomicReferenceArray<SerializableString> fragments = isPretty ? prettyFragments : compactFragments;
+            if (fragments == null) {
+                return serialize(items.get(position), isPretty);
+            }
+            SerializableString fragment = fragments.get(position);
+            if (fragment == null) {
+                // racing threads produce identical fragments, so it doesn't matter which one wins
+                fragment = serialize(items.get(position), isPretty);
+                fragments.set(position, fragment);
+            }
+            return fragment;
+        }
+    }
 }
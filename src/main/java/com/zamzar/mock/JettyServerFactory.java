@@ -0,0 +1,83 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.AdminRequestHandler;
+import com.github.tomakehurst.wiremock.http.HttpServer;
+import com.github.tomakehurst.wiremock.http.HttpServerFactory;
+import com.github.tomakehurst.wiremock.http.StubRequestHandler;
+import com.github.tomakehurst.wiremock.jetty11.Jetty11HttpServer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.PreEncodedHttpField;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.handler.HandlerCollection;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds Wiremock's Jetty server, with its gzip handler set up for the mock. Responses made as they are requested (e.g.
+ * pages of lists) are compressed as they are written, while:
+ * <ul>
+ *     <li>examples are sent compressed already (see {@link Responses#example}), which Jetty leaves as they are</li>
+ *     <li>file content is sent as it is, keeping its length and ranges (and most files are compressed already)</li>
+ * </ul>
+ * Servlet filters can also be put in front of the stubs, for requests that Wiremock cannot handle as they are (see
+ * {@link com.zamzar.mock.uploads.UploadFilter}).
+ */
+public class JettyServerFactory implements HttpServerFactory {
+
+    protected final int minGzipSize;
+
+    // path -> filter for requests to the path
+    protected final Map<String, Filter> filters = new LinkedHashMap<>();
+
+    /**
+     * @param minGzipSize the smallest response (in bytes) worth compressing
+     */
+    public JettyServerFactory(int minGzipSize) {
+        this.minGzipSize = minGzipSize;
+    }
+
+    /**
+     * @param pathSpec e.g. "/v1/files"
+     */
+    public JettyServerFactory withFilter(String pathSpec, Filter filter) {
+        filters.put(pathSpec, filter);
+        return this;
+    }
+
+    @Override
+    public HttpServer buildHttpServer(Options options, AdminRequestHandler adminRequestHandler, StubRequestHandler stubRequestHandler) {
+        return new Jetty11HttpServer(options, adminRequestHandler, stubRequestHandler) {
+            @Override
+            protected HandlerCollection createHandler(Options options, AdminRequestHandler adminRequestHandler, StubRequestHandler stubRequestHandler) {
+                final HandlerCollection handlers = super.createHandler(options, adminRequestHandler, stubRequestHandler);
+                for (Handler handler : handlers.getHandlers()) {
+                    if (handler instanceof GzipHandler) {
+                        configure((GzipHandler) handler);
+                    }
+                }
+                return handlers;
+            }
+
+            @Override
+            protected void decorateMockServiceContextBeforeConfig(ServletContextHandler mockServiceContext) {
+                filters.forEach((pathSpec, filter) ->
+                    mockServiceContext.addFilter(new FilterHolder(filter), pathSpec, EnumSet.of(DispatcherType.REQUEST)));
+            }
+        };
+    }
+
+    protected void configure(GzipHandler gzip) {
+        gzip.addExcludedMimeTypes(ContentRenderer.CONTENT_TYPE, "multipart/byteranges");
+        gzip.setMinGzipSize(minGzipSize);
+        // Wiremock turns this off, but caches between the mock and its clients need it
+        gzip.setVary(new PreEncodedHttpField(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING.asString()));
+    }
+}
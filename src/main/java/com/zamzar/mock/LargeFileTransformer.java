@@ -1,41 +1,53 @@
 package com.zamzar.mock;
 
 import com.github.tomakehurst.wiremock.extension.Parameters;
-import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
-import com.github.tomakehurst.wiremock.http.HttpHeader;
-import com.github.tomakehurst.wiremock.http.HttpHeaders;
-import com.github.tomakehurst.wiremock.http.Response;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.content.Content;
+import com.zamzar.mock.content.SyntheticContent;
 
-public class LargeFileTransformer implements ResponseTransformerV2 {
+import java.util.Optional;
+
+public class LargeFileTransformer extends ContentTransformer {
 
     public static final String NAME = "large-file-transformer";
 
     public static final String GET_SIZE_IN_MB_PARAMETER = "sizeInMb";
 
+    // takes precedence over GET_SIZE_IN_MB_PARAMETER; allows sizes that are not a whole number of MBs (or > 2047 MB)
+    public static final String SIZE_IN_BYTES_PARAMETER = "sizeInBytes";
+
+    public static final String PATTERN_PARAMETER = "pattern";
+
+    public static final String SEED_PARAMETER = "seed";
+
     @Override
-    public boolean applyGlobally() {
-        return false;
+    public String getName() {
+        return NAME;
     }
 
+    // Content is generated lazily as the body is streamed, so memory use does not depend on the size of the file
     @Override
-    public Response transform(Response response, ServeEvent serveEvent) {
-        byte[] largeContent = new byte[getSizeInMb(serveEvent.getTransformerParameters()) * 1024 * 1024];
-
-        return Response.Builder.like(response).but()
-            .headers(new HttpHeaders(new HttpHeader("Content-Type", "application/octet-stream")))
-            .body(largeContent)
-            .status(200)
-            .build();
+    protected Optional<Content> getContent(ServeEvent serveEvent) {
+        final Parameters parameters = serveEvent.getTransformerParameters();
+        return Optional.of(new SyntheticContent(getSizeInBytes(parameters), getPattern(parameters), getSeed(parameters)));
     }
 
-    @Override
-    public String getName() {
-        return NAME;
+    protected long getSizeInBytes(Parameters parameters) {
+        if (parameters.containsKey(SIZE_IN_BYTES_PARAMETER)) {
+            return ((Number) parameters.get(SIZE_IN_BYTES_PARAMETER)).longValue();
+        }
+        return getSizeInMb(parameters) * 1024L * 1024L;
     }
 
     protected int getSizeInMb(Parameters parameters) {
         return parameters.getInt(GET_SIZE_IN_MB_PARAMETER);
     }
-}
 
+    protected SyntheticContent.Pattern getPattern(Parameters parameters) {
+        return SyntheticContent.Pattern.of(parameters.getString(PATTERN_PARAMETER, SyntheticContent.Pattern.ZEROS.name()));
+    }
+
+    protected long getSeed(Parameters parameters) {
+        return ((Number) parameters.getOrDefault(SEED_PARAMETER, 0L)).longValue();
+    }
+}
@@ -0,0 +1,64 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.zamzar.mock.examples.ExamplesRepository;
+import com.zamzar.mock.state.Lifecycle;
+import com.zamzar.mock.state.StateStore;
+import com.zamzar.mock.state.Tenants;
+import com.zamzar.mock.state.VirtualClock;
+
+import java.util.Optional;
+
+/**
+ * Responds according to the {@link Lifecycle} of a resource and the state that resource is in for the requesting tenant,
+ * moving the resource to its next state. This replaces Wiremock scenarios, whose state is shared by all clients.
+ * <p>
+ * Used by {@link RoutingTransformer} for items that have an example.
+ */
+public class LifecycleResponder {
+
+    protected final ContentRenderer content = new ContentRenderer();
+
+    protected Response respond(Response response, Request request, ExamplesRepository repository, StateStore states, VirtualClock clock, Lifecycle lifecycle, String action) {
+        final Lifecycle.Outcome outcome = advance(states, clock, Tenants.of(request), lifecycle.getId(), lifecycle, action);
+        switch (outcome.getKind()) {
+            case EXAMPLE:
+                return Responses.example(response, request, repository, lifecycle.getResource(), outcome.getExample());
+
+            case CONTENT:
+                return content.render(response, request, repository.content(lifecycle.getResource(), lifecycle.getId()));
+
+            case EMPTY:
+                return Response.Builder.like(response).but()
+                    .body(new byte[0])
+                    .build();
+
+            default:
+                return Responses.notFound(response, request, repository);
+        }
+    }
+
+    /**
+     * Moves the resource (with the given id) of the tenant to its next state for the action, after any states whose
+     * time has run out.
+     *
+     * @return the outcome of the action in the state the resource was in; {@link Lifecycle.Outcome#notFound()} if the
+     * lifecycle does not allow the action in that state
+     */
+    public static Lifecycle.Outcome advance(StateStore states, VirtualClock clock, String tenant, String id, Lifecycle lifecycle, String action) {
+        final long now = clock.millis();
+
+        // the transition is chosen while the scenario is locked, so concurrent requests see consecutive states
+        final Lifecycle.Transition[] chosen = new Lifecycle.Transition[1];
+        states.transition(tenant, lifecycle.getResource() + "/" + id, previous -> {
+            final StateStore.State state = lifecycle.settle(id, previous, now);
+            final Optional<Lifecycle.Transition> transition = lifecycle.find(action, state.getName());
+            chosen[0] = transition.orElse(null);
+
+            final String next = transition.map(t -> t.nextState(state.getName())).orElse(state.getName());
+            return next.equals(state.getName()) ? state : new StateStore.State(next, now);
+        });
+        return chosen[0] == null ? Lifecycle.Outcome.notFound() : chosen[0].getOutcome();
+    }
+}
@@ -0,0 +1,35 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.zamzar.mock.metrics.Metrics;
+
+/**
+ * {@code GET /__admin/metrics} exposes {@link Metrics} (and JVM heap, thread and GC figures) for Prometheus to scrape
+ */
+public class MetricsAdmin implements AdminApiExtension {
+
+    public static final String NAME = "metrics-admin";
+
+    protected final Metrics metrics;
+
+    public MetricsAdmin(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/metrics", (admin, serveEvent, pathParams) -> ResponseDefinitionBuilder.responseDefinition()
+            .withStatus(200)
+            .withHeader("Content-Type", Metrics.CONTENT_TYPE)
+            .withBody(metrics.render())
+            .build());
+    }
+}
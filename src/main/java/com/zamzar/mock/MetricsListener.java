@@ -0,0 +1,47 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.metrics.Endpoints;
+import com.zamzar.mock.metrics.Metrics;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every request in {@link Metrics} once it has been served.
+ */
+public class MetricsListener implements ServeEventListener {
+
+    public static final String NAME = "metrics-listener";
+
+    protected final Metrics metrics;
+
+    public MetricsListener(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return true;
+    }
+
+    @Override
+    public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+        final String method = serveEvent.getRequest().getMethod().getName();
+        final String endpoint = Endpoints.of(method, URI.create(serveEvent.getRequest().getUrl()).getPath());
+        final int status = serveEvent.getResponse() == null ? 0 : serveEvent.getResponse().getStatus();
+
+        // Wiremock times requests to the millisecond, from being received to being sent (including any added delay)
+        final Timing timing = serveEvent.getTiming();
+        final Integer millis = timing == null ? null : timing.getTotalTime();
+        metrics.recordRequest(endpoint, method, status, TimeUnit.MILLISECONDS.toNanos(millis == null ? 0 : millis));
+    }
+}
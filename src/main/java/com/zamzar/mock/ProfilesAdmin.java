@@ -0,0 +1,65 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.common.Errors;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.zamzar.mock.faults.FaultProfile;
+import com.zamzar.mock.faults.FaultProfiles;
+
+import java.util.Map;
+
+/**
+ * Admin endpoints for {@link FaultProfile}s:
+ * <ul>
+ *     <li>{@code GET /__admin/profiles} lists the profiles, and which one is active</li>
+ *     <li>{@code PUT /__admin/profiles/{name}} adds or replaces a profile (given as JSON)</li>
+ *     <li>{@code POST /__admin/profiles/{name}/activate} makes a profile active ({@code none} turns faults off)</li>
+ * </ul>
+ */
+public class ProfilesAdmin implements AdminApiExtension {
+
+    public static final String NAME = "profiles-admin";
+
+    protected final FaultProfiles profiles;
+
+    public ProfilesAdmin(FaultProfiles profiles) {
+        this.profiles = profiles;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/profiles", (admin, serveEvent, pathParams) -> describe());
+
+        router.add(RequestMethod.PUT, "/profiles/{name}", (admin, serveEvent, pathParams) -> {
+            try {
+                profiles.define(FaultProfiles.parse(pathParams.get("name"), serveEvent.getRequest().getBodyAsString()));
+            } catch (IllegalArgumentException e) {
+                return ResponseDefinition.badRequest(Errors.single(10, e.getMessage()));
+            }
+            return describe();
+        });
+
+        router.add(RequestMethod.POST, "/profiles/{name}/activate", (admin, serveEvent, pathParams) -> {
+            try {
+                profiles.activate(pathParams.get("name"));
+            } catch (IllegalArgumentException e) {
+                return ResponseDefinition.badRequest(Errors.single(10, e.getMessage()));
+            }
+            return describe();
+        });
+    }
+
+    protected ResponseDefinition describe() {
+        return ResponseDefinition.okForJson(Map.of(
+            "active", profiles.active().getName(),
+            "profiles", profiles.all()
+        ));
+    }
+}
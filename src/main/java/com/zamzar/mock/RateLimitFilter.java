@@ -0,0 +1,77 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.requestfilter.RequestFilterAction;
+import com.github.tomakehurst.wiremock.extension.requestfilter.StubRequestFilterV2;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.ratelimit.TokenBucket;
+import com.zamzar.mock.state.Tenants;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Throttles each tenant like the real API throttles each API key, with a {@link TokenBucket} per tenant (see
+ * {@link Tenants#of}). Requests beyond the limit get a 429 with {@code Retry-After} and {@code X-RateLimit-*} headers.
+ */
+public class RateLimitFilter implements StubRequestFilterV2 {
+
+    public static final String NAME = "rate-limit-filter";
+
+    protected final int burst;
+    protected final double perSecond;
+    protected final LongSupplier nanoTime;
+    protected final byte[] body;
+
+    // tenant -> bucket; tenants never share a bucket, so they never contend with (or throttle) each other
+    protected final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param burst     the number of requests a tenant can make at once
+     * @param perSecond the number of requests a tenant can make each second, once it has used its burst
+     * @param body      of the 429
+     */
+    public RateLimitFilter(int burst, double perSecond, byte[] body) {
+        this(burst, perSecond, body, System::nanoTime);
+    }
+
+    public RateLimitFilter(int burst, double perSecond, byte[] body, LongSupplier nanoTime) {
+        this.burst = burst;
+        this.perSecond = perSecond;
+        this.body = body;
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public RequestFilterAction filter(Request request, ServeEvent serveEvent) {
+        final long now = nanoTime.getAsLong();
+        final TokenBucket bucket = buckets.computeIfAbsent(Tenants.of(request), k -> new TokenBucket(burst, perSecond, now));
+        final TokenBucket.Result result = bucket.take(now);
+        if (result.isAllowed()) {
+            return RequestFilterAction.continueWith(request);
+        }
+
+        return RequestFilterAction.stopWith(ResponseDefinitionBuilder.responseDefinition()
+            .withStatus(429)
+            .withHeader("Content-Type", "application/json")
+            .withHeader("Retry-After", String.valueOf(seconds(result.getRetryAfterNanos())))
+            .withHeader("X-RateLimit-Limit", String.valueOf(bucket.getBurst()))
+            .withHeader("X-RateLimit-Remaining", String.valueOf(result.getRemaining()))
+            .withHeader("X-RateLimit-Reset", String.valueOf(seconds(result.getResetNanos())))
+            .withBody(body)
+            .build());
+    }
+
+    // headers give whole seconds, rounded up so that clients that wait that long will find a token
+    protected static long seconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
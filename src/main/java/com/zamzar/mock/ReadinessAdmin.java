@@ -0,0 +1,44 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.jsonResponse;
+
+/**
+ * {@code GET /__admin/ready} answers 200 once every example is loaded and every stub is registered, and 503 until
+ * then, so that CI can wait for the mock (rather than for its port, which opens earlier). Either way, it gives the time
+ * each phase of startup took.
+ */
+public class ReadinessAdmin implements AdminApiExtension {
+
+    public static final String NAME = "readiness-admin";
+
+    protected final Startup startup;
+
+    public ReadinessAdmin(Startup startup) {
+        this.startup = startup;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/ready", (admin, serveEvent, pathParams) -> describe());
+    }
+
+    protected ResponseDefinition describe() {
+        return jsonResponse(Map.of(
+            "ready", startup.isReady(),
+            "phases_ms", startup.getPhases(),
+            "total_ms", startup.getTotalMillis()
+        ), startup.isReady() ? 200 : 503);
+    }
+}
@@ -0,0 +1,54 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.zamzar.mock.content.AcceptEncoding;
+import com.zamzar.mock.examples.ExamplesRepository;
+
+/**
+ * Responses shared by transformers.
+ */
+public class Responses {
+
+    /**
+     * @return the response with an example as its body, gzipped if the client accepts that (and the repository is
+     * compressing bodies as large as the example). Examples are only compressed once, so Jetty leaves them as they are
+     * rather than compressing them again for every request.
+     */
+    public static Response example(Response response, Request request, ExamplesRepository repository, String resource, String name) {
+        final byte[] body = repository.body(resource, name);
+        if (!repository.isCompressing(body)) {
+            return Response.Builder.like(response).but()
+                .body(body)
+                .build();
+        }
+
+        final HttpHeaders headers = response.getHeaders().plus(new HttpHeader("Vary", "Accept-Encoding"));
+        if (!AcceptEncoding.accepts(request.getHeader("Accept-Encoding"), AcceptEncoding.GZIP)) {
+            return Response.Builder.like(response).but()
+                .headers(headers)
+                .body(body)
+                .build();
+        }
+
+        return Response.Builder.like(response).but()
+            .headers(headers.plus(new HttpHeader("Content-Encoding", AcceptEncoding.GZIP)))
+            .body(repository.body(resource, name, AcceptEncoding.GZIP))
+            .build();
+    }
+
+    /**
+     * @return a 404 with the same body as the real API's
+     */
+    public static Response notFound(Response response, Request request, ExamplesRepository repository) {
+        final HttpHeaders headers = response.getHeaders().getContentTypeHeader().isPresent() ?
+            response.getHeaders() :
+            response.getHeaders().plus(new HttpHeader("Content-Type", "application/json"));
+        return example(Response.Builder.like(response).but()
+            .status(404)
+            .headers(headers)
+            .build(), request, repository, "errors", "404");
+    }
+}
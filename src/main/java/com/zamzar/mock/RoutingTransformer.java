@@ -0,0 +1,121 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.examples.ExamplesRepository;
+import com.zamzar.mock.routing.Route;
+import com.zamzar.mock.routing.Routes;
+import com.zamzar.mock.state.Lifecycle;
+import com.zamzar.mock.state.StateStore;
+import com.zamzar.mock.state.VirtualClock;
+
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Serves every request for a single item (e.g. {@code GET /v1/jobs/1} or {@code GET /v1/files/1000/content}) from one
+ * stub, looking up the item in {@link Routes}:
+ * <ul>
+ *     <li>an item with an example moves through its own lifecycle (see {@link LifecycleResponder})</li>
+ *     <li>any other item is created or generated (see {@link SyntheticResourceResponder} and
+ *     {@link SyntheticFileContentResponder})</li>
+ * </ul>
+ * Responds with a 404 if there is no such item, or the item does not allow the action.
+ */
+public class RoutingTransformer implements ResponseTransformerV2 {
+
+    public static final String NAME = "routing-transformer";
+
+    public static final String EXAMPLES_REPOSITORY_PARAMETER = "repo";
+    public static final String ROUTES_PARAMETER = "routes";
+    public static final String STATE_STORE_PARAMETER = "states";
+    public static final String CLOCK_PARAMETER = "clock";
+    public static final String PRETTY_PARAMETER = "pretty";
+
+    protected final LifecycleResponder lifecycles = new LifecycleResponder();
+    protected final SyntheticResourceResponder resources = new SyntheticResourceResponder();
+    protected final SyntheticFileContentResponder contents = new SyntheticFileContentResponder();
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        final Parameters parameters = serveEvent.getTransformerParameters();
+        final ExamplesRepository repository = getExamplesRepository(parameters);
+        final Routes routes = getRoutes(parameters);
+        final Request request = serveEvent.getRequest();
+
+        final Optional<Route> route = routes.match(request.getMethod().getName(), URI.create(request.getUrl()).getPath());
+        if (route.isEmpty()) {
+            return Responses.notFound(response, request, repository);
+        }
+
+        final Optional<Lifecycle> lifecycle = routes.lifecycle(route.get());
+        if (lifecycle.isPresent()) {
+            return lifecycles.respond(response, request, repository, getStateStore(parameters), getClock(parameters), lifecycle.get(), route.get().getAction());
+        }
+
+        return respondSynthetic(response, request, repository, routes, route.get(), parameters);
+    }
+
+    // items created through the API, and generated items
+    protected Response respondSynthetic(Response response, Request request, ExamplesRepository repository, Routes routes, Route route, Parameters parameters) {
+        final String resource = route.getResource();
+        final String action = route.getAction();
+        final Lifecycle shared = routes.shared(resource).orElse(null);
+        if (action.equals(Lifecycle.CONTENT)) {
+            return resource.equals(SyntheticFileContentResponder.RESOURCE) ?
+                contents.respond(response, request, repository, getStateStore(parameters), getClock(parameters), route.getNumericId(), shared) :
+                Responses.notFound(response, request, repository);
+        }
+
+        // items that never change can only be read
+        if (shared == null && !action.equals(Lifecycle.GET)) {
+            return Responses.notFound(response, request, repository);
+        }
+
+        return resources.respond(
+            response,
+            request,
+            repository,
+            getStateStore(parameters),
+            getClock(parameters),
+            resource,
+            route.getNumericId(),
+            shared,
+            action,
+            isPretty(parameters)
+        );
+    }
+
+    protected ExamplesRepository getExamplesRepository(Parameters parameters) {
+        return (ExamplesRepository) parameters.get(EXAMPLES_REPOSITORY_PARAMETER);
+    }
+
+    protected Routes getRoutes(Parameters parameters) {
+        return (Routes) parameters.get(ROUTES_PARAMETER);
+    }
+
+    protected StateStore getStateStore(Parameters parameters) {
+        return (StateStore) parameters.get(STATE_STORE_PARAMETER);
+    }
+
+    protected VirtualClock getClock(Parameters parameters) {
+        return (VirtualClock) parameters.get(CLOCK_PARAMETER);
+    }
+
+    protected boolean isPretty(Parameters parameters) {
+        return (boolean) parameters.getOrDefault(PRETTY_PARAMETER, true);
+    }
+}
@@ -0,0 +1,37 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+/**
+ * Builds Jetty's thread pool, which handles requests on virtual threads when asked to and the JDK has them (Java 21 or
+ * later). A request then holds on to one of the pool's threads only until it is dispatched, so slow clients (e.g.
+ * downloading the large file over a slow connection) cannot take every thread and keep other requests waiting.
+ */
+public class ServerThreadPoolFactory implements ThreadPoolFactory {
+
+    protected final boolean virtualThreads;
+
+    /**
+     * @param virtualThreads whether to handle requests on virtual threads, if the JDK has them
+     */
+    public ServerThreadPoolFactory(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Override
+    public ThreadPool buildThreadPool(Options options) {
+        final QueuedThreadPool pool = new QueuedThreadPool(options.containerThreads());
+        if (usesVirtualThreads()) {
+            pool.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+        }
+        return pool;
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads && VirtualThreads.areSupported();
+    }
+}
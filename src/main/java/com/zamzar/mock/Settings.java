@@ -0,0 +1,65 @@
+package com.zamzar.mock;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Reads runtime configuration for the mock.
+ * <p>
+ * Each setting can be supplied as a system property (e.g. {@code -Dzamzar.mock.large-file.size=1073741824}) or as an
+ * environment variable (e.g. {@code ZAMZAR_MOCK_LARGE_FILE_SIZE=1073741824}), which is more convenient when running the
+ * Docker image. System properties take precedence.
+ */
+public class Settings {
+
+    protected static final String PROPERTY_PREFIX = "zamzar.mock.";
+
+    protected static final String ENVIRONMENT_PREFIX = "ZAMZAR_MOCK_";
+
+    public static Optional<String> get(String name) {
+        final String property = System.getProperty(PROPERTY_PREFIX + name);
+        if (property != null && !property.isBlank()) {
+            return Optional.of(property.trim());
+        }
+
+        final String variable = System.getenv(ENVIRONMENT_PREFIX + toEnvironmentName(name));
+        if (variable != null && !variable.isBlank()) {
+            return Optional.of(variable.trim());
+        }
+
+        return Optional.empty();
+    }
+
+    public static String getString(String name, String defaultValue) {
+        return get(name).orElse(defaultValue);
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        return get(name).map(v -> parse(name, v, Integer::parseInt)).orElse(defaultValue);
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        return get(name).map(v -> parse(name, v, Long::parseLong)).orElse(defaultValue);
+    }
+
+    public static double getDouble(String name, double defaultValue) {
+        return get(name).map(v -> parse(name, v, Double::parseDouble)).orElse(defaultValue);
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        return get(name).map(Boolean::parseBoolean).orElse(defaultValue);
+    }
+
+    protected static String toEnvironmentName(String name) {
+        return name.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_");
+    }
+
+    protected static <T> T parse(String name, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for setting " + name + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.zamzar.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.zamzar.mock.content.Content;
+import com.zamzar.mock.content.SyntheticContent;
+import com.zamzar.mock.examples.CreatedExamples;
+import com.zamzar.mock.examples.ExamplesRepository;
+import com.zamzar.mock.state.Lifecycle;
+import com.zamzar.mock.state.StateStore;
+import com.zamzar.mock.state.Tenants;
+import com.zamzar.mock.state.VirtualClock;
+import com.zamzar.mock.synthetic.SyntheticFiles;
+
+import java.util.Optional;
+
+/**
+ * Serves the content of a file that has no example of its own (e.g. {@code GET /v1/files/1000/content}): a file created
+ * through the API or a generated file. Uploaded files are served as they were uploaded; the content of other files is
+ * random, but always the same for a given file, and has the size given by the file's metadata. Responds with a 404 if
+ * there is no such file, if it was created by another tenant, or if its lifecycle does not allow its content to be
+ * downloaded (e.g. as it has been deleted).
+ * <p>
+ * Used by {@link RoutingTransformer} for files that have no example.
+ */
+public class SyntheticFileContentResponder {
+
+    protected static final String RESOURCE = "files";
+
+    protected final ContentRenderer renderer = new ContentRenderer();
+
+    /**
+     * @param lifecycle shared by the created files, or null if they never change
+     */
+    protected Response respond(Response response, Request request, ExamplesRepository repository, StateStore states, VirtualClock clock,
+                               Optional<Long> id, Lifecycle lifecycle) {
+        final Optional<Content> content = id.flatMap(i -> getContent(repository, states, clock, Tenants.of(request), i, lifecycle));
+        if (content.isEmpty()) {
+            return Responses.notFound(response, request, repository);
+        }
+
+        return renderer.render(response, request, content.get());
+    }
+
+    protected Optional<Content> getContent(ExamplesRepository repository, StateStore states, VirtualClock clock, String tenant, long id, Lifecycle lifecycle) {
+        final Optional<CreatedExamples> created = repository.created(RESOURCE).filter(files -> files.contains(id));
+        if (created.isPresent()) {
+            final Optional<JsonNode> file = created.get().get(tenant, id, "");
+            if (file.isEmpty()) {
+                return Optional.empty();
+            }
+            if (lifecycle != null && LifecycleResponder.advance(states, clock, tenant, String.valueOf(id), lifecycle, Lifecycle.CONTENT).getKind() != Lifecycle.Outcome.Kind.CONTENT) {
+                return Optional.empty();
+            }
+
+            final Optional<Content> uploaded = repository.uploads().flatMap(uploads -> uploads.get(id)).map(Content.class::cast);
+            if (uploaded.isPresent()) {
+                return uploaded;
+            }
+
+            // other files created through the API (e.g. the targets of jobs) only have metadata, so their content is
+            // made up to match it
+            return Optional.of(new SyntheticContent(file.get().path("size").asLong(), SyntheticContent.Pattern.RANDOM, id));
+        }
+
+        return repository.generated(RESOURCE)
+            .map(SyntheticFiles.class::cast)
+            .filter(files -> files.contains(id))
+            .map(files -> files.content(id));
+    }
+}
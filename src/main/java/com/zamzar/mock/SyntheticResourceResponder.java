@@ -0,0 +1,94 @@
+package com.zamzar.mock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.zamzar.mock.examples.CreatedExamples;
+import com.zamzar.mock.examples.ExamplesRepository;
+import com.zamzar.mock.state.Lifecycle;
+import com.zamzar.mock.state.StateStore;
+import com.zamzar.mock.state.Tenants;
+import com.zamzar.mock.state.VirtualClock;
+
+import java.util.Optional;
+
+/**
+ * Serves a single item that has no example of its own (e.g. {@code GET /v1/jobs/1000}): an item created through the API
+ * or a generated item. Responds with a 404 if there is no such item.
+ * <p>
+ * Created items move through their {@link Lifecycle} (if the resource has one) separately for each tenant, like examples do,
+ * and are only found by the tenant that created them.
+ * <p>
+ * Used by {@link RoutingTransformer} for items that have no example.
+ */
+public class SyntheticResourceResponder {
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * @param lifecycle shared by the created items of the resource, or null if they never change
+     */
+    protected Response respond(Response response, Request request, ExamplesRepository repository, StateStore states, VirtualClock clock,
+                               String resource, Optional<Long> id, Lifecycle lifecycle, String action, boolean pretty) {
+        final Optional<CreatedExamples> created = repository.created(resource);
+
+        final Optional<JsonNode> item;
+        if (id.isPresent() && created.isPresent() && created.get().contains(id.get())) {
+            item = getCreated(repository, states, clock, request, created.get(), id.get(), lifecycle, action);
+        } else if (action.equals(Lifecycle.GET)) {
+            item = id.flatMap(i -> repository.generated(resource).flatMap(generated -> generated.get(i)));
+        } else {
+            item = Optional.empty(); // generated items are read-only
+        }
+        if (item.isEmpty()) {
+            return Responses.notFound(response, request, repository);
+        }
+
+        try {
+            final String body = pretty ?
+                MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(item.get()) :
+                MAPPER.writeValueAsString(item.get());
+            return Response.Builder.like(response).but()
+                .body(body)
+                .build();
+
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize generated " + resource, e);
+        }
+    }
+
+    /**
+     * @return the variant of the created item for the state it moves out of, or nothing if the lifecycle does not
+     * allow the action in that state
+     */
+    protected Optional<JsonNode> getCreated(ExamplesRepository repository, StateStore states, VirtualClock clock, Request request,
+                                            CreatedExamples created, long id, Lifecycle lifecycle, String action) {
+        final String tenant = Tenants.of(request);
+        if (!created.belongsTo(id, tenant)) {
+            return Optional.empty();
+        }
+        if (lifecycle == null) {
+            return created.get(tenant, id, "");
+        }
+
+        final Lifecycle.Outcome outcome = LifecycleResponder.advance(
+            states,
+            clock,
+            tenant,
+            String.valueOf(id),
+            lifecycle,
+            action
+        );
+        if (outcome.getKind() != Lifecycle.Outcome.Kind.EXAMPLE) {
+            return Optional.empty();
+        }
+
+        // the content of a deleted file can never be downloaded again
+        if (action.equals(Lifecycle.DELETE) && created.getResource().equals(SyntheticFileContentResponder.RESOURCE)) {
+            repository.uploads().ifPresent(uploads -> uploads.release(id));
+        }
+        return created.get(tenant, id, outcome.getExample());
+    }
+}
@@ -0,0 +1,77 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.extension.requestfilter.AdminRequestFilterV2;
+import com.github.tomakehurst.wiremock.extension.requestfilter.RequestFilterAction;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.state.StateStore;
+import com.zamzar.mock.state.Tenants;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Admin endpoints for the state of each tenant:
+ * <ul>
+ *     <li>{@code POST /__admin/scenarios/reset} resets the state of the tenant named by {@link Tenants#HEADER}, or of
+ *     every tenant if the header is absent</li>
+ *     <li>{@code POST /__admin/tenants/{tenant}/reset} resets the state of a tenant</li>
+ *     <li>{@code GET /__admin/tenants} lists the resources of each tenant that have left their initial state</li>
+ * </ul>
+ */
+public class TenantsAdmin implements AdminApiExtension, AdminRequestFilterV2 {
+
+    public static final String NAME = "tenants-admin";
+
+    protected final StateStore states;
+
+    public TenantsAdmin(StateStore states) {
+        this.states = states;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/tenants", (admin, serveEvent, pathParams) -> {
+            final Map<String, Map<String, String>> all = new TreeMap<>();
+            states.tenants().forEach(tenant -> all.put(tenant, states.states(tenant)));
+            return ResponseDefinition.okForJson(Map.of("tenants", all));
+        });
+
+        router.add(RequestMethod.POST, "/tenants/{tenant}/reset", (admin, serveEvent, pathParams) -> {
+            states.reset(pathParams.get("tenant"));
+            return ResponseDefinition.ok();
+        });
+    }
+
+    @Override
+    public RequestFilterAction filter(Request request, ServeEvent serveEvent) {
+        if (!RequestMethod.POST.equals(request.getMethod())) {
+            return RequestFilterAction.continueWith(request);
+        }
+
+        // depending on how Wiremock is mounted, the path may or may not include the admin root
+        final String path = URI.create(request.getUrl()).getPath().replaceFirst("^/__admin", "");
+        if (path.equals("/scenarios/reset")) {
+            final String tenant = request.getHeader(Tenants.HEADER);
+            if (tenant != null && !tenant.isBlank()) {
+                // leave everyone else's state (and Wiremock's own scenarios) alone
+                states.reset(tenant.trim());
+                return RequestFilterAction.stopWith(ResponseDefinition.ok());
+            }
+            states.resetAll();
+        } else if (path.equals("/reset")) {
+            states.resetAll();
+        }
+        return RequestFilterAction.continueWith(request);
+    }
+}
@@ -0,0 +1,41 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.extension.ResponseTransformerV2;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.zamzar.mock.metrics.Metrics;
+
+/**
+ * Records how long another transformer takes in {@link Metrics}. Content that is streamed (e.g. the large file) is
+ * sent after the transformer returns, so it is not included.
+ */
+public class TimedTransformer implements ResponseTransformerV2 {
+
+    protected final ResponseTransformerV2 transformer;
+    protected final Metrics metrics;
+
+    public TimedTransformer(ResponseTransformerV2 transformer, Metrics metrics) {
+        this.transformer = transformer;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response transform(Response response, ServeEvent serveEvent) {
+        final long start = System.nanoTime();
+        try {
+            return transformer.transform(response, serveEvent);
+        } finally {
+            metrics.recordTransformer(transformer.getName(), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return transformer.applyGlobally();
+    }
+
+    @Override
+    public String getName() {
+        return transformer.getName();
+    }
+}
@@ -0,0 +1,51 @@
+package com.zamzar.mock.content;
+
+import java.util.Locale;
+
+/**
+ * Reads an {@code Accept-Encoding} header (RFC 9110, section 12.5.3), e.g. {@code gzip, deflate;q=0.5, *;q=0}.
+ */
+public class AcceptEncoding {
+
+    public static final String GZIP = "gzip";
+
+    /**
+     * @param header the header, or null if the request has none (in which case the response is not encoded)
+     * @return whether a response may be sent with the given content coding, i.e. the header gives it (or, failing that,
+     * {@code *}) a weight above 0
+     */
+    public static boolean accepts(String header, String coding) {
+        if (header == null) {
+            return false;
+        }
+
+        double exact = -1;
+        double any = -1;
+        for (String element : header.split(",")) {
+            final String[] parts = element.split(";");
+            final String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            final double weight = weight(parts);
+            if (name.equals(coding) || (coding.equals(GZIP) && name.equals("x-gzip"))) {
+                exact = Math.max(exact, weight);
+            } else if (name.equals("*")) {
+                any = Math.max(any, weight);
+            }
+        }
+        return (exact >= 0 ? exact : any) > 0;
+    }
+
+    // e.g. 0.5 for "q=0.5"; malformed weights rule the coding out
+    protected static double weight(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
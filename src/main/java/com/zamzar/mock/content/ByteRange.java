@@ -0,0 +1,118 @@
+package com.zamzar.mock.content;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An inclusive range of bytes, as requested by a {@code Range} header (RFC 9110, section 14).
+ */
+public class ByteRange {
+
+    // Guards against pathological requests made up of many tiny (or overlapping) ranges
+    public static final int MAX_RANGES = 100;
+
+    protected static final String UNIT = "bytes=";
+
+    protected final long first;
+    protected final long last;
+
+    public ByteRange(long first, long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Parses a {@code Range} header against content of the given size.
+     *
+     * @return the satisfiable ranges, in the order requested; an empty list if none of the ranges are satisfiable
+     * @throws IllegalArgumentException if the header is malformed (in which case it should be ignored)
+     */
+    public static List<ByteRange> parse(String header, long size) {
+        if (header == null || !header.toLowerCase(Locale.ROOT).startsWith(UNIT)) {
+            throw new IllegalArgumentException("Unsupported range: " + header);
+        }
+
+        final String[] specs = header.substring(UNIT.length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            throw new IllegalArgumentException("Too many ranges: " + specs.length);
+        }
+
+        final List<ByteRange> satisfiable = new ArrayList<>();
+        for (String spec : specs) {
+            final String trimmed = spec.trim();
+            final int dash = trimmed.indexOf('-');
+            if (dash < 0) {
+                throw new IllegalArgumentException("Malformed range: " + trimmed);
+            }
+
+            final String start = trimmed.substring(0, dash);
+            final String end = trimmed.substring(dash + 1);
+
+            if (start.isEmpty()) {
+                // suffix range, e.g. "-500" means the last 500 bytes
+                final long suffixLength = parsePosition(end);
+                if (suffixLength > 0 && size > 0) {
+                    satisfiable.add(new ByteRange(Math.max(0, size - suffixLength), size - 1));
+                }
+            } else {
+                final long first = parsePosition(start);
+                final long last = end.isEmpty() ? Long.MAX_VALUE : parsePosition(end);
+                if (last < first) {
+                    throw new IllegalArgumentException("Malformed range: " + trimmed);
+                }
+                if (first < size) {
+                    satisfiable.add(new ByteRange(first, Math.min(last, size - 1)));
+                }
+            }
+        }
+
+        return satisfiable;
+    }
+
+    protected static long parsePosition(String value) {
+        if (value.isEmpty() || !value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            throw new IllegalArgumentException("Malformed range position: " + value);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            // a position this large can only refer to beyond the end of the content
+            return Long.MAX_VALUE;
+        }
+    }
+
+    public long getFirst() {
+        return first;
+    }
+
+    public long getLast() {
+        return last;
+    }
+
+    public long getLength() {
+        return last - first + 1;
+    }
+
+    public String toContentRange(long size) {
+        return "bytes " + first + "-" + last + "/" + size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ByteRange)) return false;
+        final ByteRange other = (ByteRange) o;
+        return first == other.first && last == other.last;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(first) * 31 + Long.hashCode(last);
+    }
+
+    @Override
+    public String toString() {
+        return first + "-" + last;
+    }
+}
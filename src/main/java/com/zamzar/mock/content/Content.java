@@ -0,0 +1,29 @@
+package com.zamzar.mock.content;
+
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The binary content of a file, which can be streamed in whole or in part.
+ */
+public interface Content extends InputStreamSource {
+
+    long getSize();
+
+    InputStream getStream(long offset, long length);
+
+    @Override
+    default InputStream getStream() {
+        return getStream(0, getSize());
+    }
+
+    /**
+     * A strong entity tag (including the surrounding quotes) that changes whenever the content changes.
+     */
+    String getETag();
+
+    Optional<Instant> getLastModified();
+}
@@ -0,0 +1,290 @@
+package com.zamzar.mock.content;
+
+import org.eclipse.jetty.server.HttpOutput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Content stored in a file on disk. Ranges are read by seeking, rather than by reading and discarding earlier bytes.
+ * <p>
+ * When Jetty sends the content, it is handed the file (see {@link Transfer}) rather than copying it through a stream
+ * buffer on the heap.
+ */
+public class FileContent implements Content {
+
+    protected final Path path;
+    protected final long size;
+    protected final Instant lastModified;
+    protected final Transfer transfer;
+
+    // the whole file, mapped on first use and then shared by every request (each through a buffer of its own)
+    protected volatile ByteBuffer mapped;
+
+    public FileContent(Path path) {
+        this(path, Transfer.STREAM);
+    }
+
+    public FileContent(Path path, Transfer transfer) {
+        try {
+            this.path = path;
+            this.transfer = transfer;
+            this.size = Files.size(path);
+            // HTTP dates have a resolution of one second
+            this.lastModified = Files.getLastModifiedTime(path).toInstant().truncatedTo(ChronoUnit.SECONDS);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read attributes of " + path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Transfer getTransfer() {
+        return transfer;
+    }
+
+    /**
+     * @return whether the file still has the size and modification time it had when this content was created
+     */
+    public boolean isCurrent() {
+        try {
+            return Files.size(path) == size &&
+                Files.getLastModifiedTime(path).toInstant().truncatedTo(ChronoUnit.SECONDS).equals(lastModified);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public InputStream getStream(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > size) {
+            throw new IndexOutOfBoundsException("[" + offset + ", " + (offset + length) + ") is outside of [0, " + size + ")");
+        }
+
+        // the largest buffer is 2GB, so larger files are always read through their channel
+        if (transfer == Transfer.MAPPED && size <= Integer.MAX_VALUE) {
+            return new MappedInputStream(map().slice((int) offset, (int) length));
+        }
+
+        try {
+            final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new FileChannelInputStream(channel, offset, offset + length, transfer == Transfer.CHANNEL);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open " + path, e);
+        }
+    }
+
+    protected ByteBuffer map() {
+        ByteBuffer buffer = mapped;
+        if (buffer == null) {
+            synchronized (this) {
+                buffer = mapped;
+                if (buffer == null) {
+                    // the mapping outlives the channel, and lasts until the buffer is garbage collected
+                    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                        buffer = mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not map " + path, e);
+                    }
+                }
+            }
+        }
+        return buffer;
+    }
+
+    @Override
+    public String getETag() {
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified.getEpochSecond()) + "\"";
+    }
+
+    @Override
+    public Optional<Instant> getLastModified() {
+        return Optional.of(lastModified);
+    }
+
+    /**
+     * How content is handed to Jetty when Jetty sends it
+     */
+    public enum Transfer {
+        /**
+         * The file is memory-mapped, and Jetty writes the mapped bytes to the connection, so they are never copied onto
+         * the heap (files larger than 2GB are sent like {@link #CHANNEL})
+         */
+        MAPPED,
+        /**
+         * Jetty reads the file's channel into buffers of its own (which are off the heap), and writes those
+         */
+        CHANNEL,
+        /**
+         * The file is read through a stream, one buffer on the heap at a time
+         */
+        STREAM;
+
+        public static Transfer of(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    protected static class MappedInputStream extends InputStream {
+        protected final ByteBuffer buffer;
+
+        protected MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            final int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            if (!(out instanceof HttpOutput)) {
+                return super.transferTo(out);
+            }
+
+            final int count = buffer.remaining();
+            ((HttpOutput) out).sendContent(buffer);
+            return count;
+        }
+    }
+
+    protected static class FileChannelInputStream extends InputStream {
+        protected final FileChannel channel;
+        protected long position;
+        protected final long end;
+        protected final boolean sendChannel;
+
+        protected FileChannelInputStream(FileChannel channel, long position, long end, boolean sendChannel) {
+            this.channel = channel;
+            this.position = position;
+            this.end = end;
+            this.sendChannel = sendChannel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            final int count = (int) Math.min(len, end - position);
+            final int read = channel.read(ByteBuffer.wrap(buffer, off, count), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            final long skipped = Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            if (!sendChannel || !(out instanceof HttpOutput)) {
+                return super.transferTo(out);
+            }
+
+            final long count = end - position;
+            ((HttpOutput) out).sendContent(new RangeChannel());
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        // the rest of the range, as a channel of its own
+        protected class RangeChannel implements ReadableByteChannel {
+            @Override
+            public int read(ByteBuffer buffer) throws IOException {
+                if (position >= end) {
+                    return -1;
+                }
+                final ByteBuffer limited = buffer.remaining() > end - position ?
+                    buffer.slice().limit((int) (end - position)) :
+                    buffer;
+                final int read = channel.read(limited, position);
+                if (read > 0) {
+                    position += read;
+                    if (limited != buffer) {
+                        buffer.position(buffer.position() + read);
+                    }
+                }
+                return read;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        }
+    }
+}
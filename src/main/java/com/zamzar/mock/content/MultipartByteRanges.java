@@ -0,0 +1,83 @@
+package com.zamzar.mock.content;
+
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@code multipart/byteranges} body (RFC 9110, section 14.6), streamed part by part from the underlying content.
+ */
+public class MultipartByteRanges implements InputStreamSource {
+
+    protected final Content content;
+    protected final List<ByteRange> ranges;
+    protected final String contentType;
+    protected final String boundary;
+    protected final List<byte[]> partHeaders = new ArrayList<>();
+    protected final byte[] closingDelimiter;
+    protected final long length;
+
+    public MultipartByteRanges(Content content, List<ByteRange> ranges, String contentType) {
+        this.content = content;
+        this.ranges = ranges;
+        this.contentType = contentType;
+        this.boundary = "zamzar-mock-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+        long length = 0;
+        for (ByteRange range : ranges) {
+            // each part's data is followed by a CRLF, which we fold into the next part's delimiter
+            final String header = (partHeaders.isEmpty() ? "" : "\r\n") +
+                "--" + boundary + "\r\n" +
+                "Content-Type: " + contentType + "\r\n" +
+                "Content-Range: " + range.toContentRange(content.getSize()) + "\r\n" +
+                "\r\n";
+            final byte[] bytes = header.getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(bytes);
+            length += bytes.length + range.getLength();
+        }
+        this.closingDelimiter = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        this.length = length + closingDelimiter.length;
+    }
+
+    public String getContentType() {
+        return "multipart/byteranges; boundary=" + boundary;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public InputStream getStream() {
+        // parts are opened lazily, as the preceding part is exhausted
+        final List<InputStreamSource> sources = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            final byte[] header = partHeaders.get(i);
+            final ByteRange range = ranges.get(i);
+            sources.add(() -> new ByteArrayInputStream(header));
+            sources.add(() -> content.getStream(range.getFirst(), range.getLength()));
+        }
+        sources.add(() -> new ByteArrayInputStream(closingDelimiter));
+
+        final Iterator<InputStreamSource> iterator = sources.iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return iterator.next().getStream();
+            }
+        });
+    }
+}
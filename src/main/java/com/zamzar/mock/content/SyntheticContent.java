@@ -0,0 +1,157 @@
+package com.zamzar.mock.content;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * A body of arbitrary size whose bytes are generated on demand rather than held in memory.
+ * <p>
+ * Every byte is a pure function of its position (and, for {@link Pattern#RANDOM}, the seed), so content is identical
+ * across requests and any range of it can be produced without generating the bytes that precede it.
+ */
+public class SyntheticContent implements Content {
+
+    protected final long size;
+    protected final Pattern pattern;
+    protected final long seed;
+
+    public SyntheticContent(long size) {
+        this(size, Pattern.ZEROS, 0);
+    }
+
+    public SyntheticContent(long size, Pattern pattern, long seed) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + size);
+        }
+        this.size = size;
+        this.pattern = pattern;
+        this.seed = seed;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public InputStream getStream(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > size) {
+            throw new IndexOutOfBoundsException("[" + offset + ", " + (offset + length) + ") is outside of [0, " + size + ")");
+        }
+        return new SyntheticInputStream(offset, offset + length);
+    }
+
+    @Override
+    public String getETag() {
+        // content is fully determined by these values
+        return "\"" + pattern.name().toLowerCase(Locale.ROOT) + "-" + Long.toHexString(seed) + "-" + Long.toHexString(size) + "\"";
+    }
+
+    @Override
+    public Optional<Instant> getLastModified() {
+        return Optional.empty();
+    }
+
+    protected void fill(long position, byte[] buffer, int off, int len) {
+        switch (pattern) {
+            case ZEROS:
+                Arrays.fill(buffer, off, off + len, (byte) 0);
+                break;
+
+            case SEQUENTIAL:
+                for (int i = 0; i < len; i++) {
+                    buffer[off + i] = (byte) (position + i);
+                }
+                break;
+
+            case RANDOM:
+                // each aligned 8-byte word is derived from its index, so the stream is seekable
+                int i = off;
+                final int end = off + len;
+                long p = position;
+                while (i < end) {
+                    final long word = mix(seed, p >>> 3);
+                    for (int b = (int) (p & 7); b < 8 && i < end; b++, i++, p++) {
+                        buffer[i] = (byte) (word >>> (b * 8));
+                    }
+                }
+                break;
+        }
+    }
+
+    // SplitMix64: https://prng.di.unimi.it/splitmix64.c
+    protected static long mix(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public enum Pattern {
+        /**
+         * Every byte is zero
+         */
+        ZEROS,
+        /**
+         * Each byte is the low 8 bits of its position
+         */
+        SEQUENTIAL,
+        /**
+         * Pseudo-random bytes, derived from a seed
+         */
+        RANDOM;
+
+        public static Pattern of(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    protected class SyntheticInputStream extends InputStream {
+        protected long position;
+        protected final long end;
+
+        protected SyntheticInputStream(long position, long end) {
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public int read() {
+            if (position >= end) {
+                return -1;
+            }
+            final byte[] single = new byte[1];
+            fill(position++, single, 0, 1);
+            return single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            final int count = (int) Math.min(len, end - position);
+            fill(position, buffer, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            final long skipped = Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.zamzar.mock.examples;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the bodies of examples in memory, up to a total number of bytes, evicting the least recently used body to make
+ * room for another. Polling a job or fetching a format then reads no files once its bodies are cached.
+ */
+@JsonIgnoreType
+public class BodyCache {
+
+    protected final long maxBytes;
+
+    // e.g. "jobs/1.completed" -> body, from least to most recently used
+    protected final LinkedHashMap<String, byte[]> bodies = new LinkedHashMap<>(16, 0.75f, true);
+    protected long bytes;
+
+    // changes whenever a body is invalidated, so that a body loaded before then is not cached afterwards
+    protected long generation;
+
+    protected final LongAdder hits = new LongAdder();
+    protected final LongAdder misses = new LongAdder();
+    protected final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxBytes the most bytes to keep, in total; 0 keeps nothing
+     */
+    public BodyCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param loader reads the body if it is not cached; called without holding the cache's lock, so that a slow read
+     *               does not hold up other requests
+     */
+    public byte[] get(String key, Supplier<byte[]> loader) {
+        final long loadedAt;
+        synchronized (this) {
+            final byte[] body = bodies.get(key);
+            if (body != null) {
+                hits.increment();
+                return body;
+            }
+            loadedAt = generation;
+        }
+
+        misses.increment();
+        final byte[] body = loader.get();
+        put(key, body, loadedAt);
+        return body;
+    }
+
+    protected synchronized void put(String key, byte[] body, long loadedAt) {
+        if (body.length > maxBytes || loadedAt != generation) {
+            return;
+        }
+
+        final byte[] previous = bodies.put(key, body);
+        bytes += body.length - (previous == null ? 0 : previous.length);
+
+        final Iterator<Map.Entry<String, byte[]>> eldest = bodies.entrySet().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().getValue().length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized void invalidate(String key) {
+        generation++;
+        final byte[] removed = bodies.remove(key);
+        if (removed != null) {
+            bytes -= removed.length;
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int getSize() {
+        return bodies.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
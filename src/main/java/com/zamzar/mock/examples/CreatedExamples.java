@@ -0,0 +1,275 @@
+package com.zamzar.mock.examples;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+/**
+ * Items of a resource that were created through the API (e.g. {@code POST /v1/jobs}), held in memory.
+ * <p>
+ * Like examples, each item can have several variants (e.g. "initialising" and "completed" for jobs; "" if there is
+ * only one). Ids are consecutive and allocated without locking, so an item's id also gives its position.
+ * <p>
+ * Each item belongs to the tenant that created it (see {@link com.zamzar.mock.state.Tenants}): other tenants neither
+ * see it in lists nor find it by its id.
+ * <p>
+ * Mocks that share their states also share the items they create through a {@link CreatedLog}, which allocates ids
+ * instead.
+ */
+@JsonIgnoreType
+public class CreatedExamples {
+
+    protected static final int CHUNK_SIZE = 4096;
+    protected static final int MAX_CHUNKS = 16384; // i.e. 67 million items
+
+    protected final String resource;
+    protected final long firstId;
+
+    protected final AtomicLong nextId;
+
+    // shares the items with other mocks, or null if they are only kept by this mock
+    protected final CreatedLog log;
+
+    // position -> item, in chunks so that storage grows with the number of items
+    protected final AtomicReferenceArray<AtomicReferenceArray<Item>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+    // items are visible once every item before them is stored too, so readers never see a gap
+    protected final AtomicInteger published = new AtomicInteger();
+
+    // tenant -> variant -> filter -> positions of the tenant's visible items that match; filters are compared by identity
+    protected final Map<String, Map<String, Map<Predicate<JsonNode>, Selection>>> selections = new ConcurrentHashMap<>();
+
+    public CreatedExamples(String resource, long firstId) {
+        this(resource, firstId, null);
+    }
+
+    public CreatedExamples(String resource, long firstId, CreatedLog log) {
+        this.resource = resource;
+        this.firstId = firstId;
+        this.nextId = new AtomicLong(firstId);
+        this.log = log;
+    }
+
+    /**
+     * Creates an item with the next id.
+     *
+     * @param tenant   that the item belongs to
+     * @param variants builds the variants of the item, given its id; must not fail
+     * @return the id of the item
+     */
+    public long create(String tenant, LongFunction<Map<String, JsonNode>> variants) {
+        if (log != null) {
+            return log.create(this, tenant, variants);
+        }
+
+        final long id = nextId.getAndIncrement();
+        store(id, new Item(tenant, Map.copyOf(variants.apply(id))));
+        return id;
+    }
+
+    /**
+     * Adds an item whose id was allocated by the {@link CreatedLog}, which adds items in the order of their ids
+     */
+    protected void add(long id, String tenant, Map<String, JsonNode> variants) {
+        if (id != nextId.get()) {
+            throw new IllegalStateException("Expected " + resource + " " + nextId.get() + " to be created next, not " + id
+                + " (mocks sharing their states must serve the same examples)");
+        }
+        nextId.set(id + 1);
+        store(id, new Item(tenant, Map.copyOf(variants)));
+    }
+
+    protected void store(long id, Item item) {
+        final int position = Math.toIntExact(id - firstId);
+        if (position >= CHUNK_SIZE * MAX_CHUNKS) {
+            throw new IllegalStateException("Too many " + resource + " have been created");
+        }
+
+        chunk(position / CHUNK_SIZE).set(position % CHUNK_SIZE, item);
+        publish();
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public long getFirstId() {
+        return firstId;
+    }
+
+    /**
+     * @return the number of visible items
+     */
+    public int size() {
+        return published.get();
+    }
+
+    public boolean contains(long id) {
+        return id >= firstId && id - firstId < size();
+    }
+
+    /**
+     * @return whether the item is visible and belongs to the tenant
+     */
+    public boolean belongsTo(long id, String tenant) {
+        return contains(id) && item((int) (id - firstId)).tenant.equals(tenant);
+    }
+
+    /**
+     * @return the given variant of the item, whichever tenant it belongs to
+     */
+    public Optional<JsonNode> get(long id, String variant) {
+        return contains(id) ? Optional.ofNullable(at((int) (id - firstId), variant)) : Optional.empty();
+    }
+
+    /**
+     * @return the given variant of the item, if it belongs to the tenant
+     */
+    public Optional<JsonNode> get(String tenant, long id, String variant) {
+        return belongsTo(id, tenant) ? Optional.ofNullable(at((int) (id - firstId), variant)) : Optional.empty();
+    }
+
+    /**
+     * @return the given variant of an item that has been created, even if it is not visible yet (as when items created
+     * at the same time are still being stored); lets the creator of an item read it straight away
+     */
+    public JsonNode stored(long id, String variant) {
+        final long position = id - firstId;
+        final AtomicReferenceArray<Item> chunk = position < 0 || id >= nextId.get() ? null : chunks.get((int) (position / CHUNK_SIZE));
+        if (chunk == null || chunk.get((int) (position % CHUNK_SIZE)) == null) {
+            throw new IllegalArgumentException("No " + resource + " has been stored with id " + id);
+        }
+        return at((int) position, variant);
+    }
+
+    /**
+     * @return the given variant of the item at the position, or its only variant if it does not have the given one
+     */
+    public JsonNode at(int position, String variant) {
+        final Map<String, JsonNode> variants = item(position).variants;
+        final JsonNode item = variants.get(variant);
+        return item != null || variants.size() != 1 ? item : variants.values().iterator().next();
+    }
+
+    /**
+     * @return the positions of the first {@code size} items that belong to the tenant and whose variant matches the
+     * filter, in ascending order
+     */
+    public Positions select(String tenant, String variant, Predicate<JsonNode> filter, int size) {
+        final Selection selection = selections
+            .computeIfAbsent(tenant, t -> new ConcurrentHashMap<>())
+            .computeIfAbsent(variant, v -> new ConcurrentHashMap<>())
+            .computeIfAbsent(filter, f -> new Selection());
+
+        // items never change once created, so only items created since the last selection need to be tested
+        synchronized (selection) {
+            for (int position = selection.tested; position < size; position++) {
+                if (!item(position).tenant.equals(tenant)) {
+                    continue;
+                }
+                final JsonNode item = at(position, variant);
+                if (item != null && filter.test(item)) {
+                    selection.add(position);
+                }
+            }
+            selection.tested = Math.max(selection.tested, size);
+            return selection.upTo(size);
+        }
+    }
+
+    protected Item item(int position) {
+        return chunks.get(position / CHUNK_SIZE).get(position % CHUNK_SIZE);
+    }
+
+    protected AtomicReferenceArray<Item> chunk(int index) {
+        AtomicReferenceArray<Item> chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    // Whoever stores the last item of a run of stored items moves the watermark past all of them
+    protected void publish() {
+        int visible;
+        while ((visible = published.get()) < CHUNK_SIZE * MAX_CHUNKS) {
+            final AtomicReferenceArray<Item> chunk = chunks.get(visible / CHUNK_SIZE);
+            if (chunk == null || chunk.get(visible % CHUNK_SIZE) == null) {
+                return;
+            }
+            published.compareAndSet(visible, visible + 1);
+        }
+    }
+
+    // The variants of an item, and the tenant it belongs to
+    protected static class Item {
+        protected final String tenant;
+        protected final Map<String, JsonNode> variants;
+
+        protected Item(String tenant, Map<String, JsonNode> variants) {
+            this.tenant = tenant;
+            this.variants = variants;
+        }
+    }
+
+    protected static class Selection {
+        protected int[] positions = new int[16];
+        protected int count;
+        protected int tested;
+
+        protected void add(int position) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+        }
+
+        protected Positions upTo(int size) {
+            // positions are ascending, so those below size are a prefix
+            int end = count;
+            while (end > 0 && positions[end - 1] >= size) {
+                end--;
+            }
+            // positions are only ever appended, so the prefix can be shared rather than copied
+            return new Positions(positions, end);
+        }
+    }
+
+    /**
+     * Ascending positions of items
+     */
+    public static class Positions {
+        protected final int[] positions;
+        protected final int size;
+
+        protected Positions(int[] positions, int size) {
+            this.positions = positions;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int get(int index) {
+            return positions[index];
+        }
+
+        /**
+         * @return the index of the position, or -1 if it is not one of these positions
+         */
+        public int indexOf(int position) {
+            return Math.max(Arrays.binarySearch(positions, 0, size, position), -1);
+        }
+    }
+}
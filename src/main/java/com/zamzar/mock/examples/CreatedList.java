@@ -0,0 +1,93 @@
+package com.zamzar.mock.examples;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.zamzar.mock.pagination.GeneratedList;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * The (filtered) items created through the API, as they were when the list was made, together with the items of
+ * examples. Created ids are greater than all others, so created items come first in descending order.
+ */
+public class CreatedList extends AbstractList<JsonNode> implements RandomAccess, GeneratedList {
+
+    protected static final String ID_FIELD_NAME = "id";
+
+    protected final CreatedExamples created;
+    protected final String variant;
+    protected final CreatedExamples.Positions selection;
+    protected final List<JsonNode> others;
+    protected final ToIntBiFunction<String, String> othersPositionOf;
+    protected final boolean isAscending;
+
+    /**
+     * @param others           the items that are not created through the API
+     * @param othersPositionOf finds the position of an id (given the name of the id field) among the others
+     */
+    public CreatedList(
+        CreatedExamples created,
+        String variant,
+        CreatedExamples.Positions selection,
+        List<JsonNode> others,
+        ToIntBiFunction<String, String> othersPositionOf,
+        boolean isAscending
+    ) {
+        this.created = created;
+        this.variant = variant;
+        this.selection = selection;
+        this.others = others;
+        this.othersPositionOf = othersPositionOf;
+        this.isAscending = isAscending;
+    }
+
+    @Override
+    public JsonNode get(int index) {
+        Objects.checkIndex(index, size());
+        if (isAscending) {
+            return index < others.size() ? others.get(index) : created.at(selection.get(index - others.size()), variant);
+        } else {
+            return index < selection.size() ? created.at(selection.get(selection.size() - 1 - index), variant) : others.get(index - selection.size());
+        }
+    }
+
+    @Override
+    public int size() {
+        return selection.size() + others.size();
+    }
+
+    @Override
+    public int positionOf(String idFieldName, String id) {
+        final int index = createdIndexOf(idFieldName, id);
+        if (index >= 0) {
+            return isAscending ? others.size() + index : selection.size() - 1 - index;
+        }
+
+        final int position = othersPositionOf.applyAsInt(idFieldName, id);
+        if (position < 0) {
+            return -1;
+        }
+        return isAscending ? position : selection.size() + position;
+    }
+
+    // the index of the id among the selected created items, in ascending order
+    protected int createdIndexOf(String idFieldName, String id) {
+        if (!ID_FIELD_NAME.equals(idFieldName)) {
+            return -1;
+        }
+
+        final long parsed;
+        try {
+            parsed = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (parsed < created.getFirstId() || parsed - created.getFirstId() >= Integer.MAX_VALUE) {
+            return -1;
+        }
+        return selection.indexOf((int) (parsed - created.getFirstId()));
+    }
+}
@@ -0,0 +1,277 @@
+package com.zamzar.mock.examples;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zamzar.mock.uploads.Upload;
+import com.zamzar.mock.uploads.Uploads;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Items created through the API, and the uploads attached to created files, appended to a file that mocks sharing
+ * their states (see {@link com.zamzar.mock.state.MappedStateStore}) share too, so that an item created through one
+ * mock is listed and served by every mock.
+ * <p>
+ * The file is a header, giving how far the log has been written, followed by records: a length and then JSON. Items
+ * are created while the file is locked, once this mock has caught up with the items other mocks created, so ids are
+ * consecutive whichever mock created them. Readers only compare the end of the log with how far they have read, so
+ * they only touch the file when another mock has written to it.
+ */
+@JsonIgnoreType
+public class CreatedLog implements Uploads.Listener, Closeable {
+
+    protected static final int MAGIC = 0x5a4d434c; // "ZMCL"
+    protected static final int VERSION = 1;
+    // how far the log has been written, which is only moved once the records before it are complete
+    protected static final int END = 8;
+    protected static final int HEADER_SIZE = 16;
+
+    protected static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    protected static final String CREATED = "created";
+    protected static final String ATTACHED = "attached";
+    protected static final String RELEASED = "released";
+
+    protected final FileChannel channel;
+    protected final MappedByteBuffer header;
+
+    // held while the log is read or written, before the file itself is locked
+    protected final ReentrantLock lock = new ReentrantLock();
+
+    // how far this mock has read the log; only moved while the lock is held
+    protected volatile long position = HEADER_SIZE;
+
+    // resource -> its created items, once it is creatable
+    protected final Map<String, CreatedExamples> resources = new ConcurrentHashMap<>();
+
+    // resource -> records read before the resource was creatable; guarded by the lock
+    protected final Map<String, List<JsonNode>> unclaimed = new HashMap<>();
+
+    protected volatile Uploads uploads;
+
+    /**
+     * Opens the log, creating it if need be
+     */
+    public CreatedLog(Path file) {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // mocks starting at the same time agree on who writes the header
+            final FileLock lock = channel.lock(0, HEADER_SIZE, false);
+            try {
+                header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                if (header.getInt(0) == 0) {
+                    header.putInt(4, VERSION);
+                    LONGS.setVolatile(header, END, (long) HEADER_SIZE);
+                    header.putInt(0, MAGIC);
+                } else if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                    throw new IOException(file + " is not a log of created items");
+                }
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open log of created items " + file, e);
+        }
+    }
+
+    /**
+     * Logs the items of the resource, adding those already in the log (or that other mocks create) to them
+     */
+    public CreatedExamples register(CreatedExamples created) {
+        lock.lock();
+        try {
+            resources.put(created.getResource(), created);
+            final List<JsonNode> records = unclaimed.remove(created.getResource());
+            if (records != null) {
+                records.forEach(record -> add(created, record));
+            }
+            return created;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Logs the uploads attached to created files, restoring those that other mocks attach (see
+     * {@link Uploads#restore}); they must be stored where every mock can read them, at the same path
+     */
+    public void share(Uploads uploads) {
+        this.uploads = uploads;
+        uploads.listen(this);
+    }
+
+    /**
+     * Adds the items that other mocks have created since this mock last looked
+     */
+    public void sync() {
+        if ((long) LONGS.getVolatile(header, END) == position) {
+            return;
+        }
+        locked(() -> null);
+    }
+
+    /**
+     * Creates an item of the resource with the next id, once every item created before it has been read
+     */
+    protected long create(CreatedExamples created, String tenant, LongFunction<Map<String, JsonNode>> variants) {
+        return locked(() -> {
+            final long id = created.nextId.get();
+            final Map<String, JsonNode> built = variants.apply(id);
+
+            final ObjectNode record = record(CREATED, id);
+            record.put("resource", created.getResource());
+            record.put("tenant", tenant);
+            record.set("variants", MAPPER.valueToTree(built));
+            write(record);
+
+            created.add(id, tenant, built);
+            return id;
+        });
+    }
+
+    @Override
+    public void onAttach(long id, Upload upload) {
+        final ObjectNode record = record(ATTACHED, id);
+        record.put("path", upload.getPath().toAbsolutePath().toString());
+        record.put("filename", upload.getFilename());
+        record.put("checksum", upload.getChecksum());
+        locked(() -> write(record));
+    }
+
+    @Override
+    public void onRelease(long id) {
+        locked(() -> write(record(RELEASED, id)));
+    }
+
+    /**
+     * Runs the action while holding the log: first against this mock's other threads, and then against other
+     * processes. Records written by other mocks are read first.
+     */
+    protected <T> T locked(Supplier<T> action) {
+        lock.lock();
+        try {
+            final FileLock file = channel.lock(0, HEADER_SIZE, false);
+            try {
+                read();
+                return action.get();
+            } finally {
+                file.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read log of created items", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // reads the records from this mock's position to the end of the log
+    protected void read() throws IOException {
+        final long end = (long) LONGS.getVolatile(header, END);
+        if (end == position) {
+            return;
+        }
+
+        channel.position(position);
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        for (long at = position; at < end; ) {
+            final byte[] json = new byte[in.readInt()];
+            in.readFully(json);
+            apply(MAPPER.readTree(json));
+            at += Integer.BYTES + json.length;
+        }
+        position = end;
+    }
+
+    protected Void write(ObjectNode record) {
+        try {
+            final byte[] json = MAPPER.writeValueAsBytes(record);
+            final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + json.length).putInt(json.length).put(json).flip();
+            long at = position;
+            while (buffer.hasRemaining()) {
+                at += channel.write(buffer, at);
+            }
+            position = at;
+            LONGS.setVolatile(header, END, at);
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to log of created items", e);
+        }
+    }
+
+    protected void apply(JsonNode record) {
+        final long id = record.path("id").asLong();
+        switch (record.path("type").asText()) {
+            case CREATED:
+                final CreatedExamples created = resources.get(record.path("resource").asText());
+                if (created != null) {
+                    add(created, record);
+                } else {
+                    unclaimed.computeIfAbsent(record.path("resource").asText(), r -> new ArrayList<>()).add(record);
+                }
+                break;
+
+            case ATTACHED:
+                if (uploads != null) {
+                    uploads.restore(id, Path.of(record.path("path").asText()), record.path("filename").asText(), record.path("checksum").asText());
+                }
+                break;
+
+            case RELEASED:
+                if (uploads != null) {
+                    uploads.forget(id);
+                }
+                break;
+
+            default:
+                break; // written by a later version
+        }
+    }
+
+    protected void add(CreatedExamples created, JsonNode record) {
+        final Map<String, JsonNode> variants = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = record.path("variants").fields(); fields.hasNext(); ) {
+            final Map.Entry<String, JsonNode> variant = fields.next();
+            variants.put(variant.getKey(), variant.getValue());
+        }
+        created.add(record.path("id").asLong(), record.path("tenant").asText(), variants);
+    }
+
+    protected static ObjectNode record(String type, long id) {
+        final ObjectNode record = MAPPER.createObjectNode();
+        record.put("type", type);
+        record.put("id", id);
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -6,24 +6,85 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.common.TextFile;
+import com.zamzar.mock.content.AcceptEncoding;
+import com.zamzar.mock.content.FileContent;
+import com.zamzar.mock.synthetic.SyntheticResource;
+import com.zamzar.mock.uploads.Uploads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 // Wiremock logs all transformers, including their parameters.
 // Rather than make this class serializable by Jackson, we use @JsonIgnoreType to skip serialization altogether.
 @JsonIgnoreType
 public class ExamplesRepository {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExamplesRepository.class);
+
     protected final FileSource fileSource;
 
     protected final ObjectMapper mapper = new ObjectMapper();
 
+    // resource (e.g. "jobs") -> id (e.g. "1") -> filenames without extension (e.g. "1.initialising", "1.completed")
+    // Built once, from a single walk of the examples directory, and then kept up to date as examples change
+    protected final ConcurrentMap<String, ConcurrentMap<String, Set<String>>> index = new ConcurrentHashMap<>();
+
+    protected final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // resource -> number of times its examples have changed; lets callers cache data derived from a resource
+    protected final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // resource -> items generated in addition to the examples on disk (see ConfigureWireMock#generateSyntheticData)
+    protected final ConcurrentMap<String, SyntheticResource> generated = new ConcurrentHashMap<>();
+
+    // resource -> items created through the API (e.g. POST /v1/jobs)
+    protected final ConcurrentMap<String, CreatedExamples> created = new ConcurrentHashMap<>();
+
+    // shares created items with other mocks, if they share their states
+    protected volatile CreatedLog createdLog;
+
+    // path -> the content of the file, kept so that a mapped file is mapped once rather than for every request
+    protected final ConcurrentMap<Path, FileContent> contents = new ConcurrentHashMap<>();
+
+    protected volatile FileContent.Transfer transfer = FileContent.Transfer.STREAM;
+
+    protected volatile BodyCache bodies = new BodyCache(0);
+
+    protected volatile boolean compressing = false;
+    protected volatile int compressMinSize = 0;
+
+    // the content of files uploaded through the API (e.g. POST /v1/files), if uploads are stored
+    protected volatile Uploads uploads;
+
     public ExamplesRepository(FileSource fileSource) {
         this.fileSource = fileSource.child("__files");
+        buildIndex();
     }
 
     public Collection<String> all(String resource) {
@@ -31,13 +92,14 @@ public class ExamplesRepository {
     }
 
     public Collection<String> all(String resource, boolean includeState) {
-        final Set<String> all = fileSource
-            .child(resource)
-            .listFilesRecursively()
-            .stream()
-            .filter(f -> f.getPath().endsWith(".json"))
-            .map(file -> extractBaseName(file, includeState))
-            .collect(Collectors.toSet());
+        final Set<String> all = new HashSet<>();
+        resourceIndexes(resource).forEach(ids -> {
+            if (includeState) {
+                ids.values().forEach(all::addAll);
+            } else {
+                all.addAll(ids.keySet());
+            }
+        });
 
         // Special case for the files resource: remove the special large file
         // This should not appear in indexes nor should it be stubbed with a file on disk
@@ -49,26 +111,372 @@ public class ExamplesRepository {
     }
 
     public boolean exists(String resource, String id) {
-        return all(resource).contains(id);
+        return resourceIndexes(resource).anyMatch(ids -> ids.containsKey(id)) && !("files".equals(resource) && "0".equals(id));
     }
 
     public String read(String resource, String id) {
-        return fileSource.child(resource).getTextFileNamed(id + ".json").readContentsAsString();
+        return new String(body(resource, id), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the example as it is sent, from the {@link BodyCache} if it is cached there
+     */
+    public byte[] body(String resource, String id) {
+        return bodies.get(resource + "/" + id, () -> fileSource.child(resource).getBinaryFileNamed(id + ".json").readContents());
+    }
+
+    /**
+     * @param encoding a content coding, e.g. "gzip"
+     * @return the example, encoded once and then kept in the {@link BodyCache} alongside the example itself
+     */
+    public byte[] body(String resource, String id, String encoding) {
+        if (!AcceptEncoding.GZIP.equals(encoding)) {
+            throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+        }
+        return bodies.get(resource + "/" + id + ";" + encoding, () -> gzip(body(resource, id)));
+    }
+
+    protected static byte[] gzip(byte[] body) {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen, in memory
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Sends examples compressed to clients that accept compressed responses (see
+     * {@link com.zamzar.mock.Responses#example})
+     *
+     * @param minSize the smallest example (in bytes) worth compressing, like Jetty's threshold for other responses
+     */
+    public void compressBodies(boolean compressing, int minSize) {
+        this.compressing = compressing;
+        this.compressMinSize = minSize;
+    }
+
+    /**
+     * @return whether the example is sent compressed to clients that accept compressed responses
+     */
+    public boolean isCompressing(byte[] body) {
+        return compressing && body.length >= compressMinSize;
+    }
+
+    /**
+     * Keeps the bodies of examples in memory, up to a total number of bytes (see {@link BodyCache})
+     */
+    public void cacheBodies(long maxBytes) {
+        this.bodies = new BodyCache(maxBytes);
+    }
+
+    public BodyCache getBodyCache() {
+        return bodies;
     }
 
     public JsonNode parse(String resource, String id) throws JsonProcessingException {
         return mapper.readTree(read(resource, id));
     }
 
+    /**
+     * Parses every example in parallel, so that invalid examples are found at startup rather than when they are served
+     *
+     * @return e.g. "jobs/1.completed" -> the parsed example
+     * @throws IllegalStateException naming every example that could not be parsed
+     */
+    public Map<String, JsonNode> parseAll() {
+        final Map<String, JsonNode> parsed = new ConcurrentHashMap<>();
+        final Map<String, String> invalid = new ConcurrentSkipListMap<>();
+        index.entrySet().stream()
+            .flatMap(resource -> resource.getValue().values().stream()
+                .flatMap(Set::stream)
+                .map(filename -> Map.entry(resource.getKey(), filename)))
+            .collect(Collectors.toList())
+            .parallelStream()
+            .forEach(example -> {
+                final String name = example.getKey() + "/" + example.getValue();
+                try {
+                    parsed.put(name, parse(example.getKey(), example.getValue()));
+                } catch (JsonProcessingException | RuntimeException e) {
+                    invalid.put(name, e.getMessage().lines().findFirst().orElse(""));
+                }
+            });
+
+        if (!invalid.isEmpty()) {
+            throw new IllegalStateException("Invalid examples: " + invalid.entrySet().stream()
+                .map(e -> e.getKey() + ".json (" + e.getValue() + ")")
+                .collect(Collectors.joining(", ")));
+        }
+        return parsed;
+    }
+
+    public FileContent content(String resource, String id) {
+        // a file that has changed since it was last served is read afresh
+        return contents.compute(Paths.get(fileSource.getPath(), resource, "content", id), (path, content) ->
+            content != null && content.getTransfer() == transfer && content.isCurrent() ? content : new FileContent(path, transfer));
+    }
+
+    /**
+     * Sets how the content of files is handed to Jetty (see {@link FileContent.Transfer})
+     */
+    public void transferContent(FileContent.Transfer transfer) {
+        this.transfer = transfer;
+    }
+
+    /**
+     * Writes an example, e.g. {@code write("jobs", "4.initialising", "{...}")}
+     */
+    public void write(String resource, String filename, String contents) {
+        fileSource.child(resource).writeTextFile(filename + ".json", contents);
+        invalidate(resource, filename);
+        add(resource, filename);
+        // a new example changes the list, and so does an example that is overwritten
+        notifyListeners(resource);
+    }
+
     public void delete(String resource, String id) {
-        final List<String> templateFilenames = all(resource, true)
-            .stream()
-            .filter(s -> s.startsWith(id))
-            .collect(Collectors.toList());
+        final Set<String> templateFilenames = index.getOrDefault(resource, new ConcurrentHashMap<>()).remove(id);
+        if (templateFilenames == null) {
+            return;
+        }
 
         for (String templateFilename : templateFilenames) {
             fileSource.child(resource).deleteFile(templateFilename + ".json");
+            invalidate(resource, templateFilename);
+        }
+        notifyListeners(resource);
+    }
+
+    public void generate(SyntheticResource resource) {
+        generated.put(resource.getName(), resource);
+        notifyListeners(resource.getName());
+    }
+
+    public Optional<SyntheticResource> generated(String resource) {
+        return Optional.ofNullable(generated.get(resource));
+    }
+
+    /**
+     * Allows items of the resource to be created, with ids from {@code firstId} on. Created items are listed alongside
+     * examples without changing the {@link #version(String)} of the resource: lists pick them up as they are made.
+     */
+    public CreatedExamples creatable(String resource, long firstId) {
+        return created.computeIfAbsent(resource, r -> createdLog == null ?
+            new CreatedExamples(r, firstId) :
+            createdLog.register(new CreatedExamples(r, firstId, createdLog)));
+    }
+
+    /**
+     * @return the items of the resource created through the API, including those that other mocks sharing the
+     * {@link CreatedLog} have created
+     */
+    public Optional<CreatedExamples> created(String resource) {
+        if (createdLog != null) {
+            createdLog.sync();
         }
+        return Optional.ofNullable(created.get(resource));
+    }
+
+    /**
+     * Shares the items created through the API (and the uploads attached to them, if uploads are stored) with other
+     * mocks, through the log; must be called before any resource is made creatable
+     */
+    public void shareCreated(CreatedLog log) {
+        this.createdLog = log;
+        uploads().ifPresent(log::share);
+    }
+
+    /**
+     * Keeps the content of files uploaded through the API in the given store, rather than only their metadata
+     */
+    public void storeUploads(Uploads uploads) {
+        this.uploads = uploads;
+    }
+
+    public Optional<Uploads> uploads() {
+        return Optional.ofNullable(uploads);
+    }
+
+    /**
+     * @return the item with the given id, whether it is an example (that has no lifecycle), created (by the tenant) or
+     * generated
+     */
+    public Optional<JsonNode> find(String resource, String tenant, long id) {
+        final String name = String.valueOf(id);
+        final boolean isExample = exists(resource, name) && resourceIndexes(resource)
+            .anyMatch(ids -> ids.getOrDefault(name, Set.of()).contains(name));
+        if (isExample) {
+            try {
+                return Optional.of(parse(resource, name));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Could not parse example " + resource + "/" + name, e);
+            }
+        }
+
+        final Optional<CreatedExamples> created = created(resource).filter(c -> c.contains(id));
+        if (created.isPresent()) {
+            return created.get().get(tenant, id, "");
+        }
+        return generated(resource).flatMap(g -> g.get(id));
+    }
+
+    /**
+     * @return the greatest id of any example, generated or created item of the resource (or 0 if there are none)
+     */
+    public long maxId(String resource) {
+        long max = 0;
+        for (String id : all(resource)) {
+            try {
+                max = Math.max(max, Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                // not a numeric id
+            }
+        }
+        final Optional<SyntheticResource> generated = generated(resource);
+        if (generated.isPresent() && generated.get().getCount() > 0) {
+            max = Math.max(max, generated.get().getFirstId() + generated.get().getCount() - 1);
+        }
+        final Optional<CreatedExamples> created = created(resource);
+        if (created.isPresent() && created.get().size() > 0) {
+            max = Math.max(max, created.get().getFirstId() + created.get().size() - 1);
+        }
+        return max;
+    }
+
+    /**
+     * @return a value that changes whenever the examples of the resource (or of its subdirectories) change
+     */
+    public long version(String resource) {
+        return versions.computeIfAbsent(resource, r -> new AtomicLong()).get();
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    // the example's body, and its encoded variant
+    protected void invalidate(String resource, String filename) {
+        bodies.invalidate(resource + "/" + filename);
+        bodies.invalidate(resource + "/" + filename + ";" + AcceptEncoding.GZIP);
+    }
+
+    /**
+     * Keeps the index up to date with changes made to the examples directory by other processes (e.g. by mounting
+     * a volume into the container). Changes made through this repository are always reflected immediately.
+     */
+    public void watch() {
+        final Path root = Paths.get(fileSource.getPath()).toAbsolutePath();
+
+        final WatchService watcher;
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            try (Stream<Path> directories = Files.walk(root)) {
+                for (Path directory : directories.filter(Files::isDirectory).collect(Collectors.toList())) {
+                    directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not watch examples in " + root, e);
+        }
+
+        final Thread thread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    final WatchKey key = watcher.take();
+                    final Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (!(event.context() instanceof Path)) {
+                            continue; // e.g. OVERFLOW
+                        }
+                        final Path path = directory.resolve((Path) event.context());
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                            path.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                        } else {
+                            onFileSystemEvent(root, path, event.kind());
+                        }
+                    }
+                    key.reset();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException e) {
+                    LOGGER.warn("Could not watch new directory of examples", e);
+                }
+            }
+        }, "examples-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    protected void onFileSystemEvent(Path root, Path path, WatchEvent.Kind<?> kind) {
+        if (!path.toString().endsWith(".json") || path.getParent() == null) {
+            return;
+        }
+
+        final String resource = toResource(root.relativize(path.getParent()));
+        final String filename = extractBaseName(path, true);
+        invalidate(resource, filename);
+        if (kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+            // the example is still there, but its body has to be read again, and lists that include it rebuilt
+            notifyListeners(resource);
+            return;
+        }
+
+        final boolean changed = kind == StandardWatchEventKinds.ENTRY_CREATE ? add(resource, filename) : remove(resource, filename);
+        if (changed) {
+            LOGGER.info("Example {}/{} was {}", resource, filename, kind == StandardWatchEventKinds.ENTRY_CREATE ? "added" : "removed");
+            notifyListeners(resource);
+        }
+    }
+
+    protected void buildIndex() {
+        final Path root = Paths.get(fileSource.getPath()).toAbsolutePath();
+        for (TextFile file : fileSource.listFilesRecursively()) {
+            final Path path = Paths.get(file.getPath()).toAbsolutePath();
+            if (path.toString().endsWith(".json")) {
+                add(toResource(root.relativize(path).getParent()), extractBaseName(path, true));
+            }
+        }
+    }
+
+    protected boolean add(String resource, String filename) {
+        final String id = extractBaseName(Paths.get(filename), false);
+        return index
+            .computeIfAbsent(resource, r -> new ConcurrentHashMap<>())
+            .computeIfAbsent(id, i -> ConcurrentHashMap.newKeySet())
+            .add(filename);
+    }
+
+    protected boolean remove(String resource, String filename) {
+        final String id = extractBaseName(Paths.get(filename), false);
+        final Map<String, Set<String>> ids = index.getOrDefault(resource, new ConcurrentHashMap<>());
+        final Set<String> filenames = ids.getOrDefault(id, Collections.emptySet());
+        final boolean removed = filenames.remove(filename);
+        if (filenames.isEmpty()) {
+            ids.remove(id, filenames);
+        }
+        return removed;
+    }
+
+    // A resource includes examples in its subdirectories, e.g. "files" includes "files/archive/8.json"
+    protected Stream<ConcurrentMap<String, Set<String>>> resourceIndexes(String resource) {
+        final ConcurrentMap<String, Set<String>> direct = index.get(resource);
+        final Stream<ConcurrentMap<String, Set<String>>> nested = index.entrySet().stream()
+            .filter(e -> e.getKey().startsWith(resource + "/"))
+            .map(Map.Entry::getValue);
+        return direct == null ? nested : Stream.concat(Stream.of(direct), nested);
+    }
+
+    protected void notifyListeners(String resource) {
+        // a change to, say, "files/archive" is also a change to "files"
+        for (String r = resource; !r.isEmpty(); r = r.contains("/") ? r.substring(0, r.lastIndexOf('/')) : "") {
+            versions.computeIfAbsent(r, k -> new AtomicLong()).incrementAndGet();
+        }
+        listeners.forEach(l -> l.onChange(resource));
+    }
+
+    protected static String toResource(Path relativeDirectory) {
+        return relativeDirectory == null ? "" : relativeDirectory.toString().replace('\\', '/');
     }
 
     protected static String extractBaseName(TextFile file, boolean includeState) {
@@ -85,4 +493,9 @@ public class ExamplesRepository {
 
         return fileName;
     }
+
+    @FunctionalInterface
+    public interface ChangeListener {
+        void onChange(String resource);
+    }
 }
@@ -0,0 +1,78 @@
+package com.zamzar.mock.faults;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * How fast the bodies of an endpoint group's requests and responses flow, e.g.
+ * <pre>
+ * { "download": 1048576, "upload": 262144, "jitter": 0.2, "shared": false }
+ * </pre>
+ * Rates are in bytes per second, and 0 leaves that direction unlimited. Jitter varies the rate of each chunk by up to
+ * the given fraction either way. A shared pipe carries every transfer of the group at once (so concurrent transfers
+ * split the rate between them), rather than each request or response having a pipe of its own.
+ */
+public class Bandwidth {
+
+    protected final long download;
+    protected final long upload;
+    protected final double jitter;
+    protected final boolean shared;
+
+    @JsonCreator
+    public Bandwidth(
+        @JsonProperty("download") long download,
+        @JsonProperty("upload") long upload,
+        @JsonProperty("jitter") double jitter,
+        @JsonProperty("shared") boolean shared
+    ) {
+        if (download < 0 || upload < 0) {
+            throw new IllegalArgumentException("Bandwidth must be at least 0 bytes per second");
+        }
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("Jitter must be at least 0 and less than 1");
+        }
+        this.download = download;
+        this.upload = upload;
+        this.jitter = jitter;
+        this.shared = shared;
+    }
+
+    /**
+     * @return the rate in bytes per second, or 0 if the direction is unlimited
+     */
+    public long rate(Direction direction) {
+        return direction == Direction.DOWNLOAD ? download : upload;
+    }
+
+    @JsonProperty("download")
+    public long getDownload() {
+        return download;
+    }
+
+    @JsonProperty("upload")
+    public long getUpload() {
+        return upload;
+    }
+
+    @JsonProperty("jitter")
+    public double getJitter() {
+        return jitter;
+    }
+
+    @JsonProperty("shared")
+    public boolean isShared() {
+        return shared;
+    }
+
+    public enum Direction {
+        /**
+         * response bodies, e.g. {@code GET /v1/files/1/content}
+         */
+        DOWNLOAD,
+        /**
+         * request bodies, e.g. {@code POST /v1/files}
+         */
+        UPLOAD
+    }
+}
@@ -0,0 +1,179 @@
+package com.zamzar.mock.faults;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+/**
+ * How an endpoint group (e.g. jobs) misbehaves: how long it takes to respond, how often it fails and how fast bodies
+ * flow, e.g.
+ * <pre>
+ * {
+ *   "latency": { "p50": 100, "p90": 400, "p99": 2000 },
+ *   "error_rate": 0.02,
+ *   "reset_rate": 0.01,
+ *   "truncate_rate": 0.01,
+ *   "bandwidth": { "download": 1048576 }
+ * }
+ * </pre>
+ * Latency is given in milliseconds at any percentiles, and is interpolated between them (from 0ms at p0). Rates are
+ * the fraction of responses that are, respectively, a 5xx error, a connection reset, or a body cut short. Bandwidth
+ * is optional (see {@link Bandwidth}).
+ */
+public class EndpointFaults {
+
+    protected static final List<Integer> DEFAULT_ERROR_STATUSES = List.of(500, 503);
+
+    public static final EndpointFaults NONE = new EndpointFaults(Map.of(), 0, null, 0, 0);
+
+    // percentile -> latency in milliseconds
+    protected final TreeMap<Double, Long> latency = new TreeMap<>();
+    protected final double errorRate;
+    protected final List<Integer> errorStatuses;
+    protected final double resetRate;
+    protected final double truncateRate;
+    protected final Bandwidth bandwidth;
+
+    public EndpointFaults(Map<String, Long> latency, double errorRate, List<Integer> errorStatuses, double resetRate, double truncateRate) {
+        this(latency, errorRate, errorStatuses, resetRate, truncateRate, null);
+    }
+
+    @JsonCreator
+    public EndpointFaults(
+        @JsonProperty("latency") Map<String, Long> latency,
+        @JsonProperty("error_rate") double errorRate,
+        @JsonProperty("error_statuses") List<Integer> errorStatuses,
+        @JsonProperty("reset_rate") double resetRate,
+        @JsonProperty("truncate_rate") double truncateRate,
+        @JsonProperty("bandwidth") Bandwidth bandwidth
+    ) {
+        if (latency != null) {
+            latency.forEach((percentile, millis) -> this.latency.put(parsePercentile(percentile), millis));
+        }
+        this.errorRate = errorRate;
+        this.errorStatuses = errorStatuses == null || errorStatuses.isEmpty() ? DEFAULT_ERROR_STATUSES : List.copyOf(errorStatuses);
+        this.resetRate = resetRate;
+        this.truncateRate = truncateRate;
+        this.bandwidth = bandwidth;
+
+        if (errorRate < 0 || resetRate < 0 || truncateRate < 0 || errorRate + resetRate + truncateRate > 1) {
+            throw new IllegalArgumentException("Rates must be between 0 and 1, and add up to at most 1");
+        }
+        if (this.errorStatuses.stream().anyMatch(status -> status < 500 || status > 599)) {
+            throw new IllegalArgumentException("Error statuses must be 5xx: " + this.errorStatuses);
+        }
+    }
+
+    /**
+     * @return the latency in milliseconds at a random percentile
+     */
+    public long sampleLatency(SplittableRandom random) {
+        if (latency.isEmpty()) {
+            return 0;
+        }
+
+        final double percentile = random.nextDouble() * 100;
+        final Map.Entry<Double, Long> below = latency.floorEntry(percentile);
+        final Map.Entry<Double, Long> above = latency.ceilingEntry(percentile);
+        if (above == null) {
+            return below.getValue(); // beyond the highest percentile given
+        }
+
+        final double fromPercentile = below == null ? 0 : below.getKey();
+        final long fromMillis = below == null ? 0 : below.getValue();
+        if (above.getKey() == fromPercentile) {
+            return above.getValue();
+        }
+        return Math.round(fromMillis + (above.getValue() - fromMillis) * (percentile - fromPercentile) / (above.getKey() - fromPercentile));
+    }
+
+    /**
+     * @return the fault (if any) for a response
+     */
+    public Fault sampleFault(SplittableRandom random) {
+        final double roll = random.nextDouble();
+        if (roll < resetRate) {
+            return Fault.RESET;
+        } else if (roll < resetRate + errorRate) {
+            return Fault.ERROR;
+        } else if (roll < resetRate + errorRate + truncateRate) {
+            return Fault.TRUNCATE;
+        }
+        return Fault.NONE;
+    }
+
+    public int sampleErrorStatus(SplittableRandom random) {
+        return errorStatuses.get(random.nextInt(errorStatuses.size()));
+    }
+
+    // e.g. "p99.9" -> 99.9
+    protected static double parsePercentile(String name) {
+        try {
+            final double percentile = Double.parseDouble(name.replaceFirst("^[pP]", ""));
+            if (percentile >= 0 && percentile <= 100) {
+                return percentile;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid percentile: " + name + " (expected e.g. p50 or p99.9)");
+    }
+
+    @JsonProperty("latency")
+    public Map<String, Long> getLatency() {
+        final Map<String, Long> named = new LinkedHashMap<>();
+        latency.forEach((percentile, millis) -> named.put("p" + (percentile % 1 == 0 ? String.valueOf(percentile.intValue()) : String.valueOf(percentile)), millis));
+        return named;
+    }
+
+    @JsonProperty("error_rate")
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    @JsonProperty("error_statuses")
+    public List<Integer> getErrorStatuses() {
+        return errorStatuses;
+    }
+
+    @JsonProperty("reset_rate")
+    public double getResetRate() {
+        return resetRate;
+    }
+
+    @JsonProperty("truncate_rate")
+    public double getTruncateRate() {
+        return truncateRate;
+    }
+
+    /**
+     * @return the bandwidth, or null if it is unlimited
+     */
+    @JsonProperty("bandwidth")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Bandwidth getBandwidth() {
+        return bandwidth;
+    }
+
+    public enum Fault {
+        NONE,
+        /**
+         * a 5xx response
+         */
+        ERROR,
+        /**
+         * the connection is reset without a response
+         */
+        RESET,
+        /**
+         * the connection is closed part way through the body
+         */
+        TRUNCATE
+    }
+}
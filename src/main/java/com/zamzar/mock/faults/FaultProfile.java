@@ -0,0 +1,81 @@
+package com.zamzar.mock.faults;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A named set of {@link EndpointFaults} for each endpoint group, e.g.
+ * <pre>
+ * {
+ *   "seed": 42,
+ *   "endpoints": {
+ *     "*": { "latency": { "p50": 50, "p99": 500 } },
+ *     "content": { "latency": { "p50": 500, "p99": 5000 }, "truncate_rate": 0.05 }
+ *   }
+ * }
+ * </pre>
+ * Groups are {@link #GROUPS}; {@code *} applies to any group that is not listed.
+ */
+public class FaultProfile {
+
+    public static final String NONE = "none";
+
+    public static final String ANY_GROUP = "*";
+
+    public static final String[] GROUPS = {"account", "files", "content", "formats", "imports", "jobs"};
+
+    protected final String name;
+    protected final long seed;
+    protected final Map<String, EndpointFaults> endpoints;
+
+    @JsonCreator
+    public FaultProfile(
+        @JsonProperty("name") String name,
+        @JsonProperty("seed") long seed,
+        @JsonProperty("endpoints") Map<String, EndpointFaults> endpoints
+    ) {
+        this.name = name;
+        this.seed = seed;
+        this.endpoints = endpoints == null ? Map.of() : new TreeMap<>(endpoints);
+        this.endpoints.keySet().forEach(group -> {
+            if (!group.equals(ANY_GROUP) && !Arrays.asList(GROUPS).contains(group)) {
+                throw new IllegalArgumentException("Unknown endpoint group: " + group + " (expected * or one of " + String.join(", ", GROUPS) + ")");
+            }
+        });
+    }
+
+    public static FaultProfile none() {
+        return new FaultProfile(NONE, 0, Map.of());
+    }
+
+    /**
+     * @return a copy of this profile with another name
+     */
+    public FaultProfile named(String name) {
+        return new FaultProfile(name, seed, endpoints);
+    }
+
+    public EndpointFaults forGroup(String group) {
+        final EndpointFaults faults = endpoints.get(group);
+        return faults != null ? faults : endpoints.getOrDefault(ANY_GROUP, EndpointFaults.NONE);
+    }
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("seed")
+    public long getSeed() {
+        return seed;
+    }
+
+    @JsonProperty("endpoints")
+    public Map<String, EndpointFaults> getEndpoints() {
+        return endpoints;
+    }
+}
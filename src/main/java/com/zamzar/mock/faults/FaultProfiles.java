@@ -0,0 +1,202 @@
+package com.zamzar.mock.faults;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.TextFile;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The known {@link FaultProfile}s, and the one that is active (the built-in {@code none} profile, which injects nothing,
+ * by default).
+ * <p>
+ * Each response of an endpoint group draws its latency and fault from a random number generator seeded with the
+ * profile's seed and the number of responses the group has given since the profile was activated. Repeating the same
+ * sequence of requests therefore gives the same latencies and faults, however requests to different groups interleave.
+ * <p>
+ * Bodies flow through a {@link Throttle} when the group's bandwidth is limited: a pipe of their own for each request
+ * or response, or a pipe shared by the whole group until another profile is activated.
+ */
+@JsonIgnoreType
+public class FaultProfiles {
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    protected final ConcurrentMap<String, FaultProfile> profiles = new ConcurrentHashMap<>();
+
+    protected final AtomicReference<Active> active;
+
+    public FaultProfiles() {
+        final FaultProfile none = FaultProfile.none();
+        profiles.put(none.getName(), none);
+        active = new AtomicReference<>(new Active(none));
+    }
+
+    /**
+     * Defines the profiles in the JSON files of a directory, named after the files (e.g. {@code flaky.json} is "flaky")
+     */
+    public void load(FileSource directory) {
+        if (!directory.exists()) {
+            return;
+        }
+
+        for (TextFile file : directory.listFilesRecursively()) {
+            final String filename = file.getPath().substring(file.getPath().lastIndexOf('/') + 1);
+            if (filename.endsWith(".json")) {
+                define(parse(filename.substring(0, filename.length() - ".json".length()), file.readContentsAsString()));
+            }
+        }
+    }
+
+    /**
+     * @param json the profile, without its name
+     */
+    public static FaultProfile parse(String name, String json) {
+        try {
+            return MAPPER.readValue(json, FaultProfile.class).named(name);
+        } catch (JsonProcessingException e) {
+            // prefer the reason a profile was rejected by its constructor over Jackson's account of it
+            final String reason = e.getCause() instanceof IllegalArgumentException ? e.getCause().getMessage() : e.getOriginalMessage();
+            throw new IllegalArgumentException("Invalid fault profile " + name + ": " + reason, e);
+        }
+    }
+
+    /**
+     * Adds or replaces a profile. Replacing the active profile makes the new version active.
+     */
+    public void define(FaultProfile profile) {
+        if (FaultProfile.NONE.equals(profile.getName())) {
+            throw new IllegalArgumentException("The " + FaultProfile.NONE + " profile cannot be replaced");
+        }
+        profiles.put(profile.getName(), profile);
+        active.updateAndGet(current -> current.profile.getName().equals(profile.getName()) ? new Active(profile) : current);
+    }
+
+    /**
+     * Makes a profile active, starting its sequence of random numbers from the beginning
+     */
+    public void activate(String name) {
+        final FaultProfile profile = profiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown fault profile: " + name);
+        }
+        active.set(new Active(profile));
+    }
+
+    public FaultProfile active() {
+        return active.get().profile;
+    }
+
+    public Map<String, FaultProfile> all() {
+        return new TreeMap<>(profiles);
+    }
+
+    /**
+     * @return the latency and fault of the next response of the endpoint group
+     */
+    public Injection next(String group) {
+        final Active current = active.get();
+        final EndpointFaults faults = current.profile.forGroup(group);
+        if (faults == EndpointFaults.NONE) {
+            return Injection.NONE;
+        }
+
+        final long sequence = current.sequences.computeIfAbsent(group, g -> new AtomicLong()).getAndIncrement();
+        final SplittableRandom random = new SplittableRandom(current.profile.getSeed() ^ group.hashCode() * 0x9E3779B97F4A7C15L ^ sequence * 0xBF58476D1CE4E5B9L);
+
+        final long latency = faults.sampleLatency(random);
+        final EndpointFaults.Fault fault = faults.sampleFault(random);
+        final int status = fault == EndpointFaults.Fault.ERROR ? faults.sampleErrorStatus(random) : 0;
+        return new Injection(latency, fault, status, random.nextDouble());
+    }
+
+    /**
+     * @return the pipe through which a body of the endpoint group flows, or empty if its bandwidth is unlimited
+     */
+    public Optional<Throttle> throttle(String group, Bandwidth.Direction direction) {
+        final Active current = active.get();
+        final Bandwidth bandwidth = current.profile.forGroup(group).getBandwidth();
+        final long rate = bandwidth == null ? 0 : bandwidth.rate(direction);
+        if (rate == 0) {
+            return Optional.empty();
+        }
+
+        // transfers are numbered like responses, so that their jitter is repeatable too
+        final String key = group + "/" + direction;
+        final Supplier<Throttle> throttle = () -> {
+            final long sequence = current.transfers.computeIfAbsent(key, k -> new AtomicLong()).getAndIncrement();
+            final SplittableRandom random = new SplittableRandom(current.profile.getSeed() ^ key.hashCode() * 0x9E3779B97F4A7C15L ^ sequence * 0xBF58476D1CE4E5B9L);
+            return new Throttle(rate, bandwidth.getJitter(), random);
+        };
+        return Optional.of(bandwidth.isShared() ? current.pipes.computeIfAbsent(key, k -> throttle.get()) : throttle.get());
+    }
+
+    protected static class Active {
+        protected final FaultProfile profile;
+
+        // endpoint group -> the number of responses it has given
+        protected final ConcurrentMap<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+        // endpoint group and direction -> the number of bodies it has throttled
+        protected final ConcurrentMap<String, AtomicLong> transfers = new ConcurrentHashMap<>();
+
+        // endpoint group and direction -> the pipe shared by all its bodies
+        protected final ConcurrentMap<String, Throttle> pipes = new ConcurrentHashMap<>();
+
+        protected Active(FaultProfile profile) {
+            this.profile = profile;
+        }
+    }
+
+    /**
+     * What to do to a response
+     */
+    public static class Injection {
+        public static final Injection NONE = new Injection(0, EndpointFaults.Fault.NONE, 0, 1);
+
+        protected final long latencyMillis;
+        protected final EndpointFaults.Fault fault;
+        protected final int status;
+        protected final double truncateAt;
+
+        protected Injection(long latencyMillis, EndpointFaults.Fault fault, int status, double truncateAt) {
+            this.latencyMillis = latencyMillis;
+            this.fault = fault;
+            this.status = status;
+            this.truncateAt = truncateAt;
+        }
+
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        public EndpointFaults.Fault getFault() {
+            return fault;
+        }
+
+        /**
+         * @return the status of an {@link EndpointFaults.Fault#ERROR}
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the fraction of the body to send before closing the connection, for a
+         * {@link EndpointFaults.Fault#TRUNCATE}
+         */
+        public double getTruncateAt() {
+            return truncateAt;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.zamzar.mock.faults;
+
+import java.io.InterruptedIOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pipe of limited bandwidth. Each chunk of bytes is given the next slot in the pipe, as long as the chunk takes to
+ * pass through at the pipe's rate, and whoever sends it waits until the slot is over. So a transfer is paced as it
+ * goes, rather than delayed up front, and transfers that share a pipe share its rate.
+ * <p>
+ * The pipe does not save up time while idle: a transfer that starts after a pause gets no burst.
+ */
+public class Throttle {
+
+    protected static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // chunks are small enough to pass through in this long, so that progress looks smooth to clients
+    protected static final long CHUNK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    protected static final int MIN_CHUNK_SIZE = 512;
+
+    protected final long bytesPerSecond;
+    protected final double jitter;
+    protected final SplittableRandom random;
+
+    // when the pipe is next free, in System.nanoTime()
+    protected long freeAt = Long.MIN_VALUE;
+
+    /**
+     * @param random varies the rate of each chunk, when there is jitter
+     */
+    public Throttle(long bytesPerSecond, double jitter, SplittableRandom random) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("A throttle needs a positive rate");
+        }
+        this.bytesPerSecond = bytesPerSecond;
+        this.jitter = jitter;
+        this.random = random;
+    }
+
+    /**
+     * @return the most bytes to send at a time
+     */
+    public int getChunkSize() {
+        return (int) Math.max(MIN_CHUNK_SIZE, Math.min(Integer.MAX_VALUE, bytesPerSecond * CHUNK_NANOS / NANOS_PER_SECOND));
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Waits until the bytes have passed through the pipe
+     */
+    public void pass(int bytes) throws InterruptedIOException {
+        final long wait = reserve(bytes, System.nanoTime());
+        if (wait <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while throttled");
+        }
+    }
+
+    /**
+     * Takes the next slot in the pipe for the bytes
+     *
+     * @param now the time in nanoseconds, as given by {@link System#nanoTime()}
+     * @return how long to wait (in nanoseconds) until the bytes have passed through
+     */
+    public synchronized long reserve(int bytes, long now) {
+        final double factor = jitter == 0 ? 1 : 1 + jitter * (random.nextDouble() * 2 - 1);
+        final long duration = Math.round(bytes * factor * NANOS_PER_SECOND / bytesPerSecond);
+        final long start = freeAt == Long.MIN_VALUE || freeAt - now < 0 ? now : freeAt;
+        freeAt = start + duration;
+        return freeAt - now;
+    }
+}
@@ -0,0 +1,52 @@
+package com.zamzar.mock.faults;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads a stream through a {@link Throttle}, a chunk at a time, so that whoever reads it (e.g. Jetty sending a
+ * response, or Wiremock reading a request) gets the stream at the throttle's rate.
+ */
+public class ThrottledInputStream extends FilterInputStream {
+
+    protected final Throttle throttle;
+
+    public ThrottledInputStream(InputStream in, Throttle throttle) {
+        super(in);
+        this.throttle = throttle;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b >= 0) {
+            throttle.pass(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        final int read = super.read(buffer, offset, Math.min(length, throttle.getChunkSize()));
+        if (read > 0) {
+            throttle.pass(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        // each chunk is flushed as it passes, so that the client sees it arrive then rather than when a buffer fills
+        final byte[] buffer = new byte[throttle.getChunkSize()];
+        long transferred = 0;
+        int read;
+        while ((read = read(buffer, 0, buffer.length)) >= 0) {
+            out.write(buffer, 0, read);
+            out.flush();
+            transferred += read;
+        }
+        return transferred;
+    }
+}
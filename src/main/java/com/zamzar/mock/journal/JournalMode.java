@@ -0,0 +1,25 @@
+package com.zamzar.mock.journal;
+
+import java.util.Locale;
+
+/**
+ * How many requests Wiremock's request journal (e.g. {@code GET /__admin/requests}) keeps
+ */
+public enum JournalMode {
+    /**
+     * Every request, as Wiremock does by default; memory grows with every request
+     */
+    UNBOUNDED,
+    /**
+     * The most recent requests (see {@link RingJournalStore}), so that memory stays flat however long the mock runs
+     */
+    RING,
+    /**
+     * None: requests are only counted, in the metrics
+     */
+    OFF;
+
+    public static JournalMode of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,23 @@
+package com.zamzar.mock.journal;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.store.DefaultStores;
+import com.github.tomakehurst.wiremock.store.RequestJournalStore;
+
+/**
+ * Wiremock's own stores, except for the request journal
+ */
+public class JournalStores extends DefaultStores {
+
+    protected final RequestJournalStore journal;
+
+    public JournalStores(FileSource fileRoot, RequestJournalStore journal) {
+        super(fileRoot);
+        this.journal = journal;
+    }
+
+    @Override
+    public RequestJournalStore getRequestJournalStore() {
+        return journal;
+    }
+}
@@ -0,0 +1,136 @@
+package com.zamzar.mock.journal;
+
+import com.github.tomakehurst.wiremock.store.RequestJournalStore;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the most recent requests in Wiremock's request journal, in a ring of fixed size: each request overwrites the
+ * oldest once the ring is full, so the journal never takes up more memory than the ring holds.
+ * <p>
+ * Wiremock can bound its own journal too, but it counts every entry on every request to do so. Here, adding a request
+ * (and replacing it once it has been served) takes constant time.
+ */
+public class RingJournalStore implements RequestJournalStore {
+
+    protected final ServeEvent[] ring;
+
+    // the number of requests ever added; the request numbered n is (or was) at n % ring.length
+    protected long added;
+
+    // id -> number of the request, for the requests in the ring
+    protected final Map<UUID, Long> numbers = new HashMap<>();
+
+    protected final LongAdder evictions = new LongAdder();
+
+    public RingJournalStore(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A journal needs room for at least one request");
+        }
+        this.ring = new ServeEvent[capacity];
+    }
+
+    @Override
+    public synchronized void add(ServeEvent event) {
+        final int slot = (int) (added % ring.length);
+        if (ring[slot] != null) {
+            numbers.remove(ring[slot].getId());
+            evictions.increment();
+        }
+        ring[slot] = event;
+        numbers.put(event.getId(), added);
+        added++;
+    }
+
+    /**
+     * @return the requests, most recent first
+     */
+    @Override
+    public Stream<ServeEvent> getAll() {
+        final List<ServeEvent> events = new ArrayList<>(ring.length);
+        synchronized (this) {
+            for (long number = added - 1; number >= Math.max(0, added - ring.length); number--) {
+                final ServeEvent event = ring[(int) (number % ring.length)];
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+        }
+        return events.stream();
+    }
+
+    @Override
+    public synchronized void removeLast() {
+        for (long number = Math.max(0, added - ring.length); number < added; number++) {
+            final int slot = (int) (number % ring.length);
+            if (ring[slot] != null) {
+                numbers.remove(ring[slot].getId());
+                ring[slot] = null;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Stream<UUID> getAllKeys() {
+        return getAll().map(ServeEvent::getId);
+    }
+
+    @Override
+    public synchronized Optional<ServeEvent> get(UUID id) {
+        final Long number = numbers.get(id);
+        return number == null ? Optional.empty() : Optional.of(ring[(int) (number % ring.length)]);
+    }
+
+    /**
+     * Replaces a request (e.g. with its response, once it has been served), unless it has already left the ring
+     */
+    @Override
+    public synchronized void put(UUID id, ServeEvent event) {
+        final Long number = numbers.get(id);
+        if (number != null) {
+            ring[(int) (number % ring.length)] = event;
+        }
+    }
+
+    @Override
+    public synchronized void remove(UUID id) {
+        final Long number = numbers.remove(id);
+        if (number != null) {
+            ring[(int) (number % ring.length)] = null;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        Arrays.fill(ring, null);
+        numbers.clear();
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * @return the number of requests in the ring
+     */
+    public synchronized int size() {
+        return numbers.size();
+    }
+
+    /**
+     * @return the number of requests overwritten by later ones
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,130 @@
+package com.zamzar.mock.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The throughput and p99 latency of each {@link Operation} from an earlier run, and how far a later run may fall short
+ * of them before it counts as a regression. Ratios are generous, as runs on different machines (or on a busy one) vary.
+ * <pre>
+ * {
+ *   "min_throughput_ratio": 0.5,
+ *   "max_p99_ratio": 3.0,
+ *   "operations": {
+ *     "poll": { "throughput": 2000.0, "p99_ms": 10.0 }
+ *   }
+ * }
+ * </pre>
+ */
+public class Baseline {
+
+    public static final double DEFAULT_MIN_THROUGHPUT_RATIO = 0.5;
+    public static final double DEFAULT_MAX_P99_RATIO = 3.0;
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    protected final double minThroughputRatio;
+    protected final double maxP99Ratio;
+    protected final Map<Operation, Expected> operations;
+
+    public Baseline(double minThroughputRatio, double maxP99Ratio, Map<Operation, Expected> operations) {
+        this.minThroughputRatio = minThroughputRatio;
+        this.maxP99Ratio = maxP99Ratio;
+        this.operations = new EnumMap<>(operations);
+    }
+
+    /**
+     * @return a baseline of the results of a run, e.g. to store after a change that is known to affect performance
+     */
+    public static Baseline of(LoadReport report) {
+        return new Baseline(DEFAULT_MIN_THROUGHPUT_RATIO, DEFAULT_MAX_P99_RATIO, Map.of()).updatedWith(report);
+    }
+
+    /**
+     * @return this baseline, with the results of a run in place of the ones it had (but the same ratios)
+     */
+    public Baseline updatedWith(LoadReport report) {
+        final Map<Operation, Expected> operations = new EnumMap<>(Operation.class);
+        report.getOperations().forEach((operation, result) ->
+            operations.put(operation, new Expected(result.getThroughput(), result.getP99Millis())));
+        return new Baseline(minThroughputRatio, maxP99Ratio, operations);
+    }
+
+    public static Baseline parse(String json) {
+        try {
+            final JsonNode root = MAPPER.readTree(json);
+            final Map<Operation, Expected> operations = new EnumMap<>(Operation.class);
+            final Iterator<Map.Entry<String, JsonNode>> fields = root.path("operations").fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                operations.put(Operation.of(field.getKey()), new Expected(
+                    field.getValue().path("throughput").asDouble(),
+                    field.getValue().path("p99_ms").asDouble()
+                ));
+            }
+            return new Baseline(
+                root.path("min_throughput_ratio").asDouble(DEFAULT_MIN_THROUGHPUT_RATIO),
+                root.path("max_p99_ratio").asDouble(DEFAULT_MAX_P99_RATIO),
+                operations
+            );
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid baseline: " + e.getMessage(), e);
+        }
+    }
+
+    public String toJson() {
+        final ObjectNode root = MAPPER.createObjectNode()
+            .put("min_throughput_ratio", minThroughputRatio)
+            .put("max_p99_ratio", maxP99Ratio);
+        final ObjectNode nodes = root.putObject("operations");
+        operations.forEach((operation, expected) -> nodes.putObject(operation.label())
+            .put("throughput", Math.round(expected.throughput * 10) / 10.0)
+            .put("p99_ms", Math.round(expected.p99Millis * 100) / 100.0));
+        try {
+            return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(root) + "\n";
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return a description of each way the run fell short of the baseline (none if it did not)
+     */
+    public List<String> regressions(LoadReport report) {
+        final List<String> regressions = new ArrayList<>();
+        operations.forEach((operation, expected) -> {
+            final LoadReport.Result actual = report.getOperations().get(operation);
+            if (actual == null) {
+                return; // not part of this run's mix
+            }
+            if (actual.getThroughput() < expected.throughput * minThroughputRatio) {
+                regressions.add(String.format(Locale.ROOT, "%s throughput %.1f req/s is below %.1f req/s (baseline %.1f)",
+                    operation.label(), actual.getThroughput(), expected.throughput * minThroughputRatio, expected.throughput));
+            }
+            if (actual.getP99Millis() > expected.p99Millis * maxP99Ratio) {
+                regressions.add(String.format(Locale.ROOT, "%s p99 %.2f ms is above %.2f ms (baseline %.2f)",
+                    operation.label(), actual.getP99Millis(), expected.p99Millis * maxP99Ratio, expected.p99Millis));
+            }
+        });
+        return regressions;
+    }
+
+    public static class Expected {
+        protected final double throughput;
+        protected final double p99Millis;
+
+        public Expected(double throughput, double p99Millis) {
+            this.throughput = throughput;
+            this.p99Millis = p99Millis;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.zamzar.mock.load;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every latency it is given, so that percentiles are exact rather than estimated from buckets. Not thread-safe:
+ * each client has its own, and they are merged once the run is over.
+ */
+public class LatencyRecorder {
+
+    protected long[] nanos = new long[1024];
+    protected int count;
+    protected long errors;
+    protected boolean sorted = true;
+
+    public void record(long latencyNanos) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, nanos.length * 2);
+        }
+        nanos[count++] = latencyNanos;
+        sorted = false;
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    public void addAll(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.nanos[i]);
+        }
+        errors += other.errors;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @param percentile e.g. 99.9
+     * @return the latency that this percentage of latencies are at or below (nearest rank), or 0 if there are none
+     */
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(nanos, 0, count);
+            sorted = true;
+        }
+        // less a little, so that rounding errors (e.g. 99.9% of 1000 = 999.0000000000001) do not move up a rank
+        final int rank = (int) Math.ceil(percentile / 100 * count - 1e-9);
+        return nanos[Math.min(Math.max(rank, 1), count) - 1];
+    }
+}
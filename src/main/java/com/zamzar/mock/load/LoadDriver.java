@@ -0,0 +1,224 @@
+package com.zamzar.mock.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zamzar.mock.Settings;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Drives a running mock with a pool of concurrent clients, each making a random mix of {@link Operation}s (as fast as
+ * the mock answers them) and recording how long each one takes. Calls made during the warm-up are not recorded.
+ * <p>
+ * Can be run against any mock, e.g.
+ * {@code java -cp zamzar-mock.jar com.zamzar.mock.load.LoadDriver} with {@code ZAMZAR_MOCK_LOAD_URL},
+ * {@code ZAMZAR_MOCK_LOAD_CLIENTS}, {@code ZAMZAR_MOCK_LOAD_SECONDS} and {@code ZAMZAR_MOCK_LOAD_MIX}.
+ */
+public class LoadDriver {
+
+    // weights of each operation: mostly polling, as clients of the real API do while they wait for jobs
+    public static final String DEFAULT_MIX = "submit=1,poll=6,list=2,download=1";
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // the example files, other than the (very large) file 0
+    protected static final int[] DOWNLOADABLE_FILE_IDS = {1, 2, 3, 4, 5, 6, 7};
+
+    // the number of submitted jobs each client remembers, to poll
+    protected static final int MAX_JOBS_PER_CLIENT = 100;
+
+    protected final URI baseUri;
+    protected final String apiKey;
+    protected final int clients;
+    protected final Duration warmup;
+    protected final Duration duration;
+    protected final Map<Operation, Integer> mix;
+    protected final int totalWeight;
+
+    protected final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    public static void main(String[] args) throws InterruptedException {
+        final LoadDriver driver = new LoadDriver(
+            URI.create(Settings.getString("load.url", "http://localhost:8080")),
+            Settings.getString("load.api-key", "GiVUYsF4A8ssq93FR48H"),
+            Settings.getInt("load.clients", 16),
+            Duration.ofSeconds(Settings.getInt("load.warmup-seconds", 5)),
+            Duration.ofSeconds(Settings.getInt("load.seconds", 30)),
+            parseMix(Settings.getString("load.mix", DEFAULT_MIX))
+        );
+        System.out.print(driver.run().format());
+    }
+
+    /**
+     * @param baseUri  the mock, e.g. {@code http://localhost:8080}
+     * @param mix      the relative number of each operation to make
+     */
+    public LoadDriver(URI baseUri, String apiKey, int clients, Duration warmup, Duration duration, Map<Operation, Integer> mix) {
+        if (clients < 1) {
+            throw new IllegalArgumentException("At least one client is needed: " + clients);
+        }
+        this.baseUri = baseUri;
+        this.apiKey = apiKey;
+        this.clients = clients;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.mix = new EnumMap<>(mix);
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight < 1) {
+            throw new IllegalArgumentException("The mix needs at least one operation: " + mix);
+        }
+    }
+
+    /**
+     * @param mix e.g. "submit=1,poll=6,list=2,download=1"
+     */
+    public static Map<Operation, Integer> parseMix(String mix) {
+        final Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            final String[] parts = entry.trim().split("=");
+            try {
+                weights.put(Operation.of(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid operation weight: " + entry, e);
+            }
+        }
+        return weights;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        final long measureFrom = System.nanoTime() + warmup.toNanos();
+        final long measureUntil = measureFrom + duration.toNanos();
+
+        final List<Client> pool = new ArrayList<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            final Client client = new Client(i, measureFrom, measureUntil);
+            final Thread thread = new Thread(client, "load-client-" + i);
+            pool.add(client);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+        for (Client client : pool) {
+            client.recorders.forEach((operation, recorder) ->
+                merged.computeIfAbsent(operation, o -> new LatencyRecorder()).addAll(recorder));
+        }
+        return new LoadReport(duration, merged);
+    }
+
+    protected Operation pick(SplittableRandom random) {
+        int remaining = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            remaining -= entry.getValue();
+            if (remaining < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    protected HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve("/v1" + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + apiKey);
+    }
+
+    protected class Client implements Runnable {
+        protected final SplittableRandom random;
+        protected final long measureFrom;
+        protected final long measureUntil;
+        protected final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+
+        // ids of the jobs this client has submitted, most recent last
+        protected final List<Long> jobs = new ArrayList<>();
+
+        protected Client(int index, long measureFrom, long measureUntil) {
+            this.random = new SplittableRandom(index);
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            mix.keySet().forEach(operation -> recorders.put(operation, new LatencyRecorder()));
+        }
+
+        @Override
+        public void run() {
+            long started;
+            while ((started = System.nanoTime()) < measureUntil) {
+                final Operation operation = pick(random);
+                final boolean succeeded = call(operation);
+                final long latency = System.nanoTime() - started;
+
+                if (started >= measureFrom) {
+                    if (succeeded) {
+                        recorders.get(operation).record(latency);
+                    } else {
+                        recorders.get(operation).recordError();
+                    }
+                }
+            }
+        }
+
+        protected boolean call(Operation operation) {
+            try {
+                switch (operation) {
+                    case SUBMIT:
+                        return submit();
+                    case POLL:
+                        return isOk(send(request("/jobs/" + (jobs.isEmpty() ? 1 : jobs.get(random.nextInt(jobs.size())))).GET()));
+                    case LIST:
+                        return isOk(send(request("/jobs").GET()));
+                    case DOWNLOAD:
+                        return isOk(send(request("/files/" + DOWNLOADABLE_FILE_IDS[random.nextInt(DOWNLOADABLE_FILE_IDS.length)] + "/content").GET()));
+                    default:
+                        throw new IllegalArgumentException("Unknown operation: " + operation);
+                }
+            } catch (IOException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        protected boolean submit() throws IOException, InterruptedException {
+            final HttpResponse<String> response = http.send(request("/jobs")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("source_file=1&target_format=txt"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                return false;
+            }
+
+            if (jobs.size() == MAX_JOBS_PER_CLIENT) {
+                jobs.remove(0);
+            }
+            jobs.add(MAPPER.readTree(response.body()).get("id").asLong());
+            return true;
+        }
+
+        // reads the whole body (as a client would) but keeps none of it
+        protected HttpResponse<Void> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            return http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        }
+
+        protected boolean isOk(HttpResponse<?> response) {
+            return response.statusCode() == 200;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.zamzar.mock.load;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The throughput and latency of each {@link Operation} during a {@link LoadDriver} run, and of all of them together
+ */
+public class LoadReport {
+
+    protected final Duration elapsed;
+    protected final Map<Operation, Result> operations;
+    protected final Result total;
+
+    public LoadReport(Duration elapsed, Map<Operation, LatencyRecorder> recorders) {
+        this.elapsed = elapsed;
+
+        final Map<Operation, Result> operations = new EnumMap<>(Operation.class);
+        final LatencyRecorder all = new LatencyRecorder();
+        recorders.forEach((operation, recorder) -> {
+            operations.put(operation, new Result(recorder, elapsed));
+            all.addAll(recorder);
+        });
+        this.operations = Collections.unmodifiableMap(operations);
+        this.total = new Result(all, elapsed);
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public Map<Operation, Result> getOperations() {
+        return operations;
+    }
+
+    public Result getTotal() {
+        return total;
+    }
+
+    /**
+     * @return a table of the results, one row per operation
+     */
+    public String format() {
+        final StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, "%-10s %10s %8s %10s %10s %10s %10s%n",
+            "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms"));
+        operations.forEach((operation, result) -> row(table, operation.label(), result));
+        row(table, "total", total);
+        return table.toString();
+    }
+
+    protected static void row(StringBuilder table, String label, Result result) {
+        table.append(String.format(Locale.ROOT, "%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+            label, result.count, result.errors, result.throughput, result.p50Millis, result.p99Millis, result.p999Millis));
+    }
+
+    public static class Result {
+        protected final int count;
+        protected final long errors;
+        protected final double throughput;
+        protected final double p50Millis;
+        protected final double p99Millis;
+        protected final double p999Millis;
+
+        protected Result(LatencyRecorder recorder, Duration elapsed) {
+            this.count = recorder.getCount();
+            this.errors = recorder.getErrors();
+            this.throughput = count / (elapsed.toNanos() / 1e9);
+            this.p50Millis = recorder.percentile(50) / 1e6;
+            this.p99Millis = recorder.percentile(99) / 1e6;
+            this.p999Millis = recorder.percentile(99.9) / 1e6;
+        }
+
+        /**
+         * @return the number of successful calls
+         */
+        public int getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return successful calls per second
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getP999Millis() {
+            return p999Millis;
+        }
+    }
+}
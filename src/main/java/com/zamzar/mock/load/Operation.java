@@ -0,0 +1,23 @@
+package com.zamzar.mock.load;
+
+/**
+ * The calls a {@link LoadDriver} makes, as a client of the API would
+ */
+public enum Operation {
+    /** {@code POST /v1/jobs} */
+    SUBMIT,
+    /** {@code GET /v1/jobs/{id}}, for a job the client submitted */
+    POLL,
+    /** {@code GET /v1/jobs} */
+    LIST,
+    /** {@code GET /v1/files/{id}/content} */
+    DOWNLOAD;
+
+    public String label() {
+        return name().toLowerCase();
+    }
+
+    public static Operation of(String label) {
+        return valueOf(label.toUpperCase());
+    }
+}
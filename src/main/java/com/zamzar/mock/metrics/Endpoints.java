@@ -0,0 +1,72 @@
+package com.zamzar.mock.metrics;
+
+/**
+ * Names the logical endpoint of a request (e.g. "job_poll" for {@code GET /v1/jobs/1}), so that metrics are kept per
+ * endpoint rather than per URL.
+ */
+public class Endpoints {
+
+    public static final String OTHER = "other";
+
+    /**
+     * @param path the path of the request, without its query, e.g. {@code /v1/files/1/content}
+     */
+    public static String of(String method, String path) {
+        final String[] segments = path.replaceFirst("^/v1/", "").replaceFirst("/$", "").split("/");
+        final String resource = segments[0];
+        final String singular = singular(resource);
+        if (singular == null) {
+            return OTHER;
+        }
+
+        switch (segments.length) {
+            case 1:
+                // e.g. GET /v1/jobs, POST /v1/jobs
+                if (resource.equals("account")) {
+                    return "account_get";
+                }
+                return method.equals("POST") ? singular + "_create" : singular + "_list";
+
+            case 2:
+                // e.g. GET /v1/jobs/1, DELETE /v1/jobs/1, GET /v1/jobs/successful
+                if (resource.equals("jobs") && segments[1].equals("successful")) {
+                    return "job_list_successful";
+                }
+                switch (method) {
+                    case "GET":
+                        return resource.equals("jobs") || resource.equals("imports") ? singular + "_poll" : singular + "_get";
+                    case "DELETE":
+                        return singular + "_delete";
+                    default:
+                        return OTHER;
+                }
+
+            case 3:
+                // e.g. GET /v1/files/1/content, POST /v1/jobs/1/destroy
+                if (segments[2].equals("content") || segments[2].equals("destroy")) {
+                    return singular + "_" + segments[2];
+                }
+                return OTHER;
+
+            default:
+                return OTHER;
+        }
+    }
+
+    protected static String singular(String resource) {
+        switch (resource) {
+            case "account":
+                return "account";
+            case "files":
+                return "file";
+            case "formats":
+                return "format";
+            case "imports":
+                return "import";
+            case "jobs":
+                return "job";
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.zamzar.mock.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts durations into fixed buckets. Recording only increments {@link LongAdder}s, which spread contention across
+ * cells, so it is cheap enough to do for every request.
+ */
+public class Histogram {
+
+    // upper bounds of the buckets, in seconds, as Prometheus client libraries use by default (plus some slower ones)
+    public static final double[] BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    protected static final long[] BUCKET_NANOS = new long[BUCKETS.length];
+
+    static {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            BUCKET_NANOS[i] = Math.round(BUCKETS[i] * 1_000_000_000L);
+        }
+    }
+
+    // the number of durations in each bucket (not cumulative), and beyond the last one
+    protected final LongAdder[] counts = new LongAdder[BUCKETS.length + 1];
+    protected final LongAdder sumNanos = new LongAdder();
+
+    public Histogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_NANOS.length && nanos > BUCKET_NANOS[bucket]) {
+            bucket++;
+        }
+        counts[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * @return the number of durations up to each bucket's bound, ending with the total count
+     */
+    public long[] cumulativeCounts() {
+        final long[] cumulative = new long[counts.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i].sum();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    public double sumSeconds() {
+        return sumNanos.sum() / 1e9;
+    }
+}
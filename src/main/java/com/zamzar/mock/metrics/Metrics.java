@@ -0,0 +1,155 @@
+package com.zamzar.mock.metrics;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts requests and records how long they (and some transformers) take, for {@code GET /__admin/metrics}, in the
+ * Prometheus text format.
+ * <p>
+ * Metrics are keyed by logical endpoint (see {@link Endpoints}) rather than by URL, so there are only ever a few dozen
+ * of them, however many jobs and files are requested.
+ */
+@JsonIgnoreType
+public class Metrics {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // endpoint, method and status -> the number of requests
+    protected final ConcurrentMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+
+    // endpoint -> how long its requests take, from being received to being sent
+    protected final ConcurrentMap<String, Histogram> requestDurations = new ConcurrentHashMap<>();
+
+    // transformer -> how long it takes to make a response
+    protected final ConcurrentMap<String, Histogram> transformerDurations = new ConcurrentHashMap<>();
+
+    // name -> a figure kept elsewhere (e.g. by a cache), read whenever metrics are rendered
+    protected final Map<String, Sampled> sampled = new ConcurrentSkipListMap<>();
+
+    public void recordRequest(String endpoint, String method, int status, long nanos) {
+        requests.computeIfAbsent(labels("endpoint", endpoint, "method", method, "status", String.valueOf(status)), k -> new LongAdder()).increment();
+        requestDurations.computeIfAbsent(endpoint, e -> new Histogram()).record(nanos);
+    }
+
+    public void recordTransformer(String transformer, long nanos) {
+        transformerDurations.computeIfAbsent(transformer, t -> new Histogram()).record(nanos);
+    }
+
+    /**
+     * Adds a count that only goes up, e.g. the number of hits of a cache
+     */
+    public void counter(String name, String help, LongSupplier value) {
+        sampled.put(name, new Sampled("counter", help, value));
+    }
+
+    /**
+     * Adds a figure that can go up or down, e.g. the number of bytes in a cache
+     */
+    public void gauge(String name, String help, LongSupplier value) {
+        sampled.put(name, new Sampled("gauge", help, value));
+    }
+
+    public String render() {
+        final StringBuilder out = new StringBuilder();
+
+        out.append("# HELP zamzar_mock_requests_total Requests served, by endpoint, method and status\n");
+        out.append("# TYPE zamzar_mock_requests_total counter\n");
+        new TreeMap<>(requests).forEach((labels, count) -> sample(out, "zamzar_mock_requests_total", labels, count.sum()));
+
+        histograms(out, "zamzar_mock_request_duration_seconds", "Time to serve requests, by endpoint", "endpoint", requestDurations);
+        histograms(out, "zamzar_mock_transformer_duration_seconds", "Time for transformers to make responses (before they are sent)", "transformer", transformerDurations);
+
+        sampled.forEach((name, metric) -> {
+            out.append("# HELP ").append(name).append(' ').append(metric.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(metric.type).append('\n');
+            sample(out, name, "", metric.value.getAsLong());
+        });
+
+        jvm(out);
+        return out.toString();
+    }
+
+    protected void histograms(StringBuilder out, String name, String help, String label, Map<String, Histogram> histograms) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" histogram\n");
+        new TreeMap<>(histograms).forEach((value, histogram) -> {
+            final long[] counts = histogram.cumulativeCounts();
+            for (int i = 0; i < Histogram.BUCKETS.length; i++) {
+                sample(out, name + "_bucket", labels(label, value, "le", format(Histogram.BUCKETS[i])), counts[i]);
+            }
+            sample(out, name + "_bucket", labels(label, value, "le", "+Inf"), counts[counts.length - 1]);
+            sample(out, name + "_sum", labels(label, value), histogram.sumSeconds());
+            sample(out, name + "_count", labels(label, value), counts[counts.length - 1]);
+        });
+    }
+
+    protected void jvm(StringBuilder out) {
+        final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        gauge(out, "jvm_memory_heap_used_bytes", "Heap memory in use", heap.getUsed());
+        gauge(out, "jvm_memory_heap_committed_bytes", "Heap memory committed by the JVM", heap.getCommitted());
+        gauge(out, "jvm_memory_heap_max_bytes", "Maximum heap memory", heap.getMax());
+        gauge(out, "jvm_threads_live", "Live threads", ManagementFactory.getThreadMXBean().getThreadCount());
+
+        out.append("# HELP jvm_gc_collection_seconds Time spent in garbage collections, by collector\n");
+        out.append("# TYPE jvm_gc_collection_seconds summary\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(out, "jvm_gc_collection_seconds_count", labels("gc", gc.getName()), gc.getCollectionCount());
+            sample(out, "jvm_gc_collection_seconds_sum", labels("gc", gc.getName()), gc.getCollectionTime() / 1000.0);
+        }
+    }
+
+    protected static void gauge(StringBuilder out, String name, String help, double value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        sample(out, name, "", value);
+    }
+
+    protected static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append(labels).append(' ').append(format(value)).append('\n');
+    }
+
+    // e.g. {endpoint="job_poll",status="200"}
+    protected static String labels(String... namesAndValues) {
+        final StringBuilder labels = new StringBuilder("{");
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(namesAndValues[i]).append("=\"")
+                .append(namesAndValues[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append('"');
+        }
+        return labels.append('}').toString();
+    }
+
+    protected static class Sampled {
+        protected final String type;
+        protected final String help;
+        protected final LongSupplier value;
+
+        protected Sampled(String type, String help, LongSupplier value) {
+            this.type = type;
+            this.help = help;
+            this.value = value;
+        }
+    }
+
+    protected static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.format(Locale.ROOT, "%s", value);
+    }
+}
@@ -0,0 +1,15 @@
+package com.zamzar.mock.pagination;
+
+/**
+ * A list whose items are generated as they are read, rather than held in memory.
+ * <p>
+ * Such lists can be far larger than a list of parsed items, so they find the position of an id themselves (instead of
+ * {@link IndexedList} mapping every id up front) and their items should not be cached once served.
+ */
+public interface GeneratedList {
+
+    /**
+     * @return the position of the item whose {@code idFieldName} has the given (textual) value, or -1 if there is none
+     */
+    int positionOf(String idFieldName, String id);
+}
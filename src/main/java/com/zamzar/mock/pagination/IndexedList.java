@@ -0,0 +1,55 @@
+package com.zamzar.mock.pagination;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A list of items together with the position of each item's id, so that anchors can be found without a scan.
+ * <p>
+ * Positions are looked up by the textual form of the id, which works regardless of the list's order (e.g. numeric ids
+ * in descending order, or names in ascending order).
+ */
+public class IndexedList {
+    protected final List<JsonNode> items;
+    protected final String idFieldName;
+    protected final Map<String, Integer> positions;
+
+    public IndexedList(List<JsonNode> items, String idFieldName) {
+        this.items = items;
+        this.idFieldName = idFieldName;
+        if (items instanceof GeneratedList) {
+            this.positions = null; // the list knows where its ids are, without generating its items
+            return;
+        }
+
+        this.positions = new HashMap<>(Math.max(16, (int) (items.size() / 0.75f) + 1));
+        for (int i = 0; i < items.size(); i++) {
+            final JsonNode id = items.get(i).get(idFieldName);
+            if (id != null) {
+                positions.putIfAbsent(id.asText(), i); // like a scan, the first occurrence wins
+            }
+        }
+    }
+
+    public List<JsonNode> getItems() {
+        return items;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * @return the position of the item with the given id, or -1 if there is no such item
+     */
+    public int positionOf(String id) {
+        if (positions == null) {
+            return ((GeneratedList) items).positionOf(idFieldName, id);
+        }
+        final Integer position = positions.get(id);
+        return position == null ? -1 : position;
+    }
+}
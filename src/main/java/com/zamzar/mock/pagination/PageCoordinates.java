@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.ToIntFunction;
 
 public class PageCoordinates {
     public static final int MAX_LIMIT = 50;
@@ -30,10 +31,23 @@ public class PageCoordinates {
     }
 
     public List<JsonNode> applyTo(List<JsonNode> items, String idFieldName) {
-        final Range range = range(items, idFieldName);
+        final Range range = range(items.size(), ref -> indexOf(items, idFieldName, ref));
         return items.subList(range.from, range.to);
     }
 
+    // Prefer this over applyTo(List, String) when paging through the same list repeatedly: anchors are found in O(1)
+    public List<JsonNode> applyTo(IndexedList items) {
+        final Range range = rangeOf(items);
+        return items.getItems().subList(range.from, range.to);
+    }
+
+    /**
+     * @return the positions of the page within the items, for callers that keep data alongside each position
+     */
+    public Range rangeOf(IndexedList items) {
+        return range(items.size(), items::positionOf);
+    }
+
     public int getLimit() {
         return limit;
     }
@@ -46,34 +60,44 @@ public class PageCoordinates {
             '}';
     }
 
-    protected Range range(List<JsonNode> items, String idFieldName) {
+    protected Range range(int size, ToIntFunction<String> positionOf) {
         if (anchor == null) {
             int from = 0;
-            int to = Math.min(limit, items.size());
+            int to = Math.min(limit, size);
             return new Range(from, to);
 
         } else if (anchor.orientation == Anchor.Orientation.AFTER) {
             // start from the item after the anchor
-            int from = Math.min(getIndexOfAnchor(items, idFieldName) + 1, items.size());
-            int to = Math.min(from + limit, items.size());
+            int from = Math.min(getIndexOfAnchor(positionOf) + 1, size);
+            int to = Math.min(from + limit, size);
             return new Range(from, to);
 
         } else {
             // end at the item before the anchor
-            int to = Math.max(getIndexOfAnchor(items, idFieldName), 0);
+            int to = Math.max(getIndexOfAnchor(positionOf), 0);
             int from = Math.max(to - limit, 0);
             return new Range(from, to);
         }
     }
 
-    private int getIndexOfAnchor(List<JsonNode> items, String idFieldName) {
-        return items.stream()
-            .filter(i -> Objects.equals(i.get(idFieldName).asText(), anchor.ref)).
-            findFirst().map(items::indexOf)
-            .orElseThrow(() -> new IllegalArgumentException(anchor.ref + " not found in items"));
+    private int getIndexOfAnchor(ToIntFunction<String> positionOf) {
+        final int index = positionOf.applyAsInt(anchor.ref);
+        if (index < 0) {
+            throw new IllegalArgumentException(anchor.ref + " not found in items");
+        }
+        return index;
+    }
+
+    private static int indexOf(List<JsonNode> items, String idFieldName, String id) {
+        for (int i = 0; i < items.size(); i++) {
+            if (Objects.equals(items.get(i).get(idFieldName).asText(), id)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
-    protected static class Range {
+    public static class Range {
         protected final int from;
         protected final int to;
 
@@ -81,5 +105,19 @@ public class PageCoordinates {
             this.from = from;
             this.to = to;
         }
+
+        // inclusive
+        public int getFrom() {
+            return from;
+        }
+
+        // exclusive
+        public int getTo() {
+            return to;
+        }
+
+        public int size() {
+            return to - from;
+        }
     }
 }
@@ -0,0 +1,98 @@
+package com.zamzar.mock.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket that holds up to {@code burst} tokens and refills at {@code perSecond} tokens per second. Each request
+ * takes a token, and is refused if there are none left.
+ * <p>
+ * Rather than counting tokens, the bucket tracks when it will next be full (the "generic cell rate algorithm"), which
+ * is a single number. So taking a token is one compare-and-set, and never blocks.
+ */
+public class TokenBucket {
+
+    protected static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    protected final int burst;
+
+    // nanoseconds for one token to refill
+    protected final long interval;
+
+    // nanoseconds for the bucket to refill from empty
+    protected final long capacity;
+
+    // when the bucket will be full again, in System.nanoTime(); in the past when it is already full
+    protected final AtomicLong fullAt;
+
+    public TokenBucket(int burst, double perSecond, long now) {
+        if (burst < 1 || perSecond <= 0) {
+            throw new IllegalArgumentException("A token bucket needs a burst of at least 1 and a positive refill rate");
+        }
+        this.burst = burst;
+        this.interval = Math.max(1, Math.round(NANOS_PER_SECOND / perSecond));
+        this.capacity = interval * burst;
+        this.fullAt = new AtomicLong(now - capacity);
+    }
+
+    /**
+     * Takes a token, if there is one
+     *
+     * @param now the time in nanoseconds, as given by {@link System#nanoTime()}
+     */
+    public Result take(long now) {
+        while (true) {
+            final long current = fullAt.get();
+            final long next = Math.max(current, now) + interval;
+            final long debt = next - now; // how long until full, once this token is taken
+            if (debt > capacity) {
+                return new Result(false, 0, debt - capacity, current - now);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return new Result(true, (int) ((capacity - debt) / interval), 0, debt);
+            }
+        }
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public static class Result {
+        protected final boolean allowed;
+        protected final int remaining;
+        protected final long retryAfterNanos;
+        protected final long resetNanos;
+
+        protected Result(boolean allowed, int remaining, long retryAfterNanos, long resetNanos) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterNanos = retryAfterNanos;
+            this.resetNanos = Math.max(resetNanos, 0);
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * @return the number of tokens left
+         */
+        public int getRemaining() {
+            return remaining;
+        }
+
+        /**
+         * @return how long until a token is available, if this one was refused
+         */
+        public long getRetryAfterNanos() {
+            return retryAfterNanos;
+        }
+
+        /**
+         * @return how long until the bucket is full again
+         */
+        public long getResetNanos() {
+            return resetNanos;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.zamzar.mock.routing;
+
+import java.util.Optional;
+
+/**
+ * What a request for a single item asks for, e.g. the {@code destroy} action on import 1 for
+ * {@code POST /v1/imports/1/destroy}
+ */
+public class Route {
+
+    protected final String resource;
+    protected final String id;
+    protected final String action;
+
+    public Route(String resource, String id, String action) {
+        this.resource = resource;
+        this.id = id;
+        this.action = action;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the id, if it is a number (as the ids of jobs, files and imports are)
+     */
+    public Optional<Long> getNumericId() {
+        try {
+            return Optional.of(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return one of the actions of a {@link com.zamzar.mock.state.Lifecycle}, e.g. {@code get}
+     */
+    public String getAction() {
+        return action;
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + resource + "/" + id;
+    }
+}
@@ -0,0 +1,152 @@
+package com.zamzar.mock.routing;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.zamzar.mock.state.Lifecycle;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes requests for single items (e.g. {@code GET /v1/jobs/1} or {@code POST /v1/imports/1/destroy}) to the
+ * {@link Lifecycle} of the item, with a fixed number of map lookups however many items there are. This replaces a stub
+ * per item and action, which Wiremock would otherwise try one after another for every request.
+ * <p>
+ * Requests are matched against a table of path templates, e.g. {@code GET /{resource}/{id}/content}, each of which
+ * names an action of a lifecycle.
+ */
+@JsonIgnoreType
+public class Routes {
+
+    protected static final String PREFIX = "/{resource}/{id}";
+
+    protected final String basePath;
+
+    // e.g. "GET /content" -> "content", for GET /{resource}/{id}/content
+    protected final Map<String, String> templates = new HashMap<>();
+
+    // resource -> id -> the lifecycle of the example with that id
+    protected final Map<String, Map<String, Lifecycle>> lifecycles = new ConcurrentHashMap<>();
+
+    // resource -> the lifecycle shared by the items that have no example of their own (see share)
+    protected final Map<String, Lifecycle> shared = new ConcurrentHashMap<>();
+
+    // resources whose items have no lifecycle of their own, but are routed all the same
+    protected final Set<String> resources = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param basePath e.g. {@code /v1}
+     */
+    public Routes(String basePath) {
+        this.basePath = basePath;
+
+        template("GET", PREFIX, Lifecycle.GET);
+        template("DELETE", PREFIX, Lifecycle.DELETE);
+        template("GET", PREFIX + "/content", Lifecycle.CONTENT);
+        template("POST", PREFIX + "/destroy", Lifecycle.DESTROY);
+    }
+
+    /**
+     * @param template e.g. {@code /{resource}/{id}/content}; anything after the id must be literal
+     */
+    public Routes template(String method, String template, String action) {
+        if (!template.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Template must start with " + PREFIX + ": " + template);
+        }
+        templates.put(key(method, template.substring(PREFIX.length())), action);
+        return this;
+    }
+
+    /**
+     * Routes requests for the item that the lifecycle belongs to
+     */
+    public Routes add(Lifecycle lifecycle) {
+        lifecycles.computeIfAbsent(lifecycle.getResource(), r -> new ConcurrentHashMap<>()).put(lifecycle.getId(), lifecycle);
+        return this;
+    }
+
+    /**
+     * Routes requests for the items of a resource that have no lifecycle of their own (items created through the API,
+     * and generated items)
+     *
+     * @param lifecycle shared by those items, or null if they never change
+     */
+    public Routes share(String resource, Lifecycle lifecycle) {
+        resources.add(resource);
+        if (lifecycle != null) {
+            shared.put(resource, lifecycle);
+        }
+        return this;
+    }
+
+    /**
+     * @param path the path of the request, without its query, e.g. {@code /v1/files/1/content}
+     * @return the route, or empty if the request is not for a single item of a known resource
+     */
+    public Optional<Route> match(String method, String path) {
+        if (!path.startsWith(basePath + "/")) {
+            return Optional.empty();
+        }
+
+        // e.g. "files/1/content" -> resource "files", id "1", rest "/content"
+        final String rest = path.substring(basePath.length() + 1);
+        final int idStart = rest.indexOf('/') + 1;
+        if (idStart == 0) {
+            return Optional.empty();
+        }
+        final int idEnd = rest.indexOf('/', idStart);
+
+        final String resource = rest.substring(0, idStart - 1);
+        final String id = idEnd < 0 ? rest.substring(idStart) : rest.substring(idStart, idEnd);
+        final String action = templates.get(key(method, idEnd < 0 ? "" : rest.substring(idEnd)));
+        if (action == null || id.isEmpty() || !isKnown(resource)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Route(resource, id, action));
+    }
+
+    /**
+     * @return the lifecycle of the example that the route is for, or empty if the item has no example of its own
+     */
+    public Optional<Lifecycle> lifecycle(Route route) {
+        return Optional.ofNullable(lifecycles.getOrDefault(route.getResource(), Map.of()).get(route.getId()));
+    }
+
+    /**
+     * @return the lifecycle shared by the items of the resource that have no example of their own, or empty if they
+     * never change
+     */
+    public Optional<Lifecycle> shared(String resource) {
+        return Optional.ofNullable(shared.get(resource));
+    }
+
+    /**
+     * @return the resources that are routed, e.g. "files" and "jobs"
+     */
+    public Set<String> getResources() {
+        final Set<String> all = new TreeSet<>(resources);
+        all.addAll(lifecycles.keySet());
+        return all;
+    }
+
+    /**
+     * @return what can follow the id in a routed path, e.g. "/content"
+     */
+    public Collection<String> getSuffixes() {
+        final Set<String> suffixes = new TreeSet<>();
+        templates.keySet().forEach(key -> suffixes.add(key.substring(key.indexOf(' ') + 1)));
+        return suffixes;
+    }
+
+    protected boolean isKnown(String resource) {
+        return lifecycles.containsKey(resource) || resources.contains(resource);
+    }
+
+    protected static String key(String method, String suffix) {
+        return method + " " + suffix;
+    }
+}
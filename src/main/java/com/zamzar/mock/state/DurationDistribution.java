@@ -0,0 +1,87 @@
+package com.zamzar.mock.state;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * How long something (e.g. a conversion) takes, parsed from a spec such as:
+ * <ul>
+ *     <li>{@code 5s} - always 5 seconds</li>
+ *     <li>{@code 2s..10s} - uniformly between 2 and 10 seconds</li>
+ *     <li>{@code 1s..3s+500ms/MB} - between 1 and 3 seconds, plus half a second for each MB of the file involved</li>
+ * </ul>
+ * Durations are a number followed by a unit: {@code ms}, {@code s}, {@code m} or {@code h}.
+ */
+public class DurationDistribution {
+
+    protected static final long MB = 1024 * 1024;
+
+    protected static final String DURATION = "([0-9]+(?:\\.[0-9]+)?)\\s*(ms|s|m|h)";
+    protected static final Pattern SPEC = Pattern.compile(
+        "\\s*" + DURATION + "(?:\\s*\\.\\.\\s*" + DURATION + ")?(?:\\s*\\+\\s*" + DURATION + "\\s*/\\s*MB)?\\s*",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    protected final long minMillis;
+    protected final long maxMillis;
+    protected final long millisPerMb;
+
+    public DurationDistribution(long minMillis, long maxMillis, long millisPerMb) {
+        if (minMillis < 0 || maxMillis < minMillis || millisPerMb < 0) {
+            throw new IllegalArgumentException("Invalid durations: " + minMillis + ".." + maxMillis + "+" + millisPerMb + "/MB");
+        }
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+        this.millisPerMb = millisPerMb;
+    }
+
+    public static DurationDistribution parse(String spec) {
+        final Matcher matcher = SPEC.matcher(spec);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid duration: " + spec + " (expected e.g. 5s, 2s..10s or 1s..3s+500ms/MB)");
+        }
+
+        final long min = millis(matcher.group(1), matcher.group(2));
+        final long max = matcher.group(3) == null ? min : millis(matcher.group(3), matcher.group(4));
+        final long perMb = matcher.group(5) == null ? 0 : millis(matcher.group(5), matcher.group(6));
+        return new DurationDistribution(min, max, perMb);
+    }
+
+    /**
+     * @param size   the size in bytes of the file involved
+     * @param random the source of randomness, which should be seeded so that the same thing always takes as long
+     * @return the duration in milliseconds
+     */
+    public long sample(long size, SplittableRandom random) {
+        final long base = maxMillis == minMillis ? minMillis : minMillis + random.nextLong(maxMillis - minMillis + 1);
+        return base + Math.round((double) millisPerMb * Math.max(size, 0) / MB);
+    }
+
+    protected static long millis(String amount, String unit) {
+        final double value = Double.parseDouble(amount);
+        switch (unit.toLowerCase(Locale.ROOT)) {
+            case "ms":
+                return Math.round(value);
+            case "s":
+                return Math.round(value * 1000);
+            case "m":
+                return Math.round(value * 60_000);
+            default:
+                return Math.round(value * 3_600_000);
+        }
+    }
+
+    public long getMinMillis() {
+        return minMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public long getMillisPerMb() {
+        return millisPerMb;
+    }
+}
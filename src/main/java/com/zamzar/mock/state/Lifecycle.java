@@ -0,0 +1,188 @@
+package com.zamzar.mock.state;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * How a resource (e.g. job 1) responds to each action in each of its states, and the state that each action leads to.
+ * <p>
+ * For example, polling a job returns {@code 1.initialising.json} and moves it to {@code JobConverting}, where polling
+ * returns {@code 1.converting.json} and moves it to {@code JobCompleted}, and so on.
+ * <p>
+ * A state can also end on its own once it has lasted long enough (see {@link #after}), so that a job is converting
+ * for as long as a conversion takes, however often it is polled.
+ */
+@JsonIgnoreType
+public class Lifecycle {
+
+    public static final String GET = "get";
+    public static final String CONTENT = "content";
+    public static final String DELETE = "delete";
+    public static final String DESTROY = "destroy";
+
+    // matches an action in any state that does not have a transition of its own for that action
+    public static final String ANY_STATE = "*";
+
+    protected final String resource;
+    protected final String id;
+
+    // action -> state -> transition
+    protected final Map<String, Map<String, Transition>> transitions = new HashMap<>();
+
+    // state -> the timer that ends it
+    protected final Map<String, Timer> timers = new HashMap<>();
+
+    public Lifecycle(String resource, String id) {
+        this.resource = resource;
+        this.id = id;
+    }
+
+    /**
+     * @param nextState the state to move to, or null to stay in the current state
+     */
+    public Lifecycle on(String action, String state, Outcome outcome, String nextState) {
+        transitions.computeIfAbsent(action, a -> new HashMap<>()).put(state, new Transition(outcome, nextState));
+        return this;
+    }
+
+    public Lifecycle on(String action, String state, Outcome outcome) {
+        return on(action, state, outcome, null);
+    }
+
+    /**
+     * Ends a state once it has lasted for a duration.
+     *
+     * @param duration the duration in milliseconds, given the id of the resource (which is useful when a lifecycle is
+     *                 shared by several resources); must always be the same for the same id
+     */
+    public Lifecycle after(String state, ToLongFunction<String> duration, String nextState) {
+        timers.put(state, new Timer(duration, nextState));
+        return this;
+    }
+
+    /**
+     * @param id  the id of the resource
+     * @param now the time, in milliseconds of the {@link VirtualClock}
+     * @return the state the resource is in at the time, after any states whose time has run out
+     */
+    public StateStore.State settle(String id, StateStore.State state, long now) {
+        Timer timer;
+        // bounded, in case timers form a loop
+        for (int i = 0; i <= timers.size() && (timer = timers.get(state.getName())) != null; i++) {
+            final long end = state.getSince() + timer.duration.applyAsLong(id);
+            if (end > now) {
+                break;
+            }
+            state = new StateStore.State(timer.nextState, end);
+        }
+        return state;
+    }
+
+    public Optional<Transition> find(String action, String state) {
+        final Map<String, Transition> byState = transitions.getOrDefault(action, Map.of());
+        return Optional.ofNullable(byState.getOrDefault(state, byState.get(ANY_STATE)));
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the name of the scenario that holds the state of this resource (unique across resources)
+     */
+    public String getScenario() {
+        return resource + "/" + id;
+    }
+
+    public static class Transition {
+        protected final Outcome outcome;
+        protected final String nextState;
+
+        protected Transition(Outcome outcome, String nextState) {
+            this.outcome = outcome;
+            this.nextState = nextState;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public String nextState(String currentState) {
+            return nextState == null ? currentState : nextState;
+        }
+    }
+
+    protected static class Timer {
+        protected final ToLongFunction<String> duration;
+        protected final String nextState;
+
+        protected Timer(ToLongFunction<String> duration, String nextState) {
+            this.duration = duration;
+            this.nextState = nextState;
+        }
+    }
+
+    public static class Outcome {
+        public enum Kind {
+            /**
+             * 200 with an example as the body
+             */
+            EXAMPLE,
+            /**
+             * 200 with the resource's content as the body
+             */
+            CONTENT,
+            /**
+             * 200 without a body
+             */
+            EMPTY,
+            /**
+             * 404
+             */
+            NOT_FOUND
+        }
+
+        protected final Kind kind;
+        protected final String example;
+
+        protected Outcome(Kind kind, String example) {
+            this.kind = kind;
+            this.example = example;
+        }
+
+        /**
+         * @param example the name of an example of the resource, e.g. {@code 1.initialising}
+         */
+        public static Outcome example(String example) {
+            return new Outcome(Kind.EXAMPLE, example);
+        }
+
+        public static Outcome content() {
+            return new Outcome(Kind.CONTENT, null);
+        }
+
+        public static Outcome empty() {
+            return new Outcome(Kind.EMPTY, null);
+        }
+
+        public static Outcome notFound() {
+            return new Outcome(Kind.NOT_FOUND, null);
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getExample() {
+            return example;
+        }
+    }
+}
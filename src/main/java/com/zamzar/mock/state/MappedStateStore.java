@@ -0,0 +1,381 @@
+package com.zamzar.mock.state;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps states in a memory-mapped file, so that several mocks (e.g. containers on one host, sharing a volume) serve
+ * the same data set: a job polled through one mock is in the same state when it is polled through another.
+ * <p>
+ * The file is a hash table of fixed-size slots, split into stripes. A scenario's slot is always in the same stripe,
+ * which is locked (by this mock's threads, and by other processes through a lock on its region of the file) while the
+ * scenario is read or moved, so mocks only contend when they touch the same stripe. The operating system shares the
+ * mapped pages between processes, so the file is never read or written through system calls other than the locks.
+ * <p>
+ * Each mock opens the file once. Mocks must be on the same host, or use a file system that keeps memory-mapped files
+ * coherent between hosts (network file systems generally don't).
+ */
+@JsonIgnoreType
+public class MappedStateStore implements StateStore, Closeable {
+
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    protected static final int MAGIC = 0x5a4d5353; // "ZMSS"
+    protected static final int VERSION = 1;
+    protected static final int HEADER_SIZE = 64;
+    // how far the virtual clock has been moved forward, in milliseconds
+    protected static final int CLOCK_OFFSET = 16;
+
+    // atomic access to longs in the file, which other processes see as they are written
+    protected static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    protected static final int STRIPES = 64;
+
+    // status, lengths, hash and time, followed by the tenant, scenario and state name (UTF-8)
+    protected static final int SLOT_SIZE = 256;
+    protected static final int STATUS = 0;
+    protected static final int TENANT_LENGTH = 2;
+    protected static final int SCENARIO_LENGTH = 4;
+    protected static final int NAME_LENGTH = 6;
+    protected static final int HASH = 8;
+    protected static final int SINCE = 16;
+    protected static final int DATA = 24;
+    protected static final int MAX_DATA = SLOT_SIZE - DATA;
+
+    protected static final byte EMPTY = 0;
+    protected static final byte USED = 1;
+    // a scenario that returned to its initial state; lookups carry on past it, and it can be reused
+    protected static final byte REMOVED = 2;
+
+    protected final FileChannel channel;
+    protected final MappedByteBuffer buffer;
+    protected final int slotsPerStripe;
+    protected final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    /**
+     * Opens the file, creating it if need be. A file that already exists keeps the capacity it was created with.
+     *
+     * @param capacity the number of scenarios the file can hold, across every tenant
+     */
+    public MappedStateStore(Path file, int capacity) {
+        if (capacity < STRIPES || (long) capacity * SLOT_SIZE > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IllegalArgumentException("Capacity must be between " + STRIPES + " and " + (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE + ": " + capacity);
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // mocks starting at the same time agree on who creates the file
+            final FileLock header = channel.lock(0, HEADER_SIZE, false);
+            try {
+                slotsPerStripe = channel.size() == 0 ? create(capacity) : open(file);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size(slotsPerStripe));
+            } finally {
+                header.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open state file " + file, e);
+        }
+    }
+
+    // writes the header of a new file, returning the number of slots in each stripe
+    protected int create(int capacity) throws IOException {
+        final int perStripe = (capacity + STRIPES - 1) / STRIPES;
+        final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, size(perStripe));
+        header.putInt(4, VERSION);
+        header.putInt(8, perStripe);
+        header.putInt(0, MAGIC);
+        return perStripe;
+    }
+
+    protected int open(Path file) throws IOException {
+        final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a state file");
+        }
+        final int perStripe = header.getInt(8);
+        if (channel.size() < size(perStripe)) {
+            throw new IOException(file + " is truncated");
+        }
+        return perStripe;
+    }
+
+    protected static long size(int slotsPerStripe) {
+        return HEADER_SIZE + (long) STRIPES * slotsPerStripe * SLOT_SIZE;
+    }
+
+    public int getCapacity() {
+        return STRIPES * slotsPerStripe;
+    }
+
+    @Override
+    public VirtualClock.Offset clockOffset() {
+        return new VirtualClock.Offset() {
+            @Override
+            public long get() {
+                return (long) LONGS.getVolatile(buffer, CLOCK_OFFSET);
+            }
+
+            @Override
+            public void add(long millis) {
+                LONGS.getAndAdd(buffer, CLOCK_OFFSET, millis);
+            }
+
+            @Override
+            public void set(long millis) {
+                LONGS.setVolatile(buffer, CLOCK_OFFSET, millis);
+            }
+        };
+    }
+
+    @Override
+    public State get(String tenant, String scenario) {
+        final Key key = new Key(tenant, scenario);
+        return locked(key.stripe(), () -> {
+            final int slot = find(key);
+            return slot < 0 ? State.INITIAL : read(slot);
+        });
+    }
+
+    @Override
+    public State transition(String tenant, String scenario, UnaryOperator<State> next) {
+        final Key key = new Key(tenant, scenario);
+        return locked(key.stripe(), () -> {
+            final int slot = find(key);
+            final State previous = slot < 0 ? State.INITIAL : read(slot);
+            final State updated = next.apply(previous);
+
+            if (updated == null || INITIAL_STATE.equals(updated.getName())) {
+                if (slot >= 0) {
+                    buffer.put(slot + STATUS, REMOVED);
+                }
+            } else {
+                write(slot >= 0 ? slot : free(key), key, updated);
+            }
+            return previous;
+        });
+    }
+
+    @Override
+    public void reset(String tenant) {
+        final byte[] name = tenant.getBytes(StandardCharsets.UTF_8);
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            final int first = slot(stripe, 0);
+            locked(stripe, () -> {
+                for (int i = 0; i < slotsPerStripe; i++) {
+                    final int slot = first + i * SLOT_SIZE;
+                    if (buffer.get(slot + STATUS) == USED && Arrays.equals(tenant(slot), name)) {
+                        buffer.put(slot + STATUS, REMOVED);
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public void resetAll() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            final int first = slot(stripe, 0);
+            locked(stripe, () -> {
+                for (int i = 0; i < slotsPerStripe; i++) {
+                    buffer.put(first + i * SLOT_SIZE + STATUS, EMPTY);
+                }
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public Set<String> tenants() {
+        final Set<String> tenants = new HashSet<>();
+        forEachUsed(slot -> tenants.add(new String(tenant(slot), StandardCharsets.UTF_8)));
+        return Collections.unmodifiableSet(tenants);
+    }
+
+    @Override
+    public Map<String, String> states(String tenant) {
+        final byte[] name = tenant.getBytes(StandardCharsets.UTF_8);
+        final Map<String, String> states = new TreeMap<>();
+        forEachUsed(slot -> {
+            if (Arrays.equals(tenant(slot), name)) {
+                states.put(string(slot, DATA + buffer.getShort(slot + TENANT_LENGTH), buffer.getShort(slot + SCENARIO_LENGTH)), read(slot).getName());
+            }
+        });
+        return states;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // the scenario's slot, or -1 if it is in its initial state
+    protected int find(Key key) {
+        final int first = slot(key.stripe(), 0);
+        for (int i = 0; i < slotsPerStripe; i++) {
+            final int slot = first + ((key.home(slotsPerStripe) + i) % slotsPerStripe) * SLOT_SIZE;
+            final byte status = buffer.get(slot + STATUS);
+            if (status == EMPTY) {
+                return -1;
+            }
+            if (status == USED && buffer.getInt(slot + HASH) == key.hash && matches(slot, key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // a slot for a scenario that is not in the file yet
+    protected int free(Key key) {
+        final int first = slot(key.stripe(), 0);
+        for (int i = 0; i < slotsPerStripe; i++) {
+            final int slot = first + ((key.home(slotsPerStripe) + i) % slotsPerStripe) * SLOT_SIZE;
+            if (buffer.get(slot + STATUS) != USED) {
+                return slot;
+            }
+        }
+        throw new IllegalStateException("The state file is full; raise its capacity (the file must then be recreated)");
+    }
+
+    protected boolean matches(int slot, Key key) {
+        return buffer.getShort(slot + TENANT_LENGTH) == key.tenant.length
+            && buffer.getShort(slot + SCENARIO_LENGTH) == key.scenario.length
+            && Arrays.equals(tenant(slot), key.tenant)
+            && Arrays.equals(bytes(slot, DATA + key.tenant.length, key.scenario.length), key.scenario);
+    }
+
+    protected State read(int slot) {
+        final int offset = DATA + buffer.getShort(slot + TENANT_LENGTH) + buffer.getShort(slot + SCENARIO_LENGTH);
+        return new State(string(slot, offset, buffer.getShort(slot + NAME_LENGTH)), buffer.getLong(slot + SINCE));
+    }
+
+    protected void write(int slot, Key key, State state) {
+        final byte[] name = state.getName().getBytes(StandardCharsets.UTF_8);
+        if (key.tenant.length + key.scenario.length + name.length > MAX_DATA) {
+            throw new IllegalArgumentException("Tenant, scenario and state must fit in " + MAX_DATA + " bytes: " + key + " " + state);
+        }
+
+        // the slot is only marked as used once the rest of it is written, so a crash never leaves half a slot behind
+        if (buffer.get(slot + STATUS) == USED) {
+            buffer.put(slot + STATUS, REMOVED);
+        }
+        buffer.putShort(slot + TENANT_LENGTH, (short) key.tenant.length);
+        buffer.putShort(slot + SCENARIO_LENGTH, (short) key.scenario.length);
+        buffer.putShort(slot + NAME_LENGTH, (short) name.length);
+        buffer.putInt(slot + HASH, key.hash);
+        buffer.putLong(slot + SINCE, state.getSince());
+        buffer.put(slot + DATA, key.tenant);
+        buffer.put(slot + DATA + key.tenant.length, key.scenario);
+        buffer.put(slot + DATA + key.tenant.length + key.scenario.length, name);
+        buffer.put(slot + STATUS, USED);
+    }
+
+    protected byte[] tenant(int slot) {
+        return bytes(slot, DATA, buffer.getShort(slot + TENANT_LENGTH));
+    }
+
+    protected byte[] bytes(int slot, int offset, int length) {
+        final byte[] bytes = new byte[length];
+        buffer.get(slot + offset, bytes);
+        return bytes;
+    }
+
+    protected String string(int slot, int offset, int length) {
+        return new String(bytes(slot, offset, length), StandardCharsets.UTF_8);
+    }
+
+    protected void forEachUsed(IntConsumer action) {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            final int first = slot(stripe, 0);
+            locked(stripe, () -> {
+                for (int i = 0; i < slotsPerStripe; i++) {
+                    final int slot = first + i * SLOT_SIZE;
+                    if (buffer.get(slot + STATUS) == USED) {
+                        action.accept(slot);
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    // the offset of a slot in the file
+    protected int slot(int stripe, int index) {
+        return HEADER_SIZE + (stripe * slotsPerStripe + index) * SLOT_SIZE;
+    }
+
+    /**
+     * Runs the action while holding the stripe's lock: first against this mock's other threads, and then against
+     * other processes (which Java only allows one thread of a process to hold on a region at a time)
+     */
+    protected <T> T locked(int stripe, Supplier<T> action) {
+        final ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            final FileLock region = channel.lock(slot(stripe, 0), (long) slotsPerStripe * SLOT_SIZE, false);
+            try {
+                return action.get();
+            } finally {
+                region.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not lock state file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A tenant and scenario, as they are written to the file
+    protected static class Key {
+        protected final byte[] tenant;
+        protected final byte[] scenario;
+        // the same in every process, as String.hashCode is specified
+        protected final int hash;
+
+        protected Key(String tenant, String scenario) {
+            this.tenant = tenant.getBytes(StandardCharsets.UTF_8);
+            this.scenario = scenario.getBytes(StandardCharsets.UTF_8);
+            final int h = 31 * tenant.hashCode() + scenario.hashCode();
+            // spread the bits, as ids that differ by one would otherwise fill neighbouring slots of one stripe
+            this.hash = h ^ (h >>> 16) ^ (h * 0x9E3779B9);
+        }
+
+        protected int stripe() {
+            return Math.floorMod(hash, STRIPES);
+        }
+
+        protected int home(int slotsPerStripe) {
+            return Math.floorMod(hash >>> 6, slotsPerStripe);
+        }
+
+        @Override
+        public String toString() {
+            return new String(tenant, StandardCharsets.UTF_8) + "/" + new String(scenario, StandardCharsets.UTF_8);
+        }
+    }
+}
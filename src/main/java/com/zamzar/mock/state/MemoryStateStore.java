@@ -0,0 +1,63 @@
+package com.zamzar.mock.state;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps states in this mock's memory.
+ * <p>
+ * Each tenant has a map of its own, so tenants never contend with each other and a tenant can be reset without
+ * affecting anyone else.
+ */
+@JsonIgnoreType
+public class MemoryStateStore implements StateStore {
+
+    // tenant -> scenario -> state; scenarios in their initial state are not stored
+    protected final ConcurrentMap<String, ConcurrentMap<String, State>> tenants = new ConcurrentHashMap<>();
+
+    @Override
+    public State get(String tenant, String scenario) {
+        final Map<String, State> states = tenants.get(tenant);
+        return states == null ? State.INITIAL : states.getOrDefault(scenario, State.INITIAL);
+    }
+
+    @Override
+    public State transition(String tenant, String scenario, UnaryOperator<State> next) {
+        final State[] previous = new State[1];
+        tenants.computeIfAbsent(tenant, t -> new ConcurrentHashMap<>()).compute(scenario, (s, current) -> {
+            previous[0] = current == null ? State.INITIAL : current;
+            final State updated = next.apply(previous[0]);
+            return updated == null || INITIAL_STATE.equals(updated.getName()) ? null : updated;
+        });
+        return previous[0];
+    }
+
+    @Override
+    public void reset(String tenant) {
+        tenants.remove(tenant);
+    }
+
+    @Override
+    public void resetAll() {
+        tenants.clear();
+    }
+
+    @Override
+    public Set<String> tenants() {
+        return Collections.unmodifiableSet(tenants.keySet());
+    }
+
+    @Override
+    public Map<String, String> states(String tenant) {
+        return tenants.getOrDefault(tenant, new ConcurrentHashMap<>()).entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getName(), (a, b) -> a, TreeMap::new));
+    }
+}
@@ -0,0 +1,115 @@
+package com.zamzar.mock.state;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * The state of each scenario (e.g. the lifecycle of job 1), kept separately for each tenant. Scenarios are updated
+ * atomically, one key at a time.
+ * <p>
+ * States are kept in memory ({@link MemoryStateStore}), or in a file that several mocks share
+ * ({@link MappedStateStore}), so that each of them sees the same jobs, imports and files in the same states.
+ */
+// Passed to transformers as a parameter, which Wiremock would otherwise try to serialize
+@JsonIgnoreType
+public interface StateStore {
+
+    String INITIAL_STATE = Scenario.STARTED;
+
+    default String state(String tenant, String scenario) {
+        return get(tenant, scenario).getName();
+    }
+
+    State get(String tenant, String scenario);
+
+    /**
+     * Atomically moves a scenario to the state computed from its current state. The time the scenario entered its
+     * state is kept as it was.
+     *
+     * @return the state the scenario was in before it moved
+     */
+    default String advance(String tenant, String scenario, UnaryOperator<String> next) {
+        return transition(tenant, scenario, current -> {
+            final String updated = next.apply(current.getName());
+            return updated == null ? null : new State(updated, current.getSince());
+        }).getName();
+    }
+
+    /**
+     * Atomically moves a scenario to the state computed from its current state (and the time it entered that state).
+     * Scenarios moved to {@link #INITIAL_STATE} (or null) are forgotten.
+     *
+     * @return the state the scenario was in before it moved
+     */
+    State transition(String tenant, String scenario, UnaryOperator<State> next);
+
+    void reset(String tenant);
+
+    void resetAll();
+
+    Set<String> tenants();
+
+    /**
+     * @return the scenarios of the tenant that have left their initial state, sorted by name
+     */
+    Map<String, String> states(String tenant);
+
+    /**
+     * @return how far the {@link VirtualClock} has been moved forward, kept wherever the states are, so that every mock
+     * sharing this store agrees on the time
+     */
+    default VirtualClock.Offset clockOffset() {
+        return new VirtualClock.MemoryOffset();
+    }
+
+    /**
+     * A named state, and when (in milliseconds of the {@link VirtualClock}) the scenario entered it
+     */
+    class State {
+        public static final State INITIAL = new State(INITIAL_STATE, 0);
+
+        protected final String name;
+        protected final long since;
+
+        public State(String name, long since) {
+            this.name = name;
+            this.since = since;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSince() {
+            return since;
+        }
+
+        @Override
+        public String toString() {
+            return name + "@" + since;
+        }
+    }
+
+    /**
+     * Where states are kept
+     */
+    enum Kind {
+        /**
+         * In this mock's memory
+         */
+        MEMORY,
+        /**
+         * In a memory-mapped file, which mocks on the same host (e.g. containers sharing a volume) can share
+         */
+        MAPPED;
+
+        public static Kind of(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.zamzar.mock.state;
+
+import com.github.tomakehurst.wiremock.http.Request;
+
+/**
+ * Identifies the tenant a request belongs to, so that test suites sharing a mock do not see each other's state.
+ */
+public class Tenants {
+
+    /**
+     * Requests that set this header belong to the tenant it names, e.g. {@code X-Mock-Tenant: ci-build-1234}
+     */
+    public static final String HEADER = "X-Mock-Tenant";
+
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * @return the tenant named by the request's {@link #HEADER}, or else its API key (or {@link #DEFAULT_TENANT})
+     */
+    public static String of(Request request) {
+        final String tenant = request.getHeader(HEADER);
+        if (tenant != null && !tenant.isBlank()) {
+            return tenant.trim();
+        }
+
+        final String authorization = request.getHeader("Authorization");
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring("Bearer ".length()).trim();
+        }
+
+        return DEFAULT_TENANT;
+    }
+}
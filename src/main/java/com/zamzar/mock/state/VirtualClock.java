@@ -0,0 +1,100 @@
+package com.zamzar.mock.state;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The time according to the mock: real time, plus however far the clock has been moved forward (e.g. through
+ * {@code POST /__admin/clock/advance}).
+ * <p>
+ * Resources that move through their lifecycle over time work out their state from this clock whenever they are
+ * requested, so moving it forward completes any number of jobs at once, without visiting each of them.
+ * <p>
+ * Mocks that share their states share how far the clock has been moved too (see {@link StateStore#clockOffset()}), so
+ * that a job is in the same state whichever mock it is polled through.
+ */
+@JsonIgnoreType
+public class VirtualClock {
+
+    protected final LongSupplier realMillis;
+
+    protected final Offset offset;
+
+    public VirtualClock() {
+        this(System::currentTimeMillis);
+    }
+
+    public VirtualClock(LongSupplier realMillis) {
+        this(realMillis, new MemoryOffset());
+    }
+
+    public VirtualClock(LongSupplier realMillis, Offset offset) {
+        this.realMillis = realMillis;
+        this.offset = offset;
+    }
+
+    public long millis() {
+        return realMillis.getAsLong() + offset.get();
+    }
+
+    public Instant now() {
+        return Instant.ofEpochMilli(millis());
+    }
+
+    /**
+     * Moves the clock forward. The clock never goes back (except when it is reset), so that resources never return
+     * to an earlier state.
+     */
+    public void advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("The clock cannot go back: " + duration);
+        }
+        offset.add(duration.toMillis());
+    }
+
+    /**
+     * Brings the clock back to real time
+     */
+    public void reset() {
+        offset.set(0);
+    }
+
+    public Duration getOffset() {
+        return Duration.ofMillis(offset.get());
+    }
+
+    /**
+     * How far a clock has been moved forward, in milliseconds
+     */
+    public interface Offset {
+        long get();
+
+        void add(long millis);
+
+        void set(long millis);
+    }
+
+    // The offset of a clock that no other mock shares
+    protected static class MemoryOffset implements Offset {
+        protected final AtomicLong millis = new AtomicLong();
+
+        @Override
+        public long get() {
+            return millis.get();
+        }
+
+        @Override
+        public void add(long millis) {
+            this.millis.addAndGet(millis);
+        }
+
+        @Override
+        public void set(long millis) {
+            this.millis.set(millis);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.zamzar.mock.synthetic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A weighted choice between values, e.g. {@code successful=70,failed=10,converting=20}.
+ */
+public class Distribution {
+
+    protected final List<String> values;
+    protected final long[] cumulativeWeights;
+
+    public Distribution(List<String> values, List<Long> weights) {
+        if (values.isEmpty() || values.size() != weights.size()) {
+            throw new IllegalArgumentException("A distribution needs a weight for each of at least one value");
+        }
+
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        this.cumulativeWeights = new long[weights.size()];
+        long total = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            if (weights.get(i) < 0) {
+                throw new IllegalArgumentException("Weights must not be negative: " + values.get(i) + "=" + weights.get(i));
+            }
+            total += weights.get(i);
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+    }
+
+    /**
+     * @param spec comma-separated {@code value=weight} pairs; a value without a weight has a weight of 1
+     */
+    public static Distribution parse(String spec) {
+        final List<String> values = new ArrayList<>();
+        final List<Long> weights = new ArrayList<>();
+        for (String pair : spec.split(",")) {
+            final String trimmed = pair.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            final int equals = trimmed.indexOf('=');
+            try {
+                values.add(equals < 0 ? trimmed : trimmed.substring(0, equals).trim());
+                weights.add(equals < 0 ? 1L : Long.parseLong(trimmed.substring(equals + 1).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed distribution: " + spec, e);
+            }
+        }
+        return new Distribution(values, weights);
+    }
+
+    public String pick(SplittableRandom random) {
+        final long r = random.nextLong(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return values.get(i);
+            }
+        }
+        throw new IllegalStateException(); // unreachable: r is less than the total weight
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,56 @@
+package com.zamzar.mock.synthetic;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zamzar.mock.content.SyntheticContent;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class SyntheticFiles extends SyntheticResource {
+
+    protected static final long MIN_SIZE = 1024;
+    protected static final long MAX_SIZE = 100L * 1024 * 1024;
+
+    protected static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    protected final String key;
+    protected final List<String> formats;
+
+    public SyntheticFiles(long firstId, int count, long seed, String key, List<String> formats) {
+        super("files", firstId, count, seed);
+        if (formats.isEmpty()) {
+            throw new IllegalArgumentException("At least one format is needed to generate files");
+        }
+        this.key = key;
+        this.formats = formats;
+    }
+
+    @Override
+    protected ObjectNode generate(long id, SplittableRandom random) {
+        final String format = formats.get(random.nextInt(formats.size()));
+
+        final ObjectNode file = MAPPER.createObjectNode();
+        file.put("id", id);
+        file.put("key", key);
+        file.put("name", "file-" + id + "." + format);
+        file.put("size", size(random));
+        file.put("format", format);
+        file.put("created_at", EPOCH.plusSeconds((id - firstId) * 60).toString());
+        return file;
+    }
+
+    /**
+     * @return content of the size given by the file's metadata
+     */
+    public SyntheticContent content(long id) {
+        return new SyntheticContent(generate(id).get("size").asLong(), SyntheticContent.Pattern.RANDOM, seed ^ id);
+    }
+
+    // log-uniform, so that small files are as common as large ones (in terms of orders of magnitude)
+    protected static long size(SplittableRandom random) {
+        final double logMin = Math.log(MIN_SIZE);
+        final double logMax = Math.log(MAX_SIZE);
+        return (long) Math.exp(logMin + random.nextDouble() * (logMax - logMin));
+    }
+}
@@ -0,0 +1,70 @@
+package com.zamzar.mock.synthetic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class SyntheticImports extends SyntheticResource {
+
+    public static final String DEFAULT_STATUSES = "successful=80,failed=10,downloading=5,initialising=5";
+
+    protected final String key;
+    protected final SyntheticFiles files;
+    protected final List<String> formats;
+    protected final Distribution statuses;
+
+    /**
+     * @param files the files that imports create, or null if files are not being generated
+     */
+    public SyntheticImports(long firstId, int count, long seed, String key, SyntheticFiles files, List<String> formats, Distribution statuses) {
+        super("imports", firstId, count, seed);
+        if (formats.isEmpty()) {
+            throw new IllegalArgumentException("At least one format is needed to generate imports");
+        }
+        this.key = key;
+        this.files = files == null || files.getCount() == 0 ? null : files;
+        this.formats = formats;
+        this.statuses = statuses;
+    }
+
+    @Override
+    protected ObjectNode generate(long id, SplittableRandom random) {
+        final ObjectNode file = importedFile(id, random);
+        final String status = statuses.pick(random);
+
+        final ObjectNode imported = MAPPER.createObjectNode();
+        imported.put("id", id);
+        imported.put("key", key);
+        imported.put("url", "https://www.example.com/" + file.get("name").asText());
+        imported.put("status", status);
+
+        if ("successful".equals(status)) {
+            imported.set("file", file);
+        } else if ("failed".equals(status)) {
+            final ObjectNode failure = imported.putObject("failure");
+            failure.put("code", 7);
+            failure.put("message", "The size of the imported file exceeds the maximum file size cap for the current plan.");
+        }
+        return imported;
+    }
+
+    protected ObjectNode importedFile(long id, SplittableRandom random) {
+        final ObjectNode file = MAPPER.createObjectNode();
+        if (files != null) {
+            final JsonNode generated = files.generate(files.getFirstId() + random.nextInt(files.getCount()));
+            file.put("id", generated.get("id").asLong());
+            file.put("name", generated.get("name").asText());
+            file.put("size", generated.get("size").asLong());
+            file.put("format", generated.get("format").asText());
+        } else {
+            final String format = formats.get(random.nextInt(formats.size()));
+            file.put("id", id);
+            file.put("name", "import-" + id + "." + format);
+            file.put("size", SyntheticFiles.size(random));
+            file.put("format", format);
+        }
+        return file;
+    }
+}
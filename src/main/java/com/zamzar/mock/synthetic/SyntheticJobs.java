@@ -0,0 +1,107 @@
+package com.zamzar.mock.synthetic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class SyntheticJobs extends SyntheticResource {
+
+    public static final String DEFAULT_STATUSES = "successful=70,failed=10,converting=10,initialising=5,cancelled=5";
+
+    protected final SyntheticFiles files;
+    protected final Map<String, List<String>> conversions;
+    protected final List<String> sourceFormats;
+    protected final Distribution statuses;
+    protected final int maxTargetFiles;
+
+    /**
+     * @param files       the files that jobs convert, or null if files are not being generated
+     * @param conversions source format -> target formats; every source format must have at least one target
+     */
+    public SyntheticJobs(long firstId, int count, long seed, SyntheticFiles files, Map<String, List<String>> conversions, Distribution statuses, int maxTargetFiles) {
+        super("jobs", firstId, count, seed);
+        if (conversions.isEmpty()) {
+            throw new IllegalArgumentException("At least one conversion is needed to generate jobs");
+        }
+        this.files = files == null || files.getCount() == 0 ? null : files;
+        this.conversions = conversions;
+        this.sourceFormats = new ArrayList<>(conversions.keySet());
+        this.statuses = statuses;
+        this.maxTargetFiles = Math.max(1, maxTargetFiles);
+    }
+
+    @Override
+    protected ObjectNode generate(long id, SplittableRandom random) {
+        final ObjectNode sourceFile = sourceFile(id, random);
+        final String sourceFormat = sourceFile.remove("format").asText();
+        final List<String> targets = conversions.get(sourceFormat);
+        final String targetFormat = targets.get(random.nextInt(targets.size()));
+        final String status = statuses.pick(random);
+
+        final ObjectNode job = MAPPER.createObjectNode();
+        job.put("id", id);
+        job.put("status", status);
+        job.put("target_format", targetFormat);
+        job.set("source_file", sourceFile);
+        job.put("credit_cost", 1);
+
+        if ("failed".equals(status)) {
+            final ObjectNode failure = job.putObject("failure");
+            failure.put("code", 2);
+            failure.put("message", "The source file was too small to convert.");
+        } else {
+            final ArrayNode targetFiles = job.putArray("target_files");
+            if ("successful".equals(status)) {
+                final String baseName = "file-" + sourceFile.get("id").asLong();
+                final int targetFileCount = targetFileCount(random);
+                for (int i = 0; i < targetFileCount; i++) {
+                    final ObjectNode targetFile = targetFiles.addObject();
+                    targetFile.put("id", targetFileId(id, i, random));
+                    targetFile.put("name", targetFileCount == 1 ? baseName + "." + targetFormat : baseName + "-" + i + "." + targetFormat);
+                    targetFile.put("size", SyntheticFiles.size(random));
+                }
+            }
+        }
+        return job;
+    }
+
+    // A source file that exists (when files are generated), or one made up for the job otherwise
+    protected ObjectNode sourceFile(long id, SplittableRandom random) {
+        final ObjectNode sourceFile = MAPPER.createObjectNode();
+        if (files != null) {
+            final JsonNode file = files.generate(files.getFirstId() + random.nextInt(files.getCount()));
+            if (conversions.containsKey(file.get("format").asText())) {
+                sourceFile.put("id", file.get("id").asLong());
+                sourceFile.put("name", file.get("name").asText());
+                sourceFile.put("size", file.get("size").asLong());
+                sourceFile.put("format", file.get("format").asText());
+                return sourceFile;
+            }
+        }
+
+        final String format = sourceFormats.get(random.nextInt(sourceFormats.size()));
+        sourceFile.put("id", id);
+        sourceFile.put("name", "file-" + id + "." + format);
+        sourceFile.put("size", SyntheticFiles.size(random));
+        sourceFile.put("format", format);
+        return sourceFile;
+    }
+
+    // Most conversions produce a single file; some produce several (e.g. one image per page)
+    protected int targetFileCount(SplittableRandom random) {
+        int targetFileCount = 1;
+        while (targetFileCount < maxTargetFiles && random.nextInt(4) == 0) {
+            targetFileCount++;
+        }
+        return targetFileCount;
+    }
+
+    protected long targetFileId(long id, int index, SplittableRandom random) {
+        return files != null ? files.getFirstId() + random.nextInt(files.getCount()) : id * maxTargetFiles + index;
+    }
+}
@@ -0,0 +1,95 @@
+package com.zamzar.mock.synthetic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.zamzar.mock.pagination.GeneratedList;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The (filtered) items of a {@link SyntheticResource} together with the items of its examples, in id order.
+ * <p>
+ * In descending order, generated items come before examples; in ascending order, they come after them.
+ */
+public class SyntheticList extends AbstractList<JsonNode> implements RandomAccess, GeneratedList {
+
+    protected static final String ID_FIELD_NAME = "id";
+
+    protected final SyntheticResource resource;
+    protected final int[] selection;
+    protected final List<JsonNode> examples;
+    protected final boolean isAscending;
+
+    protected SyntheticList(SyntheticResource resource, int[] selection, List<JsonNode> examples, boolean isAscending) {
+        this.resource = resource;
+        this.selection = selection;
+        this.examples = examples;
+        this.isAscending = isAscending;
+    }
+
+    @Override
+    public JsonNode get(int index) {
+        Objects.checkIndex(index, size());
+        if (isAscending) {
+            return index < examples.size() ? examples.get(index) : resource.generate(idAt(index - examples.size()));
+        } else {
+            return index < generatedSize() ? resource.generate(idAt(generatedSize() - 1 - index)) : examples.get(index - generatedSize());
+        }
+    }
+
+    @Override
+    public int size() {
+        return generatedSize() + examples.size();
+    }
+
+    @Override
+    public int positionOf(String idFieldName, String id) {
+        final int generated = generatedPositionOf(idFieldName, id);
+        if (generated >= 0) {
+            return isAscending ? examples.size() + generated : generatedSize() - 1 - generated;
+        }
+
+        for (int i = 0; i < examples.size(); i++) {
+            final JsonNode exampleId = examples.get(i).get(idFieldName);
+            if (exampleId != null && exampleId.asText().equals(id)) {
+                return isAscending ? i : generatedSize() + i;
+            }
+        }
+        return -1;
+    }
+
+    // the position of the id among the generated items, in ascending order
+    protected int generatedPositionOf(String idFieldName, String id) {
+        if (!ID_FIELD_NAME.equals(idFieldName)) {
+            return -1;
+        }
+
+        final long parsed;
+        try {
+            parsed = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (!resource.contains(parsed)) {
+            return -1;
+        }
+
+        final int offset = (int) (parsed - resource.getFirstId());
+        return isEverything() ? offset : Math.max(Arrays.binarySearch(selection, offset), -1);
+    }
+
+    protected long idAt(int generatedIndex) {
+        return resource.getFirstId() + (isEverything() ? generatedIndex : selection[generatedIndex]);
+    }
+
+    protected int generatedSize() {
+        return isEverything() ? resource.getCount() : selection.length;
+    }
+
+    protected boolean isEverything() {
+        return selection == SyntheticResource.EVERYTHING;
+    }
+}
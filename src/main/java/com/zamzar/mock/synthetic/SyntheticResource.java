@@ -0,0 +1,91 @@
+package com.zamzar.mock.synthetic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * A resource (e.g. "jobs") made up of {@code count} items with consecutive ids, starting at {@code firstId}.
+ * <p>
+ * Each item is a pure function of the seed and its id, so items are generated when they are requested rather than
+ * held in memory: a data set of millions of items costs next to nothing until it is paged through.
+ */
+public abstract class SyntheticResource {
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // marks a selection that includes every item, without storing an offset per item
+    protected static final int[] EVERYTHING = new int[0];
+
+    protected final String name;
+    protected final long firstId;
+    protected final int count;
+    protected final long seed;
+
+    // filter -> offsets of the items that match it, in ascending order; filters are compared by identity
+    protected final Map<Predicate<JsonNode>, int[]> selections = new ConcurrentHashMap<>();
+
+    protected SyntheticResource(String name, long firstId, int count, long seed) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        this.name = name;
+        this.firstId = firstId;
+        this.count = count;
+        this.seed = seed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getFirstId() {
+        return firstId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean contains(long id) {
+        return id >= firstId && id - firstId < count;
+    }
+
+    public Optional<JsonNode> get(long id) {
+        return contains(id) ? Optional.of(generate(id)) : Optional.empty();
+    }
+
+    public ObjectNode generate(long id) {
+        // mixing the id into the seed (rather than, say, adding it) keeps the items of neighbouring ids uncorrelated
+        return generate(id, new SplittableRandom(seed ^ (id * 0x9E3779B97F4A7C15L)));
+    }
+
+    protected abstract ObjectNode generate(long id, SplittableRandom random);
+
+    /**
+     * Combines the generated items with the items read from examples, as a list endpoint would return them. Generated
+     * ids are expected to be greater than those of the examples, so they come first in descending order.
+     */
+    public SyntheticList list(List<JsonNode> examples, boolean isAscending, Predicate<JsonNode> filter) {
+        return new SyntheticList(this, select(filter), examples, isAscending);
+    }
+
+    // Working out which items match a filter means generating all of them, so it is only done once per filter
+    protected int[] select(Predicate<JsonNode> filter) {
+        return selections.computeIfAbsent(filter, f -> {
+            final int[] selected = IntStream.range(0, count)
+                .parallel()
+                .filter(offset -> f.test(generate(firstId + offset)))
+                .toArray();
+            return selected.length == count ? EVERYTHING : selected;
+        });
+    }
+}
@@ -0,0 +1,315 @@
+package com.zamzar.mock.uploads;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Reads the parts of a {@code multipart/form-data} body (RFC 7578) one at a time, as they arrive. Each part's body is a
+ * stream of its own, so a part of any size is read through a fixed buffer rather than held in memory.
+ */
+public class MultipartStream {
+
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    protected static final byte[] CRLF = {'\r', '\n'};
+    protected static final byte[] HEADERS_END = {'\r', '\n', '\r', '\n'};
+
+    protected final InputStream in;
+
+    // "\r\n--" followed by the boundary; the first delimiter has no leading CRLF, unless there is a preamble
+    protected final byte[] delimiter;
+
+    protected final byte[] buffer = new byte[BUFFER_SIZE];
+    protected int position;
+    protected int limit;
+    protected boolean exhausted;
+
+    protected boolean started;
+    protected boolean finished;
+    protected Part current;
+
+    public MultipartStream(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        if (delimiter.length > BUFFER_SIZE / 2) {
+            throw new IllegalArgumentException("Boundary is too long");
+        }
+    }
+
+    /**
+     * @return the boundary given by a {@code Content-Type} header, if it is {@code multipart/form-data}
+     */
+    public static Optional<String> boundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(parameters(contentType).get("boundary")).filter(b -> !b.isEmpty());
+    }
+
+    /**
+     * Moves on to the next part, skipping whatever is left of the current one.
+     *
+     * @return the next part, or null once the closing delimiter has been read
+     */
+    public Part next() throws IOException {
+        if (current != null) {
+            current.getBody().skip(Long.MAX_VALUE);
+            current = null;
+        } else if (!started) {
+            skipPreamble();
+        }
+        started = true;
+        if (finished) {
+            return null;
+        }
+
+        // the delimiter is followed by "--" if it closes the body, or by CRLF and the part's headers
+        fill(2);
+        if (limit - position >= 2 && buffer[position] == '-' && buffer[position + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        final int headersEnd = find(CRLF, position);
+        if (headersEnd < 0) {
+            throw new IOException("Malformed multipart body: no line break after delimiter");
+        }
+        position = headersEnd + CRLF.length;
+
+        current = new Part(readHeaders(), new PartInputStream());
+        return current;
+    }
+
+    protected void skipPreamble() throws IOException {
+        // the body usually starts with the delimiter itself, without the CRLF before it
+        final int length = delimiter.length - CRLF.length;
+        fill(length);
+        if (limit - position >= length && matches(delimiter, CRLF.length, position, length)) {
+            position += length;
+            return;
+        }
+
+        int found;
+        while ((found = find(delimiter, position)) < 0) {
+            if (exhausted) {
+                throw new IOException("Malformed multipart body: no delimiter");
+            }
+            position = Math.max(position, limit - delimiter.length + 1);
+            fill(delimiter.length);
+        }
+        position = found + delimiter.length;
+    }
+
+    protected Map<String, String> readHeaders() throws IOException {
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        fill(CRLF.length);
+        if (limit - position >= CRLF.length && matches(CRLF, 0, position, CRLF.length)) {
+            position += CRLF.length; // a part without headers
+            return headers;
+        }
+
+        // headers must fit in the buffer, which is far larger than any real part's headers
+        int end;
+        while ((end = find(HEADERS_END, position)) < 0) {
+            if (exhausted || limit - position == buffer.length) {
+                throw new IOException("Malformed multipart body: headers are too long or incomplete");
+            }
+            fill(limit - position + 1);
+        }
+
+        final String block = new String(buffer, position, end - position, StandardCharsets.UTF_8);
+        position = end + HEADERS_END.length;
+        for (String line : block.split("\r\n")) {
+            final int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Reads until at least {@code needed} bytes are buffered, or the stream is exhausted
+     */
+    protected void fill(int needed) throws IOException {
+        if (limit - position >= needed) {
+            return;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        while (!exhausted && limit < needed) {
+            final int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                exhausted = true;
+            } else {
+                limit += read;
+            }
+        }
+    }
+
+    // the index of the first occurrence of the bytes in the buffer, from the given index on, or -1
+    protected int find(byte[] bytes, int from) {
+        return find(bytes, from, limit);
+    }
+
+    // as above, for occurrences that end before the given index
+    protected int find(byte[] bytes, int from, int to) {
+        final int last = to - bytes.length;
+        for (int i = from; i <= last; i++) {
+            if (buffer[i] == bytes[0] && matches(bytes, 0, i, bytes.length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    protected boolean matches(byte[] bytes, int offset, int at, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer[at + i] != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // e.g. {"name": "content", "filename": "a.mp3"} for: form-data; name="content"; filename="a.mp3"
+    protected static Map<String, String> parameters(String header) {
+        final Map<String, String> parameters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int i = header.indexOf(';');
+        while (i >= 0 && i < header.length()) {
+            final int equals = header.indexOf('=', i + 1);
+            if (equals < 0) {
+                break;
+            }
+            final String name = header.substring(i + 1, equals).trim();
+
+            final StringBuilder value = new StringBuilder();
+            int j = equals + 1;
+            while (j < header.length() && header.charAt(j) == ' ') {
+                j++;
+            }
+            if (j < header.length() && header.charAt(j) == '"') {
+                for (j++; j < header.length() && header.charAt(j) != '"'; j++) {
+                    if (header.charAt(j) == '\\' && j + 1 < header.length()) {
+                        j++;
+                    }
+                    value.append(header.charAt(j));
+                }
+                j = header.indexOf(';', j);
+            } else {
+                final int end = header.indexOf(';', j);
+                value.append(header, j, end < 0 ? header.length() : end);
+                j = end;
+            }
+
+            parameters.put(name, value.toString().trim());
+            i = j;
+        }
+        return parameters;
+    }
+
+    /**
+     * A part of the body, whose body can be read (once) until the next part is requested
+     */
+    public static class Part {
+        protected final Map<String, String> headers;
+        protected final InputStream body;
+
+        protected Part(Map<String, String> headers, InputStream body) {
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /**
+         * @return the headers of the part, whose names are case-insensitive
+         */
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public String getName() {
+            return disposition().get("name");
+        }
+
+        /**
+         * @return the name of the uploaded file, or null if the part is not a file
+         */
+        public String getFilename() {
+            return disposition().get("filename");
+        }
+
+        public InputStream getBody() {
+            return body;
+        }
+
+        protected Map<String, String> disposition() {
+            final String disposition = headers.get("Content-Disposition");
+            return disposition == null ? Map.of() : parameters(disposition);
+        }
+    }
+
+    // The body of the current part, which ends where the next delimiter starts
+    protected class PartInputStream extends InputStream {
+        protected boolean ended;
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            final int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (ended) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+
+            fill(delimiter.length);
+            // only as far as the bytes that could be read, so that small reads do not scan the whole buffer each time
+            final int end = Math.min(limit, position + len + delimiter.length - 1);
+            final int found = find(delimiter, position, end);
+            final int available;
+            if (found >= 0) {
+                available = found - position;
+            } else if (exhausted && end == limit) {
+                throw new IOException("Malformed multipart body: part is not closed by a delimiter");
+            } else {
+                // the last bytes could be the start of a delimiter, so they wait for more to arrive
+                available = end - position - delimiter.length + 1;
+            }
+
+            if (available == 0) {
+                ended = true;
+                position = found + delimiter.length;
+                return -1;
+            }
+
+            final int count = Math.min(len, available);
+            System.arraycopy(buffer, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final byte[] discard = new byte[8192];
+            long skipped = 0;
+            int read;
+            while (skipped < n && (read = read(discard, 0, (int) Math.min(discard.length, n - skipped))) > 0) {
+                skipped += read;
+            }
+            return skipped;
+        }
+    }
+}
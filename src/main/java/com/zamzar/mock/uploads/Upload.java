@@ -0,0 +1,38 @@
+package com.zamzar.mock.uploads;
+
+import com.zamzar.mock.content.FileContent;
+
+import java.nio.file.Path;
+
+/**
+ * A file uploaded through the API, stored on disk. Its entity tag is its checksum, so it is the same for the same bytes
+ * however often they are uploaded.
+ */
+public class Upload extends FileContent {
+
+    protected final String filename;
+    protected final String checksum;
+
+    /**
+     * @param filename as given by the client, e.g. "portrait.gif"
+     * @param checksum the SHA-256 digest of the content, in hex
+     */
+    public Upload(Path path, Transfer transfer, String filename, String checksum) {
+        super(path, transfer);
+        this.filename = filename;
+        this.checksum = checksum;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    @Override
+    public String getETag() {
+        return "\"" + checksum + "\"";
+    }
+}
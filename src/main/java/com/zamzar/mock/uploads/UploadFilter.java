@@ -0,0 +1,231 @@
+package com.zamzar.mock.uploads;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Streams the file uploaded by a multipart request (e.g. the {@code content} of {@code POST /v1/files}) to
+ * {@link Uploads} before Wiremock sees the request, as Wiremock reads every request body into memory.
+ * <p>
+ * Wiremock is then handed the same request with the file's part emptied, and a header giving the token with which the
+ * stub that answers the request can claim the upload. Uploads that are not claimed (e.g. as the request was not
+ * authorised) are discarded once the request has been answered.
+ */
+public class UploadFilter implements Filter {
+
+    public static final String TOKEN_HEADER = "X-Zamzar-Mock-Upload";
+
+    // parts other than the file are kept in memory, so they must be small (as form fields are)
+    protected static final int MAX_FIELD_SIZE = 1024 * 1024;
+
+    protected final Uploads uploads;
+    protected final String partName;
+
+    /**
+     * @param partName the name of the part holding the file, e.g. "content"
+     */
+    public UploadFilter(Uploads uploads, String partName) {
+        this.uploads = uploads;
+        this.partName = partName;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        final HttpServletRequest http = (HttpServletRequest) request;
+        final Optional<String> boundary = "POST".equals(http.getMethod()) ?
+            MultipartStream.boundary(http.getContentType()) :
+            Optional.empty();
+        if (boundary.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final Upload upload;
+        try {
+            upload = rewrite(new MultipartStream(http.getInputStream(), boundary.get()), boundary.get(), body);
+        } catch (IOException e) {
+            ((HttpServletResponse) response).sendError(400, e.getMessage());
+            return;
+        }
+        if (upload == null) {
+            chain.doFilter(new RewrittenRequest(http, body.toByteArray(), null), response);
+            return;
+        }
+
+        final String token = uploads.hold(upload);
+        try {
+            chain.doFilter(new RewrittenRequest(http, body.toByteArray(), token), response);
+        } finally {
+            uploads.claim(token).ifPresent(uploads::discard);
+        }
+    }
+
+    /**
+     * Copies the parts to the body, storing the file rather than copying it
+     *
+     * @return the stored file, or null if there was none
+     */
+    protected Upload rewrite(MultipartStream parts, String boundary, ByteArrayOutputStream body) throws IOException {
+        final byte[] delimiter = ("--" + boundary + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        Upload upload = null;
+        try {
+            MultipartStream.Part part;
+            while ((part = parts.next()) != null) {
+                body.write(delimiter);
+                for (Map.Entry<String, String> header : part.getHeaders().entrySet()) {
+                    body.write((header.getKey() + ": " + header.getValue() + "\r\n").getBytes(StandardCharsets.UTF_8));
+                }
+                body.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+
+                if (upload == null && partName.equals(part.getName()) && part.getFilename() != null) {
+                    upload = uploads.store(part.getBody(), part.getFilename());
+                } else {
+                    copyField(part.getBody(), body);
+                }
+                body.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            }
+            body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            return upload;
+
+        } catch (IOException e) {
+            if (upload != null) {
+                uploads.discard(upload);
+            }
+            throw e;
+        }
+    }
+
+    protected void copyField(InputStream in, ByteArrayOutputStream out) throws IOException {
+        final byte[] buffer = new byte[8192];
+        int copied = 0;
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            copied += read;
+            if (copied > MAX_FIELD_SIZE) {
+                throw new IOException("Form field is larger than " + MAX_FIELD_SIZE + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+    }
+
+    // The request with a new body, and the token of its upload (if any)
+    protected static class RewrittenRequest extends HttpServletRequestWrapper {
+        protected final byte[] body;
+        protected final String token;
+
+        protected RewrittenRequest(HttpServletRequest request, byte[] body, String token) {
+            super(request);
+            this.body = body;
+            this.token = token;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            final ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // the body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (TOKEN_HEADER.equalsIgnoreCase(name)) {
+                return token;
+            } else if ("Content-Length".equalsIgnoreCase(name)) {
+                return String.valueOf(body.length);
+            } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+                return null;
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            final String value = getHeader(name);
+            if (value == null) {
+                return Collections.emptyEnumeration();
+            }
+            return TOKEN_HEADER.equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name) ?
+                Collections.enumeration(List.of(value)) :
+                super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            final List<String> names = new ArrayList<>();
+            for (String name : Collections.list(super.getHeaderNames())) {
+                // a client cannot send a token of its own
+                if (!TOKEN_HEADER.equalsIgnoreCase(name) && !"Content-Length".equalsIgnoreCase(name) && !"Transfer-Encoding".equalsIgnoreCase(name)) {
+                    names.add(name);
+                }
+            }
+            names.add("Content-Length");
+            if (token != null) {
+                names.add(TOKEN_HEADER);
+            }
+            return Collections.enumeration(names);
+        }
+    }
+}
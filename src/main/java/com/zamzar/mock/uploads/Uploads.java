@@ -0,0 +1,186 @@
+package com.zamzar.mock.uploads;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.zamzar.mock.content.FileContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stores the content of files uploaded through the API (e.g. {@code POST /v1/files}) in a directory, so that uploads of
+ * any size pass through a fixed buffer rather than being held in memory.
+ * <p>
+ * An upload is stored as its request arrives (see {@link UploadFilter}) and held under a token until the stub that
+ * answers the request claims it, and attaches it to the file it creates. It is deleted when that file is deleted (or
+ * when the mock stops).
+ */
+@JsonIgnoreType
+public class Uploads {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Uploads.class);
+
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final Path directory;
+    protected final FileContent.Transfer transfer;
+
+    // token -> an upload whose request has not been answered yet
+    protected final ConcurrentMap<String, Upload> pending = new ConcurrentHashMap<>();
+
+    // file id -> content of the file
+    protected final ConcurrentMap<Long, Upload> files = new ConcurrentHashMap<>();
+
+    // told when uploads are attached to files and released from them, e.g. to share them with other mocks
+    protected volatile Listener listener;
+
+    /**
+     * @param transfer how the content of uploaded files is handed to Jetty when it is downloaded
+     */
+    public Uploads(Path directory, FileContent.Transfer transfer) {
+        try {
+            this.directory = Files.createDirectories(directory);
+            this.transfer = transfer;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not create directory for uploads: " + directory, e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes the stream to a new file, working out its checksum as it is written
+     */
+    public Upload store(InputStream in, String filename) throws IOException {
+        final Path path = Files.createTempFile(directory, "upload-", ".bin");
+        final MessageDigest digest = sha256();
+        try (OutputStream out = Files.newOutputStream(path)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new Upload(path, transfer, filename, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * @return a token with which the upload can be claimed
+     */
+    public String hold(Upload upload) {
+        final String token = UUID.randomUUID().toString();
+        pending.put(token, upload);
+        return token;
+    }
+
+    public Optional<Upload> claim(String token) {
+        return Optional.ofNullable(pending.remove(token));
+    }
+
+    /**
+     * Makes the upload the content of the file with the given id
+     */
+    public void attach(long id, Upload upload) {
+        files.put(id, upload);
+        if (listener != null) {
+            listener.onAttach(id, upload);
+        }
+    }
+
+    /**
+     * Makes an upload that another mock attached (and that is stored where this mock can read it) the content of the
+     * file with the given id
+     */
+    public void restore(long id, Path path, String filename, String checksum) {
+        try {
+            files.put(id, new Upload(path, transfer, filename, checksum));
+        } catch (UncheckedIOException e) {
+            // released (and so deleted) since, so there is nothing to serve
+            LOGGER.debug("Could not restore upload {}", path, e);
+        }
+    }
+
+    public Optional<Upload> get(long id) {
+        return Optional.ofNullable(files.get(id));
+    }
+
+    /**
+     * Deletes the content of the file with the given id, if it has any (e.g. as the file has been deleted)
+     */
+    public void release(long id) {
+        final Upload upload = files.remove(id);
+        if (upload != null) {
+            discard(upload);
+            if (listener != null) {
+                listener.onRelease(id);
+            }
+        }
+    }
+
+    /**
+     * Forgets the content of the file with the given id, which another mock has released (and so deleted)
+     */
+    public void forget(long id) {
+        files.remove(id);
+    }
+
+    public void listen(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Deletes an upload that was never attached to a file (e.g. as its request was rejected)
+     */
+    public void discard(Upload upload) {
+        delete(upload.getPath());
+    }
+
+    /**
+     * Deletes every upload
+     */
+    public void clear() {
+        pending.values().forEach(this::discard);
+        pending.clear();
+        files.values().forEach(this::discard);
+        files.clear();
+    }
+
+    protected void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete upload {}", path, e);
+        }
+    }
+
+    protected static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public interface Listener {
+        void onAttach(long id, Upload upload);
+
+        void onRelease(long id);
+    }
+}
@@ -0,0 +1,103 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.zamzar.mock.content.SyntheticContent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentTransformerTest {
+
+    protected final LargeFileTransformer transformer = new LargeFileTransformer();
+
+    protected final SyntheticContent content = new SyntheticContent(1000, SyntheticContent.Pattern.SEQUENTIAL, 0);
+
+    @Test
+    public void servesFullContentWithoutRange() throws IOException {
+        final Response response = render(request());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("1000", response.getHeaders().getHeader("Content-Length").firstValue());
+        assertEquals("bytes", response.getHeaders().getHeader("Accept-Ranges").firstValue());
+        assertEquals(1000, response.getBodyStream().readAllBytes().length);
+    }
+
+    @Test
+    public void servesSingleRange() throws IOException {
+        final Response response = render(request().withHeader("Range", "bytes=10-19"));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/1000", response.getHeaders().getHeader("Content-Range").firstValue());
+        assertEquals("10", response.getHeaders().getHeader("Content-Length").firstValue());
+        assertArrayEquals(slice(10, 20), response.getBodyStream().readAllBytes());
+    }
+
+    @Test
+    public void servesMultipleRangesAsMultipart() throws IOException {
+        final Response response = render(request().withHeader("Range", "bytes=0-1,-2"));
+
+        assertEquals(206, response.getStatus());
+        final String contentType = response.getHeaders().getContentTypeHeader().firstValue();
+        assertTrue(contentType.startsWith("multipart/byteranges; boundary="));
+
+        final byte[] body = response.getBodyStream().readAllBytes();
+        assertEquals(Long.parseLong(response.getHeaders().getHeader("Content-Length").firstValue()), body.length);
+
+        final String text = new String(body, StandardCharsets.ISO_8859_1);
+        final String boundary = contentType.substring(contentType.indexOf('=') + 1);
+        assertTrue(text.startsWith("--" + boundary + "\r\n"));
+        assertTrue(text.contains("Content-Range: bytes 0-1/1000\r\n\r\n\u0000\u0001\r\n--" + boundary + "\r\n"));
+        assertTrue(text.contains("Content-Range: bytes 998-999/1000\r\n\r\n\u00e6\u00e7\r\n"));
+        assertTrue(text.endsWith("\r\n--" + boundary + "--\r\n"));
+    }
+
+    @Test
+    public void rejectsUnsatisfiableRange() {
+        final Response response = render(request().withHeader("Range", "bytes=1000-"));
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */1000", response.getHeaders().getHeader("Content-Range").firstValue());
+    }
+
+    @Test
+    public void ignoresMalformedRange() {
+        assertEquals(200, render(request().withHeader("Range", "bytes=oops")).getStatus());
+    }
+
+    @Test
+    public void honoursRangeWhenIfRangeMatches() {
+        final Response response = render(request()
+            .withHeader("Range", "bytes=0-9")
+            .withHeader("If-Range", content.getETag()));
+
+        assertEquals(206, response.getStatus());
+    }
+
+    @Test
+    public void servesFullContentWhenIfRangeDoesNotMatch() {
+        assertEquals(200, render(request().withHeader("Range", "bytes=0-9").withHeader("If-Range", "\"stale\"")).getStatus());
+        assertEquals(200, render(request().withHeader("Range", "bytes=0-9").withHeader("If-Range", "W/" + content.getETag())).getStatus());
+        assertEquals(200, render(request().withHeader("Range", "bytes=0-9").withHeader("If-Range", "Wed, 21 Oct 2015 07:28:00 GMT")).getStatus());
+    }
+
+    protected Response render(ImmutableRequest.Builder request) {
+        return transformer.render(Response.response().build(), request.build(), content);
+    }
+
+    protected static ImmutableRequest.Builder request() {
+        return new ImmutableRequest.Builder()
+            .withMethod(RequestMethod.GET)
+            .withAbsoluteUrl("http://localhost/v1/files/0/content");
+    }
+
+    protected byte[] slice(int from, int to) throws IOException {
+        return Arrays.copyOfRange(content.getStream().readAllBytes(), from, to);
+    }
+}
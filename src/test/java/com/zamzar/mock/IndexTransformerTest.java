@@ -0,0 +1,130 @@
+package com.zamzar.mock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+import com.zamzar.mock.examples.ExamplesRepository;
+import com.zamzar.mock.pagination.Anchor;
+import com.zamzar.mock.pagination.PageCoordinates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexTransformerTest {
+
+    protected static final Predicate<JsonNode> ALL = n -> true;
+
+    protected final FileSource fileSource = new SingleRootFileSource("src/test/resources");
+    protected final ExamplesRepository repo = new ExamplesRepository(fileSource);
+    protected final IndexTransformer transformer = new IndexTransformer();
+
+    @AfterEach
+    public void tearDown() {
+        repo.delete("updates", "2");
+    }
+
+    @Test
+    public void readsFirstStateOfEachResource() throws JsonProcessingException {
+        final List<JsonNode> all = transformer.readAll(repo, "updates", false, ".initialising", ALL);
+
+        assertEquals(1, all.size());
+        assertEquals("initialising", all.get(0).get("status").asText());
+    }
+
+    @Test
+    public void sortsAndFilters() throws JsonProcessingException {
+        final List<JsonNode> ascending = transformer.readAll(repo, "widgets", true, "", ALL);
+        assertEquals(List.of("bolt", "flux-capacitor"), names(ascending));
+
+        final List<JsonNode> descending = transformer.readAll(repo, "widgets", false, "", ALL);
+        assertEquals(List.of("flux-capacitor", "bolt"), names(descending));
+
+        final List<JsonNode> filtered = transformer.readAll(repo, "widgets", true, "", n -> n.get("name").asText().startsWith("b"));
+        assertEquals(List.of("bolt"), names(filtered));
+    }
+
+    @Test
+    public void reusesParsedItemsUntilExamplesChange() throws JsonProcessingException {
+        final List<JsonNode> first = transformer.readAll(repo, "updates", false, ".initialising", ALL);
+        assertSame(first, transformer.readAll(repo, "updates", false, ".initialising", ALL));
+
+        repo.write("updates", "2.initialising", "{\"id\": 2, \"status\": \"initialising\"}");
+
+        final List<JsonNode> second = transformer.readAll(repo, "updates", false, ".initialising", ALL);
+        assertNotSame(first, second);
+        assertEquals(2, second.size());
+        assertEquals(2, second.get(0).get("id").asInt());
+    }
+
+    @Test
+    public void readsOverwrittenExamplesAgain() throws JsonProcessingException {
+        repo.write("updates", "2.initialising", "{\"id\": 2, \"status\": \"initialising\"}");
+        final List<JsonNode> first = transformer.readAll(repo, "updates", false, ".initialising", ALL);
+        assertEquals("initialising", first.get(0).get("status").asText());
+
+        repo.write("updates", "2.initialising", "{\"id\": 2, \"status\": \"failed\"}");
+
+        final List<JsonNode> second = transformer.readAll(repo, "updates", false, ".initialising", ALL);
+        assertEquals(2, second.size());
+        assertEquals("failed", second.get(0).get("status").asText());
+    }
+
+    @Test
+    public void prettyPageIsIdenticalToPrettyPrintedTree() throws IOException {
+        final IndexTransformer.CachedList all = transformer.readCached(repo, "widgets", true, "", ALL);
+
+        final String page = render(all, new PageCoordinates(), true);
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final ObjectNode expected = mapper.createObjectNode();
+        expected.putArray("data").addAll(all.items);
+        expected.putObject("paging")
+            .put("total_count", 2)
+            .put("first", "bolt")
+            .put("last", "flux-capacitor")
+            .put("limit", PageCoordinates.DEFAULT_LIMIT);
+        assertEquals(expected.toPrettyString(), page);
+    }
+
+    @Test
+    public void compactPageHasSameContentAsPrettyPage() throws IOException {
+        final IndexTransformer.CachedList all = transformer.readCached(repo, "widgets", true, "", ALL);
+        final PageCoordinates coordinates = new PageCoordinates(Anchor.after("bolt"), 1);
+
+        final String compact = render(all, coordinates, false);
+        final String pretty = render(all, coordinates, true);
+
+        assertFalse(compact.contains("\n"));
+        assertEquals(
+            "{\"data\":[{\"name\":\"flux-capacitor\",\"colour\":\"silver\"}],\"paging\":{\"total_count\":2,\"first\":\"flux-capacitor\",\"last\":\"flux-capacitor\",\"limit\":1}}",
+            compact
+        );
+        final ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.readTree(pretty), mapper.readTree(compact));
+    }
+
+    @Test
+    public void emptyPageHasNoFirstOrLast() throws IOException {
+        final IndexTransformer.CachedList none = transformer.readCached(repo, "widgets", true, "", n -> false);
+
+        assertEquals("{\"data\":[],\"paging\":{\"total_count\":0,\"limit\":50}}", render(none, new PageCoordinates(), false));
+    }
+
+    protected String render(IndexTransformer.CachedList all, PageCoordinates coordinates, boolean isPretty) throws IOException {
+        return new String(transformer.buildResponseBody(all, coordinates, "name", isPretty), StandardCharsets.UTF_8);
+    }
+
+    protected static List<String> names(List<JsonNode> items) {
+        return items.stream().map(n -> n.get("name").asText()).collect(Collectors.toList());
+    }
+}
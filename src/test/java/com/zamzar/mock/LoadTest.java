@@ -0,0 +1,82 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+import com.zamzar.mock.faults.FaultProfiles;
+import com.zamzar.mock.load.Baseline;
+import com.zamzar.mock.load.LoadDriver;
+import com.zamzar.mock.load.LoadReport;
+import com.zamzar.mock.metrics.Metrics;
+import com.zamzar.mock.state.MemoryStateStore;
+import com.zamzar.mock.state.StateStore;
+import com.zamzar.mock.state.VirtualClock;
+import com.zamzar.mock.uploads.Uploads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the whole mock over HTTP and compares its throughput and latency with a stored baseline, to catch performance
+ * regressions (e.g. from upgrading Wiremock) before they are released. See "Load testing" in the README.
+ */
+@Tag("load")
+public class LoadTest {
+
+    protected static final Path BASELINE = Path.of("src/test/resources/load/baseline.json");
+
+    protected WireMockServer server;
+
+    protected Uploads uploads;
+
+    @BeforeEach
+    public void setUp() {
+        final FileSource fileSource = new SingleRootFileSource(ConfigureWireMock.PATH_TO_EXAMPLES);
+        final StateStore states = new MemoryStateStore();
+        final VirtualClock clock = new VirtualClock();
+        final Startup startup = new Startup();
+        uploads = ConfigureWireMock.createUploads();
+        server = ConfigureWireMock.startWireMock(0, fileSource, states, clock, new FaultProfiles(), new Metrics(), uploads, startup);
+        new ConfigureWireMock(server, fileSource, states, clock, uploads, startup).run();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+        uploads.clear();
+    }
+
+    @Test
+    public void staysWithinBaseline() throws IOException, InterruptedException {
+        final LoadReport report = new LoadDriver(
+            URI.create(server.baseUrl()),
+            ConfigureWireMock.API_KEY,
+            Settings.getInt("load.clients", 8),
+            Duration.ofSeconds(Settings.getInt("load.warmup-seconds", 2)),
+            Duration.ofSeconds(Settings.getInt("load.seconds", 5)),
+            LoadDriver.parseMix(Settings.getString("load.mix", LoadDriver.DEFAULT_MIX))
+        ).run();
+
+        assertEquals(0, report.getTotal().getErrors(), "Calls failed\n" + report.format());
+
+        final Baseline baseline = Baseline.parse(Files.readString(BASELINE, StandardCharsets.UTF_8));
+        if (Settings.getBoolean("load.update-baseline", false)) {
+            Files.writeString(BASELINE, baseline.updatedWith(report).toJson(), StandardCharsets.UTF_8);
+            return;
+        }
+
+        final List<String> regressions = baseline.regressions(report);
+        assertTrue(regressions.isEmpty(), "Performance regressed: " + String.join("; ", regressions) + "\n" + report.format());
+    }
+}
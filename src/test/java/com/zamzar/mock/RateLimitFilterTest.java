@@ -0,0 +1,47 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.extension.requestfilter.ContinueAction;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.zamzar.mock.state.Tenants;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimitFilterTest {
+
+    // a clock that never moves, so that no tokens are refilled
+    protected final RateLimitFilter filter = new RateLimitFilter(1, 1, new byte[0], () -> 0L);
+
+    @Test
+    public void tenantsSharingAnApiKeyHaveTheirOwnLimits() {
+        assertTrue(isAllowed(request("GiVUYsF4A8ssq93FR48H", "build-1")));
+        assertFalse(isAllowed(request("GiVUYsF4A8ssq93FR48H", "build-1")));
+        assertTrue(isAllowed(request("GiVUYsF4A8ssq93FR48H", "build-2")));
+    }
+
+    @Test
+    public void requestsWithoutATenantShareTheDefaultLimit() {
+        assertTrue(isAllowed(request(null, null)));
+        assertFalse(isAllowed(request(null, null)));
+    }
+
+    protected boolean isAllowed(Request request) {
+        return filter.filter(request, null) instanceof ContinueAction;
+    }
+
+    protected static Request request(String apiKey, String tenant) {
+        final ImmutableRequest.Builder request = new ImmutableRequest.Builder()
+            .withMethod(RequestMethod.GET)
+            .withAbsoluteUrl("http://localhost/v1/jobs");
+        if (apiKey != null) {
+            request.withHeader("Authorization", "Bearer " + apiKey);
+        }
+        if (tenant != null) {
+            request.withHeader(Tenants.HEADER, tenant);
+        }
+        return request.build();
+    }
+}
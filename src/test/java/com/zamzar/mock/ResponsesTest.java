@@ -0,0 +1,60 @@
+package com.zamzar.mock;
+
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+import com.github.tomakehurst.wiremock.http.ImmutableRequest;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.zamzar.mock.examples.ExamplesRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponsesTest {
+
+    protected final ExamplesRepository repo = new ExamplesRepository(new SingleRootFileSource("src/test/resources"));
+
+    @Test
+    public void compressesExamplesForClientsThatAcceptIt() throws IOException {
+        repo.compressBodies(true, 0);
+
+        final Response response = example(request().withHeader("Accept-Encoding", "gzip, deflate"));
+
+        assertEquals("gzip", response.getHeaders().getHeader("Content-Encoding").firstValue());
+        assertArrayEquals(repo.body("widgets", "bolt"), new GZIPInputStream(new ByteArrayInputStream(response.getBody())).readAllBytes());
+    }
+
+    @Test
+    public void sendsExamplesBelowTheMinimumSizeUncompressed() {
+        repo.compressBodies(true, repo.body("widgets", "bolt").length + 1);
+
+        final Response response = example(request().withHeader("Accept-Encoding", "gzip, deflate"));
+
+        assertFalse(response.getHeaders().getHeader("Content-Encoding").isPresent());
+        assertArrayEquals(repo.body("widgets", "bolt"), response.getBody());
+    }
+
+    @Test
+    public void sendsExamplesUncompressedToClientsThatDoNotAcceptIt() {
+        repo.compressBodies(true, 0);
+
+        final Response response = example(request());
+
+        assertFalse(response.getHeaders().getHeader("Content-Encoding").isPresent());
+        assertEquals("Accept-Encoding", response.getHeaders().getHeader("Vary").firstValue());
+        assertArrayEquals(repo.body("widgets", "bolt"), response.getBody());
+    }
+
+    protected Response example(ImmutableRequest.Builder request) {
+        return Responses.example(Response.response().build(), request.build(), repo, "widgets", "bolt");
+    }
+
+    protected static ImmutableRequest.Builder request() {
+        return new ImmutableRequest.Builder()
+            .withMethod(RequestMethod.GET)
+            .withAbsoluteUrl("http://localhost/v1/widgets/bolt");
+    }
+}
@@ -0,0 +1,41 @@
+package com.zamzar.mock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupTest {
+
+    protected final Startup startup = new Startup();
+
+    @Test
+    public void timesPhasesInOrder() {
+        assertEquals("done", startup.time("examples", () -> "done"));
+        startup.time("stubs", () -> sleep(20));
+        startup.time("stubs", () -> sleep(20));
+
+        final Map<String, Long> phases = startup.getPhases();
+        assertEquals(List.of("jvm", "examples", "stubs"), List.copyOf(phases.keySet()));
+        assertTrue(phases.get("stubs") >= 40, phases.toString());
+        assertEquals(phases.values().stream().mapToLong(Long::longValue).sum(), startup.getTotalMillis());
+        assertTrue(startup.toString().contains(", stubs " + phases.get("stubs") + " ms"), startup.toString());
+    }
+
+    @Test
+    public void isReadyOnceMarked() {
+        assertFalse(startup.isReady());
+        startup.ready();
+        assertTrue(startup.isReady());
+    }
+
+    protected static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.zamzar.mock.content;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AcceptEncodingTest {
+
+    @Test
+    public void acceptsListedCoding() {
+        assertTrue(AcceptEncoding.accepts("gzip", "gzip"));
+        assertTrue(AcceptEncoding.accepts("deflate, GZIP, br", "gzip"));
+        assertTrue(AcceptEncoding.accepts("x-gzip", "gzip"));
+    }
+
+    @Test
+    public void honoursWeights() {
+        assertTrue(AcceptEncoding.accepts("gzip;q=0.5", "gzip"));
+        assertFalse(AcceptEncoding.accepts("gzip;q=0", "gzip"));
+        assertFalse(AcceptEncoding.accepts("gzip; q=0.0, br", "gzip"));
+        assertFalse(AcceptEncoding.accepts("gzip;q=nonsense", "gzip"));
+    }
+
+    @Test
+    public void fallsBackToWildcard() {
+        assertTrue(AcceptEncoding.accepts("*", "gzip"));
+        assertFalse(AcceptEncoding.accepts("br, *;q=0", "gzip"));
+        assertTrue(AcceptEncoding.accepts("gzip, *;q=0", "gzip"));
+    }
+
+    @Test
+    public void acceptsNothingWithoutHeaderOrCoding() {
+        assertFalse(AcceptEncoding.accepts(null, "gzip"));
+        assertFalse(AcceptEncoding.accepts("", "gzip"));
+        assertFalse(AcceptEncoding.accepts("identity", "gzip"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.zamzar.mock.content;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteRangeTest {
+
+    @Test
+    public void parsesClosedRange() {
+        assertEquals(Collections.singletonList(new ByteRange(0, 499)), ByteRange.parse("bytes=0-499", 1000));
+    }
+
+    @Test
+    public void parsesOpenEndedRange() {
+        assertEquals(Collections.singletonList(new ByteRange(900, 999)), ByteRange.parse("bytes=900-", 1000));
+    }
+
+    @Test
+    public void parsesSuffixRange() {
+        assertEquals(Collections.singletonList(new ByteRange(800, 999)), ByteRange.parse("bytes=-200", 1000));
+    }
+
+    @Test
+    public void suffixLongerThanContentSelectsWholeContent() {
+        assertEquals(Collections.singletonList(new ByteRange(0, 999)), ByteRange.parse("bytes=-5000", 1000));
+    }
+
+    @Test
+    public void clampsLastPositionToContent() {
+        assertEquals(Collections.singletonList(new ByteRange(500, 999)), ByteRange.parse("bytes=500-99999999999999999999", 1000));
+    }
+
+    @Test
+    public void parsesMultipleRangesInRequestedOrder() {
+        assertEquals(
+            Arrays.asList(new ByteRange(500, 599), new ByteRange(0, 9), new ByteRange(990, 999)),
+            ByteRange.parse("bytes=500-599, 0-9,-10", 1000)
+        );
+    }
+
+    @Test
+    public void dropsUnsatisfiableRanges() {
+        assertEquals(Collections.singletonList(new ByteRange(0, 9)), ByteRange.parse("bytes=0-9,1000-1099", 1000));
+    }
+
+    @Test
+    public void emptyWhenNoRangeIsSatisfiable() {
+        assertTrue(ByteRange.parse("bytes=1000-", 1000).isEmpty());
+        assertTrue(ByteRange.parse("bytes=-0", 1000).isEmpty());
+        assertTrue(ByteRange.parse("bytes=0-", 0).isEmpty());
+    }
+
+    @Test
+    public void rejectsMalformedRanges() {
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("items=0-9", 1000));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=9-0", 1000));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=a-b", 1000));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=10", 1000));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-", 1000));
+    }
+
+    @Test
+    public void rejectsExcessiveNumberOfRanges() {
+        final String header = "bytes=" + String.join(",", Collections.nCopies(ByteRange.MAX_RANGES + 1, "0-0"));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse(header, 1000));
+    }
+
+    @Test
+    public void formatsContentRange() {
+        assertEquals("bytes 0-499/1000", new ByteRange(0, 499).toContentRange(1000));
+        assertEquals(500, new ByteRange(0, 499).getLength());
+    }
+}
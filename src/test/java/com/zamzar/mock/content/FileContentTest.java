@@ -0,0 +1,82 @@
+package com.zamzar.mock.content;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileContentTest {
+
+    @TempDir
+    protected Path directory;
+
+    @Test
+    public void streamsWholeFile() throws IOException {
+        final byte[] bytes = write(10_000);
+        for (FileContent.Transfer transfer : FileContent.Transfer.values()) {
+            assertArrayEquals(bytes, new FileContent(directory.resolve("file"), transfer).getStream().readAllBytes(), transfer.name());
+        }
+    }
+
+    @Test
+    public void streamsRange() throws IOException {
+        final byte[] bytes = write(10_000);
+        for (FileContent.Transfer transfer : FileContent.Transfer.values()) {
+            final FileContent content = new FileContent(directory.resolve("file"), transfer);
+
+            assertArrayEquals(Arrays.copyOfRange(bytes, 100, 200), content.getStream(100, 100).readAllBytes(), transfer.name());
+            assertArrayEquals(Arrays.copyOfRange(bytes, 9_999, 10_000), content.getStream(9_999, 1).readAllBytes(), transfer.name());
+        }
+    }
+
+    @Test
+    public void transfersToAnyOutputStream() throws IOException {
+        final byte[] bytes = write(100_000);
+        for (FileContent.Transfer transfer : FileContent.Transfer.values()) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InputStream in = new FileContent(directory.resolve("file"), transfer).getStream(1_000, 50_000)) {
+                assertEquals(50_000, in.transferTo(out), transfer.name());
+            }
+            assertArrayEquals(Arrays.copyOfRange(bytes, 1_000, 51_000), out.toByteArray(), transfer.name());
+        }
+    }
+
+    @Test
+    public void streamsOfMappedFileAreIndependent() throws IOException {
+        final byte[] bytes = write(1_000);
+        final FileContent content = new FileContent(directory.resolve("file"), FileContent.Transfer.MAPPED);
+
+        final InputStream first = content.getStream(0, 1_000);
+        first.skip(500);
+        assertArrayEquals(bytes, content.getStream(0, 1_000).readAllBytes());
+        assertEquals(bytes[500] & 0xFF, first.read());
+    }
+
+    @Test
+    public void isNotCurrentOnceFileChanges() throws IOException {
+        write(1_000);
+        final FileContent content = new FileContent(directory.resolve("file"));
+        assertTrue(content.isCurrent());
+
+        Files.setLastModifiedTime(directory.resolve("file"), FileTime.from(Instant.now().plusSeconds(60)));
+        assertFalse(content.isCurrent());
+    }
+
+    protected byte[] write(int size) throws IOException {
+        final byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        Files.write(directory.resolve("file"), bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.zamzar.mock.content;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticContentTest {
+
+    @Test
+    public void streamHasRequestedSize() throws IOException {
+        final SyntheticContent content = new SyntheticContent(10_000);
+        assertEquals(10_000, content.getStream().readAllBytes().length);
+    }
+
+    @Test
+    public void zerosPatternIsAllZeros() throws IOException {
+        final byte[] bytes = new SyntheticContent(1024).getStream().readAllBytes();
+        assertArrayEquals(new byte[1024], bytes);
+    }
+
+    @Test
+    public void sequentialPatternRepeatsEvery256Bytes() throws IOException {
+        final byte[] bytes = new SyntheticContent(512, SyntheticContent.Pattern.SEQUENTIAL, 0).getStream().readAllBytes();
+        assertEquals(0, bytes[0]);
+        assertEquals((byte) 255, bytes[255]);
+        assertEquals(0, bytes[256]);
+    }
+
+    @Test
+    public void randomPatternIsDeterministicForSeed() throws IOException {
+        final byte[] first = new SyntheticContent(4096, SyntheticContent.Pattern.RANDOM, 42).getStream().readAllBytes();
+        final byte[] second = new SyntheticContent(4096, SyntheticContent.Pattern.RANDOM, 42).getStream().readAllBytes();
+        final byte[] other = new SyntheticContent(4096, SyntheticContent.Pattern.RANDOM, 43).getStream().readAllBytes();
+
+        assertArrayEquals(first, second);
+        assertFalse(Arrays.equals(first, other));
+    }
+
+    @Test
+    public void rangeMatchesCorrespondingSliceOfWholeStream() throws IOException {
+        final SyntheticContent content = new SyntheticContent(4096, SyntheticContent.Pattern.RANDOM, 7);
+        final byte[] whole = content.getStream().readAllBytes();
+
+        final byte[] range = content.getStream(1001, 77).readAllBytes();
+        assertArrayEquals(Arrays.copyOfRange(whole, 1001, 1078), range);
+    }
+
+    @Test
+    public void skipDoesNotGenerateSkippedBytes() throws IOException {
+        final long size = 8L * 1024 * 1024 * 1024; // well beyond what could be held in memory
+        final SyntheticContent content = new SyntheticContent(size, SyntheticContent.Pattern.SEQUENTIAL, 0);
+
+        try (InputStream stream = content.getStream()) {
+            assertEquals(size - 3, stream.skip(size - 3));
+            assertEquals((byte) (size - 3), (byte) stream.read());
+            assertEquals(2, stream.readAllBytes().length);
+            assertEquals(-1, stream.read());
+        }
+    }
+
+    @Test
+    public void rejectsRangesOutsideOfContent() {
+        final SyntheticContent content = new SyntheticContent(100);
+        assertThrows(IndexOutOfBoundsException.class, () -> content.getStream(90, 11));
+    }
+}
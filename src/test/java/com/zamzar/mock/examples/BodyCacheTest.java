@@ -0,0 +1,85 @@
+package com.zamzar.mock.examples;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BodyCacheTest {
+
+    @Test
+    public void loadsBodyOnce() {
+        final BodyCache cache = new BodyCache(100);
+        final AtomicInteger loads = new AtomicInteger();
+
+        cache.get("jobs/1.completed", () -> body(10, loads));
+        cache.get("jobs/1.completed", () -> body(10, loads));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(10, cache.getBytes());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedBodiesToStayWithinBytes() {
+        final BodyCache cache = new BodyCache(100);
+        final AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", () -> body(40, loads));
+        cache.get("b", () -> body(40, loads));
+        cache.get("a", () -> body(40, loads)); // b is now the least recently used
+        cache.get("c", () -> body(40, loads));
+
+        assertEquals(80, cache.getBytes());
+        assertEquals(1, cache.getEvictions());
+
+        cache.get("a", () -> body(40, loads));
+        assertEquals(3, loads.get());
+        cache.get("b", () -> body(40, loads));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void doesNotCacheBodiesLargerThanItCanHold() {
+        final BodyCache cache = new BodyCache(100);
+        final AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", () -> body(101, loads));
+        cache.get("a", () -> body(101, loads));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void loadsInvalidatedBodyAgain() {
+        final BodyCache cache = new BodyCache(100);
+        final AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", () -> body(10, loads));
+        cache.invalidate("a");
+        cache.get("a", () -> body(10, loads));
+
+        assertEquals(2, loads.get());
+        assertEquals(10, cache.getBytes());
+    }
+
+    @Test
+    public void doesNotCacheBodyInvalidatedWhileItWasLoaded() {
+        final BodyCache cache = new BodyCache(100);
+
+        cache.get("a", () -> {
+            cache.invalidate("a"); // e.g. the example is deleted while it is being read
+            return new byte[10];
+        });
+
+        assertEquals(0, cache.getSize());
+    }
+
+    protected static byte[] body(int size, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new byte[size];
+    }
+}
@@ -0,0 +1,134 @@
+package com.zamzar.mock.examples;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CreatedExamplesTest {
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+    protected static final Predicate<JsonNode> ALL = n -> true;
+    protected static final Predicate<JsonNode> SUCCESSFUL = n -> "successful".equals(n.get("status").asText());
+    protected static final String TENANT = "default";
+
+    protected final CreatedExamples created = new CreatedExamples("jobs", 100);
+
+    @Test
+    public void concurrentCreatesAllocateConsecutiveIds() {
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 10_000).parallel().forEach(i -> ids.add(created.create(TENANT, id -> Map.of("", job(id, "initialising")))));
+
+        assertEquals(10_000, ids.size());
+        assertEquals(10_000, created.size());
+        assertEquals(100, ids.stream().mapToLong(Long::longValue).min().orElseThrow());
+        assertEquals(10_099, ids.stream().mapToLong(Long::longValue).max().orElseThrow());
+        ids.forEach(id -> assertEquals(id, created.get(id, "").orElseThrow().get("id").asLong()));
+    }
+
+    @Test
+    public void creatorsCanReadItemsBeforeTheyAreVisible() {
+        created.nextId.getAndIncrement(); // another creator has taken id 100, but has yet to store it
+        final long id = created.create(TENANT, i -> Map.of("", job(i, "initialising")));
+
+        assertEquals(101, id);
+        assertTrue(created.get(id, "").isEmpty());
+        assertEquals(101, created.stored(id, "").get("id").asLong());
+        assertThrows(IllegalArgumentException.class, () -> created.stored(100, ""));
+        assertThrows(IllegalArgumentException.class, () -> created.stored(102, ""));
+    }
+
+    @Test
+    public void itemsHaveVariants() {
+        final long id = created.create(TENANT, i -> Map.of("initialising", job(i, "initialising"), "completed", job(i, "successful")));
+
+        assertEquals("initialising", created.get(id, "initialising").orElseThrow().get("status").asText());
+        assertEquals("successful", created.get(id, "completed").orElseThrow().get("status").asText());
+        assertTrue(created.get(id, "cancelled").isEmpty());
+        assertTrue(created.get(id + 1, "completed").isEmpty());
+        assertFalse(created.contains(99));
+    }
+
+    @Test
+    public void selectionsPickUpNewItems() {
+        create("successful", "failed", "successful");
+        final CreatedExamples.Positions before = created.select(TENANT, "", SUCCESSFUL, created.size());
+        create("successful");
+        final CreatedExamples.Positions after = created.select(TENANT, "", SUCCESSFUL, created.size());
+
+        assertEquals(2, before.size());
+        assertEquals(3, after.size());
+        assertEquals(3, after.get(2));
+        assertEquals(1, after.indexOf(2));
+        assertEquals(-1, after.indexOf(1));
+    }
+
+    @Test
+    public void itemsOnlyBelongToTheTenantThatCreatedThem() {
+        create("successful");
+        final long other = created.create("ci-build-1234", id -> Map.of("", job(id, "successful")));
+        create("successful");
+
+        assertTrue(created.belongsTo(other, "ci-build-1234"));
+        assertFalse(created.belongsTo(other, TENANT));
+        assertTrue(created.get(TENANT, other, "").isEmpty());
+        assertEquals(other, created.get("ci-build-1234", other, "").orElseThrow().get("id").asLong());
+
+        final CreatedExamples.Positions positions = created.select(TENANT, "", SUCCESSFUL, created.size());
+        assertEquals(2, positions.size());
+        assertEquals(-1, positions.indexOf((int) (other - created.getFirstId())));
+        assertEquals(1, created.select("ci-build-1234", "", SUCCESSFUL, created.size()).size());
+    }
+
+    @Test
+    public void createdItemsComeBeforeOthersInDescendingOrder() {
+        create("successful", "failed", "successful");
+        final List<JsonNode> others = List.of(job(2, "successful"), job(1, "successful"));
+        final CreatedList list = new CreatedList(created, "", created.select(TENANT, "", ALL, created.size()), others, (field, id) -> others.indexOf(job(Long.parseLong(id), "successful")), false);
+
+        assertEquals(List.of(102L, 101L, 100L, 2L, 1L), ids(list));
+        assertEquals(0, list.positionOf("id", "102"));
+        assertEquals(2, list.positionOf("id", "100"));
+        assertEquals(4, list.positionOf("id", "1"));
+        assertEquals(-1, list.positionOf("id", "103"));
+    }
+
+    @Test
+    public void createdItemsComeAfterOthersInAscendingOrder() {
+        create("successful", "failed", "successful");
+        final List<JsonNode> others = List.of(job(1, "successful"));
+        final CreatedList list = new CreatedList(created, "", created.select(TENANT, "", SUCCESSFUL, created.size()), others, (field, id) -> others.indexOf(job(Long.parseLong(id), "successful")), true);
+
+        assertEquals(List.of(1L, 100L, 102L), ids(list));
+        assertEquals(2, list.positionOf("id", "102"));
+        assertEquals(-1, list.positionOf("id", "101"));
+        assertEquals(0, list.positionOf("id", "1"));
+    }
+
+    protected void create(String... statuses) {
+        for (String status : statuses) {
+            created.create(TENANT, id -> Map.of("", job(id, status)));
+        }
+    }
+
+    protected static List<Long> ids(List<JsonNode> list) {
+        return list.stream().map(n -> n.get("id").asLong()).collect(Collectors.toList());
+    }
+
+    protected static ObjectNode job(long id, String status) {
+        final ObjectNode job = MAPPER.createObjectNode();
+        job.put("id", id);
+        job.put("status", status);
+        return job;
+    }
+}
@@ -0,0 +1,115 @@
+package com.zamzar.mock.examples;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zamzar.mock.content.FileContent;
+import com.zamzar.mock.uploads.Upload;
+import com.zamzar.mock.uploads.Uploads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CreatedLogTest {
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    protected Path directory;
+
+    protected CreatedLog first;
+    protected CreatedLog second;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        first.close();
+        if (second != null) {
+            second.close();
+        }
+    }
+
+    @Test
+    public void mocksCreateConsecutiveIdsAndSeeEachOthersItems() {
+        first = new CreatedLog(directory.resolve("created"));
+        second = new CreatedLog(directory.resolve("created"));
+        final CreatedExamples firstJobs = first.register(new CreatedExamples("jobs", 100, first));
+        final CreatedExamples secondJobs = second.register(new CreatedExamples("jobs", 100, second));
+
+        assertEquals(100, firstJobs.create("a", id -> Map.of("", job(id))));
+        assertEquals(101, secondJobs.create("b", id -> Map.of("", job(id))));
+        first.sync();
+
+        assertEquals(2, firstJobs.size());
+        assertEquals(101, firstJobs.get("b", 101, "").orElseThrow().get("id").asLong());
+        assertTrue(firstJobs.get("a", 101, "").isEmpty());
+        assertEquals(100, secondJobs.get("a", 100, "").orElseThrow().get("id").asLong());
+    }
+
+    @Test
+    public void itemsAreKeptUntilTheirResourceIsCreatable() throws IOException {
+        first = new CreatedLog(directory.resolve("created"));
+        first.register(new CreatedExamples("files", 10, first)).create("a", id -> Map.of("", job(id)));
+        first.close();
+
+        first = new CreatedLog(directory.resolve("created"));
+        first.sync();
+        final CreatedExamples files = first.register(new CreatedExamples("files", 10, first));
+
+        assertEquals(1, files.size());
+        assertEquals(11, files.create("a", id -> Map.of("", job(id))));
+    }
+
+    @Test
+    public void mocksServeEachOthersUploads() throws IOException {
+        first = new CreatedLog(directory.resolve("created"));
+        second = new CreatedLog(directory.resolve("created"));
+        final Uploads firstUploads = new Uploads(directory.resolve("uploads"), FileContent.Transfer.STREAM);
+        final Uploads secondUploads = new Uploads(directory.resolve("uploads"), FileContent.Transfer.STREAM);
+        first.share(firstUploads);
+        second.share(secondUploads);
+
+        final Upload upload = firstUploads.store(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "hello.txt");
+        firstUploads.attach(8, upload);
+        second.sync();
+
+        final Upload restored = secondUploads.get(8).orElseThrow();
+        assertEquals("hello.txt", restored.getFilename());
+        assertEquals(upload.getETag(), restored.getETag());
+        assertEquals("hello", Files.readString(restored.getPath()));
+
+        secondUploads.release(8);
+        first.sync();
+        assertFalse(Files.exists(upload.getPath()));
+        assertTrue(firstUploads.get(8).isEmpty());
+    }
+
+    @Test
+    public void releasedUploadsAreNotRestored() throws IOException {
+        first = new CreatedLog(directory.resolve("created"));
+        final Uploads firstUploads = new Uploads(directory.resolve("uploads"), FileContent.Transfer.STREAM);
+        first.share(firstUploads);
+        firstUploads.attach(8, firstUploads.store(new ByteArrayInputStream(new byte[1]), "a"));
+        firstUploads.release(8);
+
+        second = new CreatedLog(directory.resolve("created"));
+        final Uploads secondUploads = new Uploads(directory.resolve("uploads"), FileContent.Transfer.STREAM);
+        second.share(secondUploads);
+        second.sync();
+
+        assertTrue(secondUploads.get(8).isEmpty());
+    }
+
+    protected static ObjectNode job(long id) {
+        final ObjectNode job = MAPPER.createObjectNode();
+        job.put("id", id);
+        return job;
+    }
+}
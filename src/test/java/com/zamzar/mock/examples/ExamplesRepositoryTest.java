@@ -1,12 +1,20 @@
 package com.zamzar.mock.examples;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,6 +50,22 @@ public class ExamplesRepositoryTest {
         assertEquals(Arrays.asList("1.completed", "1.initialising", "1.installing"), actual);
     }
 
+    @Test
+    public void parseAll() {
+        final Map<String, JsonNode> parsed = repo.parseAll();
+
+        assertEquals(Set.of("updates/1.completed", "updates/1.initialising", "updates/1.installing", "widgets/bolt", "widgets/flux-capacitor"), parsed.keySet());
+        assertEquals("bolt", parsed.get("widgets/bolt").get("name").asText());
+    }
+
+    @Test
+    public void parseAllNamesInvalidExamples() {
+        repo.write("updates", "2.initialising", "{ \"status\": ");
+
+        final IllegalStateException e = assertThrows(IllegalStateException.class, repo::parseAll);
+        assertTrue(e.getMessage().startsWith("Invalid examples: updates/2.initialising.json ("), e.getMessage());
+    }
+
     @Test
     public void exists() {
         assertTrue(repo.exists("updates", "1"));
@@ -53,4 +77,47 @@ public class ExamplesRepositoryTest {
         assertTrue(repo.read("widgets", "bolt").contains("\"name\": \"bolt\""));
         assertTrue(repo.read("updates", "1.initialising").contains("\"id\": 1"));
     }
+
+    @Test
+    public void create() {
+        repo.write("updates", "2.initialising", "{\"id\": 2}");
+
+        assertTrue(repo.exists("updates", "2"));
+        assertTrue(repo.all("updates", true).contains("2.initialising"));
+        assertTrue(repo.read("updates", "2.initialising").contains("\"id\": 2"));
+    }
+
+    @Test
+    public void delete() {
+        repo.write("updates", "2.initialising", "{\"id\": 2}");
+        repo.write("updates", "2.completed", "{\"id\": 2}");
+
+        repo.delete("updates", "2");
+
+        assertFalse(repo.exists("updates", "2"));
+        assertEquals(Arrays.asList("1"), repo.all("updates").stream().sorted().collect(Collectors.toList()));
+        assertFalse(new ExamplesRepository(fileSource).exists("updates", "2"));
+    }
+
+    @Test
+    public void notifiesListenersOfChanges() {
+        final List<String> changed = new ArrayList<>();
+        repo.addListener(changed::add);
+
+        repo.write("updates", "2.initialising", "{\"id\": 2}");
+        repo.delete("updates", "2");
+
+        assertEquals(Arrays.asList("updates", "updates"), changed);
+    }
+
+    @Test
+    public void examplesModifiedOnDiskChangeTheVersion() {
+        final Path root = Paths.get(fileSource.child("__files").getPath()).toAbsolutePath();
+        final long before = repo.version("updates");
+
+        repo.onFileSystemEvent(root, root.resolve("updates/1.initialising.json"), StandardWatchEventKinds.ENTRY_MODIFY);
+
+        assertNotEquals(before, repo.version("updates"));
+        assertEquals(Arrays.asList("1"), repo.all("updates").stream().sorted().collect(Collectors.toList()));
+    }
 }
@@ -0,0 +1,51 @@
+package com.zamzar.mock.faults;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointFaultsTest {
+
+    @Test
+    public void latencyFollowsPercentiles() {
+        final EndpointFaults faults = new EndpointFaults(Map.of("p50", 100L, "p90", 1000L), 0, null, 0, 0);
+        final SplittableRandom random = new SplittableRandom(1);
+
+        int belowMedian = 0;
+        for (int i = 0; i < 10_000; i++) {
+            final long latency = faults.sampleLatency(random);
+            assertTrue(latency >= 0 && latency <= 1000, "out of range: " + latency);
+            if (latency <= 100) {
+                belowMedian++;
+            }
+        }
+        assertEquals(5000, belowMedian, 200);
+    }
+
+    @Test
+    public void faultsHappenAtTheirRates() {
+        final EndpointFaults faults = new EndpointFaults(Map.of(), 0.1, List.of(502), 0.05, 0.2);
+        final SplittableRandom random = new SplittableRandom(1);
+
+        final Map<EndpointFaults.Fault, Integer> counts = new EnumMap<>(EndpointFaults.Fault.class);
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(faults.sampleFault(random), 1, Integer::sum);
+        }
+        assertEquals(1000, counts.get(EndpointFaults.Fault.ERROR), 150);
+        assertEquals(500, counts.get(EndpointFaults.Fault.RESET), 100);
+        assertEquals(2000, counts.get(EndpointFaults.Fault.TRUNCATE), 200);
+        assertEquals(502, faults.sampleErrorStatus(random));
+    }
+
+    @Test
+    public void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new EndpointFaults(Map.of("median", 1L), 0, null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new EndpointFaults(Map.of(), 0.6, null, 0.6, 0));
+        assertThrows(IllegalArgumentException.class, () -> new EndpointFaults(Map.of(), 0.1, List.of(404), 0, 0));
+    }
+}
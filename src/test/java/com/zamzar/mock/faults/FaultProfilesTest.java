@@ -0,0 +1,72 @@
+package com.zamzar.mock.faults;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FaultProfilesTest {
+
+    protected final FaultProfiles profiles = new FaultProfiles();
+
+    @Test
+    public void injectsNothingByDefault() {
+        assertEquals(FaultProfile.NONE, profiles.active().getName());
+        assertSame(FaultProfiles.Injection.NONE, profiles.next("jobs"));
+    }
+
+    @Test
+    public void groupsWithoutSettingsOfTheirOwnUseTheDefault() {
+        profiles.define(FaultProfiles.parse("p", "{\"endpoints\": {\"*\": {\"error_rate\": 1}, \"jobs\": {\"reset_rate\": 1}}}"));
+        profiles.activate("p");
+
+        assertEquals(EndpointFaults.Fault.RESET, profiles.next("jobs").getFault());
+        assertEquals(EndpointFaults.Fault.ERROR, profiles.next("files").getFault());
+    }
+
+    @Test
+    public void activatingAProfileRepeatsItsSequence() {
+        profiles.define(FaultProfiles.parse("p", "{\"seed\": 7, \"endpoints\": {\"*\": {\"latency\": {\"p50\": 100, \"p99\": 1000}, \"error_rate\": 0.3}}}"));
+
+        profiles.activate("p");
+        final List<Long> first = latencies("jobs", 20);
+        profiles.next("files"); // other groups do not affect the sequence of a group
+        profiles.activate("p");
+        final List<Long> second = latencies("jobs", 20);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void rejectsUnknownProfilesAndGroups() {
+        assertThrows(IllegalArgumentException.class, () -> profiles.activate("missing"));
+        assertThrows(IllegalArgumentException.class, () -> FaultProfiles.parse("p", "{\"endpoints\": {\"widgets\": {}}}"));
+        assertThrows(IllegalArgumentException.class, () -> profiles.define(FaultProfile.none()));
+    }
+
+    @Test
+    public void throttlesGroupsWithLimitedBandwidth() {
+        profiles.define(FaultProfiles.parse("p", "{\"endpoints\": {" +
+            "\"content\": {\"bandwidth\": {\"download\": 1000}}, " +
+            "\"files\": {\"bandwidth\": {\"upload\": 500, \"shared\": true}}}}"));
+        profiles.activate("p");
+
+        assertEquals(1000, profiles.throttle("content", Bandwidth.Direction.DOWNLOAD).orElseThrow().getBytesPerSecond());
+        assertTrue(profiles.throttle("content", Bandwidth.Direction.UPLOAD).isEmpty());
+        assertTrue(profiles.throttle("jobs", Bandwidth.Direction.DOWNLOAD).isEmpty());
+
+        // each download has a pipe of its own, while uploads share one
+        assertNotSame(profiles.throttle("content", Bandwidth.Direction.DOWNLOAD).orElseThrow(), profiles.throttle("content", Bandwidth.Direction.DOWNLOAD).orElseThrow());
+        assertSame(profiles.throttle("files", Bandwidth.Direction.UPLOAD).orElseThrow(), profiles.throttle("files", Bandwidth.Direction.UPLOAD).orElseThrow());
+    }
+
+    protected List<Long> latencies(String group, int count) {
+        final List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            latencies.add(profiles.next(group).getLatencyMillis());
+        }
+        return latencies;
+    }
+}
@@ -0,0 +1,69 @@
+package com.zamzar.mock.faults;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThrottleTest {
+
+    protected static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void pacesBytesAtItsRate() {
+        final Throttle throttle = new Throttle(1000, 0, new SplittableRandom(0));
+
+        assertEquals(SECOND / 2, throttle.reserve(500, 0));
+        // the next chunk waits for the first to pass
+        assertEquals(SECOND, throttle.reserve(500, 0));
+        assertEquals(SECOND / 2, throttle.reserve(500, SECOND));
+    }
+
+    @Test
+    public void doesNotSaveUpTimeWhileIdle() {
+        final Throttle throttle = new Throttle(1000, 0, new SplittableRandom(0));
+
+        throttle.reserve(1000, 0);
+
+        assertEquals(SECOND, throttle.reserve(1000, 10 * SECOND));
+    }
+
+    @Test
+    public void variesRateWithinJitter() {
+        final Throttle throttle = new Throttle(1000, 0.5, new SplittableRandom(1));
+
+        long now = 0;
+        boolean varied = false;
+        for (int i = 0; i < 20; i++) {
+            final long wait = throttle.reserve(1000, now);
+            assertTrue(wait >= SECOND / 2 && wait <= SECOND * 3 / 2, "Wait of " + wait + "ns is outside the jitter");
+            varied |= wait != SECOND;
+            now += wait;
+        }
+        assertTrue(varied);
+    }
+
+    @Test
+    public void sendsSmallChunks() {
+        assertEquals(50_000, new Throttle(1_000_000, 0, new SplittableRandom(0)).getChunkSize());
+        assertEquals(Throttle.MIN_CHUNK_SIZE, new Throttle(10, 0, new SplittableRandom(0)).getChunkSize());
+    }
+
+    @Test
+    public void throttledStreamTakesAsLongAsItsRate() throws IOException {
+        final byte[] content = new byte[20_000];
+        final ThrottledInputStream in = new ThrottledInputStream(new ByteArrayInputStream(content), new Throttle(100_000, 0, new SplittableRandom(0)));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        final long start = System.nanoTime();
+        in.transferTo(out);
+        final long elapsed = System.nanoTime() - start;
+
+        assertEquals(content.length, out.size());
+        assertTrue(elapsed >= SECOND / 5 - SECOND / 50, "Took " + elapsed + "ns");
+    }
+}
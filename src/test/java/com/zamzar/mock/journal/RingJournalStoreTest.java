@@ -0,0 +1,68 @@
+package com.zamzar.mock.journal;
+
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingJournalStoreTest {
+
+    @Test
+    public void keepsMostRecentRequestsFirst() {
+        final RingJournalStore store = new RingJournalStore(3);
+        final List<ServeEvent> events = events(5);
+        events.forEach(store::add);
+
+        assertEquals(List.of(events.get(4), events.get(3), events.get(2)), store.getAll().collect(Collectors.toList()));
+        assertEquals(3, store.size());
+        assertEquals(2, store.getEvictions());
+        assertTrue(store.get(events.get(0).getId()).isEmpty());
+    }
+
+    @Test
+    public void replacesServedRequestsThatAreStillInTheRing() {
+        final RingJournalStore store = new RingJournalStore(2);
+        final List<ServeEvent> events = events(3);
+        store.add(events.get(0));
+
+        final ServeEvent served = event(events.get(0).getId());
+        store.put(served.getId(), served);
+        assertSame(served, store.get(served.getId()).orElseThrow());
+
+        // a request that has left the ring does not come back
+        store.add(events.get(1));
+        store.add(events.get(2));
+        store.put(served.getId(), served);
+        assertEquals(2, store.size());
+        assertTrue(store.get(served.getId()).isEmpty());
+    }
+
+    @Test
+    public void removesRequests() {
+        final RingJournalStore store = new RingJournalStore(3);
+        final List<ServeEvent> events = events(3);
+        events.forEach(store::add);
+
+        store.remove(events.get(1).getId());
+        assertEquals(List.of(events.get(2), events.get(0)), store.getAll().collect(Collectors.toList()));
+
+        store.removeLast();
+        assertEquals(List.of(events.get(2)), store.getAll().collect(Collectors.toList()));
+
+        store.clear();
+        assertEquals(0, store.getAllKeys().count());
+    }
+
+    protected static List<ServeEvent> events(int count) {
+        return Stream.generate(() -> event(UUID.randomUUID())).limit(count).collect(Collectors.toList());
+    }
+
+    protected static ServeEvent event(UUID id) {
+        return new ServeEvent(id, null, null, null, null, false, null, null);
+    }
+}
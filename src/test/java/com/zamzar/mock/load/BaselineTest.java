@@ -0,0 +1,70 @@
+package com.zamzar.mock.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaselineTest {
+
+    @Test
+    public void percentilesAreNearestRank() {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1000; i >= 1; i--) {
+            recorder.record(i);
+        }
+
+        assertEquals(500, recorder.percentile(50));
+        assertEquals(990, recorder.percentile(99));
+        assertEquals(999, recorder.percentile(99.9));
+        assertEquals(1000, recorder.percentile(100));
+        assertEquals(0, new LatencyRecorder().percentile(99));
+    }
+
+    @Test
+    public void reportsRegressionsBeyondTheRatios() {
+        final Baseline baseline = Baseline.parse("{\n" +
+            "  \"min_throughput_ratio\": 0.5,\n" +
+            "  \"max_p99_ratio\": 2.0,\n" +
+            "  \"operations\": {\n" +
+            "    \"poll\": { \"throughput\": 100.0, \"p99_ms\": 10.0 },\n" +
+            "    \"list\": { \"throughput\": 100.0, \"p99_ms\": 10.0 }\n" +
+            "  }\n" +
+            "}");
+
+        // over 1 second: 60 polls taking 15 ms (fine), 40 lists taking 25 ms (too few, too slow)
+        final LoadReport report = new LoadReport(Duration.ofSeconds(1), Map.of(
+            Operation.POLL, recorder(60, 15),
+            Operation.LIST, recorder(40, 25)
+        ));
+
+        assertEquals(List.of(
+            "list throughput 40.0 req/s is below 50.0 req/s (baseline 100.0)",
+            "list p99 25.00 ms is above 20.00 ms (baseline 10.00)"
+        ), baseline.regressions(report));
+    }
+
+    @Test
+    public void roundTripsResultsAndKeepsRatios() {
+        final LoadReport report = new LoadReport(Duration.ofSeconds(2), Map.of(Operation.SUBMIT, recorder(100, 4)));
+        final Baseline updated = Baseline.parse("{ \"min_throughput_ratio\": 0.8, \"operations\": {} }").updatedWith(report);
+
+        final Baseline parsed = Baseline.parse(updated.toJson());
+        assertEquals(0.8, parsed.minThroughputRatio);
+        assertEquals(Baseline.DEFAULT_MAX_P99_RATIO, parsed.maxP99Ratio);
+        assertEquals(50.0, parsed.operations.get(Operation.SUBMIT).throughput);
+        assertEquals(4.0, parsed.operations.get(Operation.SUBMIT).p99Millis);
+        assertEquals(List.of(), parsed.regressions(report));
+    }
+
+    protected static LatencyRecorder recorder(int count, long millis) {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < count; i++) {
+            recorder.record(Duration.ofMillis(millis).toNanos());
+        }
+        return recorder;
+    }
+}
@@ -0,0 +1,30 @@
+package com.zamzar.mock.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointsTest {
+
+    @Test
+    public void namesEndpointsRegardlessOfIds() {
+        assertEquals("account_get", Endpoints.of("GET", "/v1/account"));
+        assertEquals("file_list", Endpoints.of("GET", "/v1/files"));
+        assertEquals("file_create", Endpoints.of("POST", "/v1/files"));
+        assertEquals("file_get", Endpoints.of("GET", "/v1/files/123"));
+        assertEquals("file_delete", Endpoints.of("DELETE", "/v1/files/123"));
+        assertEquals("file_content", Endpoints.of("GET", "/v1/files/0/content"));
+        assertEquals("format_get", Endpoints.of("GET", "/v1/formats/mp3"));
+        assertEquals("import_poll", Endpoints.of("GET", "/v1/imports/2"));
+        assertEquals("job_poll", Endpoints.of("GET", "/v1/jobs/1000000"));
+        assertEquals("job_list_successful", Endpoints.of("GET", "/v1/jobs/successful"));
+        assertEquals("job_destroy", Endpoints.of("POST", "/v1/jobs/1/destroy"));
+    }
+
+    @Test
+    public void otherPathsShareOneName() {
+        assertEquals(Endpoints.OTHER, Endpoints.of("GET", "/"));
+        assertEquals(Endpoints.OTHER, Endpoints.of("GET", "/v1/widgets/1"));
+        assertEquals(Endpoints.OTHER, Endpoints.of("GET", "/v1/jobs/1/2/3"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.zamzar.mock.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    protected final Metrics metrics = new Metrics();
+
+    @Test
+    public void countsRequestsByEndpointAndStatus() {
+        IntStream.range(0, 1000).parallel().forEach(i -> metrics.recordRequest("job_poll", "GET", i % 10 == 0 ? 404 : 200, 0));
+
+        final String rendered = metrics.render();
+        assertTrue(rendered.contains("zamzar_mock_requests_total{endpoint=\"job_poll\",method=\"GET\",status=\"200\"} 900\n"));
+        assertTrue(rendered.contains("zamzar_mock_requests_total{endpoint=\"job_poll\",method=\"GET\",status=\"404\"} 100\n"));
+    }
+
+    @Test
+    public void histogramBucketsAreCumulative() {
+        metrics.recordTransformer("index-transformer", TimeUnit.MICROSECONDS.toNanos(500));
+        metrics.recordTransformer("index-transformer", TimeUnit.MILLISECONDS.toNanos(20));
+        metrics.recordTransformer("index-transformer", TimeUnit.SECONDS.toNanos(120));
+
+        final String rendered = metrics.render();
+        assertTrue(rendered.contains("zamzar_mock_transformer_duration_seconds_bucket{transformer=\"index-transformer\",le=\"0.001\"} 1\n"));
+        assertTrue(rendered.contains("zamzar_mock_transformer_duration_seconds_bucket{transformer=\"index-transformer\",le=\"0.025\"} 2\n"));
+        assertTrue(rendered.contains("zamzar_mock_transformer_duration_seconds_bucket{transformer=\"index-transformer\",le=\"60\"} 2\n"));
+        assertTrue(rendered.contains("zamzar_mock_transformer_duration_seconds_bucket{transformer=\"index-transformer\",le=\"+Inf\"} 3\n"));
+        assertTrue(rendered.contains("zamzar_mock_transformer_duration_seconds_count{transformer=\"index-transformer\"} 3\n"));
+        assertTrue(rendered.contains("zamzar_mock_transformer_duration_seconds_sum{transformer=\"index-transformer\"} 120.0205\n"));
+    }
+
+    @Test
+    public void readsCountersAndGaugesWhenRendered() {
+        final AtomicLong hits = new AtomicLong();
+        metrics.counter("zamzar_mock_cache_hits_total", "Hits", hits::get);
+        metrics.gauge("zamzar_mock_cache_bytes", "Bytes", () -> 1024);
+        hits.set(3);
+
+        final String rendered = metrics.render();
+        assertTrue(rendered.contains("# TYPE zamzar_mock_cache_hits_total counter\nzamzar_mock_cache_hits_total 3\n"));
+        assertTrue(rendered.contains("# TYPE zamzar_mock_cache_bytes gauge\nzamzar_mock_cache_bytes 1024\n"));
+    }
+
+    @Test
+    public void includesJvmFigures() {
+        final String rendered = metrics.render();
+
+        assertTrue(rendered.contains("jvm_memory_heap_used_bytes "));
+        assertTrue(rendered.contains("jvm_gc_collection_seconds_count{gc="));
+    }
+}
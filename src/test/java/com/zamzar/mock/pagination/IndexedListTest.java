@@ -0,0 +1,58 @@
+package com.zamzar.mock.pagination;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedListTest extends AbstractPageCoordinatesTest {
+
+    @Test
+    public void findsPositionsOfNumericIds() {
+        final IndexedList list = new IndexedList(PageCoordinatesNumericIdDescendingTest.items(100), "id");
+
+        assertEquals(0, list.positionOf("100"));
+        assertEquals(99, list.positionOf("1"));
+        assertEquals(-1, list.positionOf("101"));
+    }
+
+    @Test
+    public void findsPositionsOfStringIds() {
+        final IndexedList list = new IndexedList(PageCoordinatesStringIdAscendingTest.items(26), "name");
+
+        assertEquals(0, list.positionOf("aaa"));
+        assertEquals(25, list.positionOf("zzz"));
+        assertEquals(-1, list.positionOf("a"));
+    }
+
+    @Test
+    public void pagesLikeAnUnindexedList() {
+        final List<JsonNode> items = PageCoordinatesNumericIdDescendingTest.items(100);
+        final IndexedList list = new IndexedList(items, "id");
+
+        for (String ref : new String[]{"100", "99", "51", "50", "10", "1"}) {
+            for (PageCoordinates coordinates : new PageCoordinates[]{
+                new PageCoordinates(Anchor.after(ref), 10),
+                new PageCoordinates(Anchor.before(ref), 10)
+            }) {
+                assertEquals(coordinates.applyTo(items, "id"), coordinates.applyTo(list), coordinates.toString());
+            }
+        }
+    }
+
+    @Test
+    public void honoursAfterAndBeforeOnLargeLists() {
+        final IndexedList list = new IndexedList(PageCoordinatesNumericIdDescendingTest.items(200_000), "id");
+
+        assertPageContains(new PageExpectation("99999", "99990", 10), new PageCoordinates(Anchor.after("100000"), 10).applyTo(list), "id");
+        assertPageContains(new PageExpectation("100010", "100001", 10), new PageCoordinates(Anchor.before("100000"), 10).applyTo(list), "id");
+    }
+
+    @Test
+    public void rejectsUnknownAnchor() {
+        final IndexedList list = new IndexedList(PageCoordinatesStringIdAscendingTest.items(26), "name");
+        assertThrows(IllegalArgumentException.class, () -> new PageCoordinates(Anchor.after("nope")).applyTo(list));
+    }
+}
@@ -0,0 +1,55 @@
+package com.zamzar.mock.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    protected static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void allowsABurstThenRefuses() {
+        final TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertEquals(2, bucket.take(0).getRemaining());
+        assertEquals(1, bucket.take(0).getRemaining());
+        assertEquals(0, bucket.take(0).getRemaining());
+
+        final TokenBucket.Result refused = bucket.take(0);
+        assertFalse(refused.isAllowed());
+        assertEquals(SECOND, refused.getRetryAfterNanos());
+        assertEquals(3 * SECOND, refused.getResetNanos());
+    }
+
+    @Test
+    public void refillsOverTime() {
+        final TokenBucket bucket = new TokenBucket(2, 4, 0);
+        bucket.take(0);
+        bucket.take(0);
+
+        assertFalse(bucket.take(SECOND / 8).isAllowed());
+        assertTrue(bucket.take(SECOND / 4).isAllowed());
+        assertFalse(bucket.take(SECOND / 4).isAllowed());
+
+        // never holds more than the burst, however long it is left
+        assertEquals(1, bucket.take(100 * SECOND).getRemaining());
+    }
+
+    @Test
+    public void concurrentRequestsNeverExceedTheBurst() {
+        final TokenBucket bucket = new TokenBucket(1000, 1, 0);
+        final AtomicInteger allowed = new AtomicInteger();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            if (bucket.take(0).isAllowed()) {
+                allowed.incrementAndGet();
+            }
+        });
+
+        assertEquals(1000, allowed.get());
+    }
+}
@@ -0,0 +1,76 @@
+package com.zamzar.mock.routing;
+
+import com.zamzar.mock.state.Lifecycle;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutesTest {
+
+    protected final Lifecycle job = new Lifecycle("jobs", "1");
+    protected final Lifecycle created = new Lifecycle("jobs", "*");
+
+    protected final Routes routes = new Routes("/v1")
+        .add(job)
+        .add(new Lifecycle("files", "1"))
+        .share("jobs", created)
+        .share("imports", null);
+
+    @Test
+    public void matchesActionsByTemplate() {
+        assertEquals(Lifecycle.GET, routes.match("GET", "/v1/jobs/1").orElseThrow().getAction());
+        assertEquals(Lifecycle.DELETE, routes.match("DELETE", "/v1/jobs/1").orElseThrow().getAction());
+        assertEquals(Lifecycle.CONTENT, routes.match("GET", "/v1/files/1/content").orElseThrow().getAction());
+        assertEquals(Lifecycle.DESTROY, routes.match("POST", "/v1/imports/1/destroy").orElseThrow().getAction());
+    }
+
+    @Test
+    public void matchesResourceAndId() {
+        final Route route = routes.match("GET", "/v1/files/1/content").orElseThrow();
+
+        assertEquals("files", route.getResource());
+        assertEquals("1", route.getId());
+        assertEquals(1L, route.getNumericId().orElseThrow());
+    }
+
+    @Test
+    public void matchesNothingWithoutTemplate() {
+        assertTrue(routes.match("POST", "/v1/jobs/1").isEmpty());
+        assertTrue(routes.match("GET", "/v1/jobs/1/destroy").isEmpty());
+        assertTrue(routes.match("GET", "/v1/jobs/1/content/more").isEmpty());
+        assertTrue(routes.match("GET", "/v1/jobs").isEmpty());
+        assertTrue(routes.match("GET", "/v1/jobs/").isEmpty());
+    }
+
+    @Test
+    public void matchesNothingForUnknownResourceOrBasePath() {
+        assertTrue(routes.match("GET", "/v1/formats/pdf").isEmpty());
+        assertTrue(routes.match("GET", "/v2/jobs/1").isEmpty());
+    }
+
+    @Test
+    public void findsLifecycleOfExample() {
+        assertSame(job, routes.lifecycle(routes.match("GET", "/v1/jobs/1").orElseThrow()).orElseThrow());
+        assertTrue(routes.lifecycle(routes.match("GET", "/v1/jobs/2").orElseThrow()).isEmpty());
+    }
+
+    @Test
+    public void findsSharedLifecycle() {
+        assertSame(created, routes.shared("jobs").orElseThrow());
+        assertTrue(routes.shared("imports").isEmpty());
+    }
+
+    @Test
+    public void describesRoutedPaths() {
+        assertEquals(Set.of("files", "imports", "jobs"), routes.getResources());
+        assertEquals(List.of("", "/content", "/destroy"), List.copyOf(routes.getSuffixes()));
+    }
+
+    @Test
+    public void rejectsTemplateWithoutResourceAndId() {
+        assertThrows(IllegalArgumentException.class, () -> routes.template("GET", "/{id}", Lifecycle.GET));
+    }
+}
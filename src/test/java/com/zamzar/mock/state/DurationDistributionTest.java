@@ -0,0 +1,42 @@
+package com.zamzar.mock.state;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurationDistributionTest {
+
+    @Test
+    public void parsesFixedDurations() {
+        assertEquals(5000, DurationDistribution.parse("5s").sample(0, new SplittableRandom()));
+        assertEquals(250, DurationDistribution.parse("250ms").sample(0, new SplittableRandom()));
+        assertEquals(90_000, DurationDistribution.parse("1.5m").sample(0, new SplittableRandom()));
+    }
+
+    @Test
+    public void samplesWithinRangeAndAddsTimePerMb() {
+        final DurationDistribution distribution = DurationDistribution.parse("1s..3s + 500ms/MB");
+        final SplittableRandom random = new SplittableRandom(1);
+
+        for (int i = 0; i < 1000; i++) {
+            final long millis = distribution.sample(4 * 1024 * 1024, random);
+            assertTrue(millis >= 3000 && millis <= 5000, "out of range: " + millis);
+        }
+    }
+
+    @Test
+    public void sameSeedTakesAsLong() {
+        final DurationDistribution distribution = DurationDistribution.parse("1s..1h");
+
+        assertEquals(distribution.sample(0, new SplittableRandom(42)), distribution.sample(0, new SplittableRandom(42)));
+    }
+
+    @Test
+    public void rejectsInvalidSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> DurationDistribution.parse("5"));
+        assertThrows(IllegalArgumentException.class, () -> DurationDistribution.parse("5s..1s"));
+        assertThrows(IllegalArgumentException.class, () -> DurationDistribution.parse("soon"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.zamzar.mock.state;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LifecycleTest {
+
+    protected final Lifecycle lifecycle = new Lifecycle("jobs", "1")
+        .on(Lifecycle.GET, StateStore.INITIAL_STATE, Lifecycle.Outcome.example("1.initialising"), "JobConverting")
+        .on(Lifecycle.GET, "JobConverting", Lifecycle.Outcome.example("1.converting"))
+        .on(Lifecycle.DELETE, Lifecycle.ANY_STATE, Lifecycle.Outcome.example("1.cancelled"), "JobCancelled")
+        .on(Lifecycle.DELETE, "JobCancelled", Lifecycle.Outcome.notFound());
+
+    @Test
+    public void findsTransitionForState() {
+        final Lifecycle.Transition transition = lifecycle.find(Lifecycle.GET, StateStore.INITIAL_STATE).orElseThrow();
+
+        assertEquals("1.initialising", transition.getOutcome().getExample());
+        assertEquals("JobConverting", transition.nextState(StateStore.INITIAL_STATE));
+    }
+
+    @Test
+    public void staysInStateWithoutNextState() {
+        assertEquals("JobConverting", lifecycle.find(Lifecycle.GET, "JobConverting").orElseThrow().nextState("JobConverting"));
+    }
+
+    @Test
+    public void prefersTransitionOfStateOverAnyState() {
+        assertEquals(Lifecycle.Outcome.Kind.EXAMPLE, lifecycle.find(Lifecycle.DELETE, "JobConverting").orElseThrow().getOutcome().getKind());
+        assertEquals(Lifecycle.Outcome.Kind.NOT_FOUND, lifecycle.find(Lifecycle.DELETE, "JobCancelled").orElseThrow().getOutcome().getKind());
+    }
+
+    @Test
+    public void findsNothingForUnknownActionOrState() {
+        assertTrue(lifecycle.find(Lifecycle.GET, "JobCancelled").isEmpty());
+        assertTrue(lifecycle.find(Lifecycle.DESTROY, StateStore.INITIAL_STATE).isEmpty());
+    }
+
+    @Test
+    public void statesEndOnceTheirTimeRunsOut() {
+        final Lifecycle timed = new Lifecycle("jobs", "*")
+            .after("JobInitialising", id -> 1000, "JobConverting")
+            .after("JobConverting", id -> Long.parseLong(id) * 1000, "JobCompleted");
+        final StateStore.State initialising = new StateStore.State("JobInitialising", 10_000);
+
+        assertEquals("JobInitialising", timed.settle("5", initialising, 10_999).getName());
+        assertEquals("JobConverting", timed.settle("5", initialising, 11_000).getName());
+        assertEquals(11_000, timed.settle("5", initialising, 15_999).getSince());
+
+        // the clock can pass through several states at once
+        final StateStore.State completed = timed.settle("5", initialising, 1_000_000);
+        assertEquals("JobCompleted", completed.getName());
+        assertEquals(16_000, completed.getSince());
+    }
+
+    @Test
+    public void timersThatFormALoopDoNotSpinForever() {
+        final Lifecycle loop = new Lifecycle("jobs", "1")
+            .after("A", id -> 0, "B")
+            .after("B", id -> 0, "A");
+
+        assertNotNull(loop.settle("1", new StateStore.State("A", 0), 1));
+    }
+}
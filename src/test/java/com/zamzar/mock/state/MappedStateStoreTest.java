@@ -0,0 +1,105 @@
+package com.zamzar.mock.state;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedStateStoreTest extends StateStoreTest {
+
+    protected Path file;
+
+    @Override
+    protected StateStore createStore() {
+        try {
+            file = Files.createTempFile("zamzar-mock-states", ".bin");
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new MappedStateStore(file, MappedStateStore.DEFAULT_CAPACITY);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        ((MappedStateStore) store).close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void statesAreKeptInTheFile() throws IOException {
+        store.transition("a", "jobs/1", s -> new StateStore.State("JobConverting", 1234));
+        store.advance("a", "jobs/2", s -> "JobCompleted");
+        ((MappedStateStore) store).close();
+
+        try (MappedStateStore reopened = new MappedStateStore(file, 128)) {
+            assertEquals(MappedStateStore.DEFAULT_CAPACITY, reopened.getCapacity());
+            assertEquals(1234, reopened.get("a", "jobs/1").getSince());
+            assertEquals(Map.of("jobs/1", "JobConverting", "jobs/2", "JobCompleted"), reopened.states("a"));
+            assertEquals(Set.of("a"), reopened.tenants());
+        }
+    }
+
+    @Test
+    public void mocksOpeningTheFileShareTheClock() throws IOException {
+        final VirtualClock clock = new VirtualClock(() -> 0L, store.clockOffset());
+        try (MappedStateStore other = new MappedStateStore(file, MappedStateStore.DEFAULT_CAPACITY)) {
+            final VirtualClock otherClock = new VirtualClock(() -> 0L, other.clockOffset());
+
+            clock.advance(Duration.ofSeconds(30));
+            otherClock.advance(Duration.ofSeconds(30));
+            assertEquals(60_000, clock.millis());
+            assertEquals(60_000, otherClock.millis());
+
+            otherClock.reset();
+            assertEquals(0, clock.millis());
+        }
+    }
+
+    @Test
+    public void scenariosReturningToInitialStateAreForgotten() {
+        store.advance("a", "jobs/1", s -> "JobConverting");
+        store.advance("a", "jobs/1", s -> StateStore.INITIAL_STATE);
+
+        assertEquals(StateStore.INITIAL_STATE, store.state("a", "jobs/1"));
+        assertEquals(Map.of(), store.states("a"));
+
+        // the slot can be used again
+        store.advance("a", "jobs/1", s -> "JobCompleted");
+        assertEquals("JobCompleted", store.state("a", "jobs/1"));
+    }
+
+    @Test
+    public void failsOnceFull() throws IOException {
+        final Path small = Files.createTempFile("zamzar-mock-states", ".bin");
+        Files.delete(small);
+        try (MappedStateStore full = new MappedStateStore(small, 64)) {
+            assertThrows(IllegalStateException.class, () -> {
+                for (int i = 0; i <= full.getCapacity(); i++) {
+                    full.advance("a", "jobs/" + i, s -> "JobConverting");
+                }
+            });
+        } finally {
+            Files.deleteIfExists(small);
+        }
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        final Path other = Files.createTempFile("zamzar-mock-states", ".bin");
+        try {
+            Files.writeString(other, "not a state file");
+            assertThrows(UncheckedIOException.class, () -> new MappedStateStore(other, 128));
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+}
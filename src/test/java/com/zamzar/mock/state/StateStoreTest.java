@@ -0,0 +1,56 @@
+package com.zamzar.mock.state;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateStoreTest {
+
+    protected final StateStore store = createStore();
+
+    protected StateStore createStore() {
+        return new MemoryStateStore();
+    }
+
+    @Test
+    public void scenariosStartInInitialState() {
+        assertEquals(StateStore.INITIAL_STATE, store.state("a", "jobs/1"));
+    }
+
+    @Test
+    public void tenantsHaveSeparateStates() {
+        assertEquals(StateStore.INITIAL_STATE, store.advance("a", "jobs/1", s -> "JobConverting"));
+
+        assertEquals("JobConverting", store.state("a", "jobs/1"));
+        assertEquals(StateStore.INITIAL_STATE, store.state("b", "jobs/1"));
+    }
+
+    @Test
+    public void resetOnlyAffectsOneTenant() {
+        store.advance("a", "jobs/1", s -> "JobConverting");
+        store.advance("b", "jobs/1", s -> "JobCompleted");
+
+        store.reset("a");
+
+        assertEquals(StateStore.INITIAL_STATE, store.state("a", "jobs/1"));
+        assertEquals("JobCompleted", store.state("b", "jobs/1"));
+        assertEquals(Map.of("jobs/1", "JobCompleted"), store.states("b"));
+    }
+
+    @Test
+    public void concurrentAdvancesAreNotLost() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.submit(() -> store.advance("a", "counter", s -> String.valueOf(StateStore.INITIAL_STATE.equals(s) ? 1 : Integer.parseInt(s) + 1)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals("10000", store.state("a", "counter"));
+    }
+}
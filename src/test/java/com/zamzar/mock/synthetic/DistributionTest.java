@@ -0,0 +1,40 @@
+package com.zamzar.mock.synthetic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistributionTest {
+
+    @Test
+    public void picksValuesInProportionToTheirWeights() {
+        final Distribution distribution = Distribution.parse("a=70, b=30, c=0");
+        final SplittableRandom random = new SplittableRandom(0);
+
+        final Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(distribution.pick(random), 1, Integer::sum);
+        }
+
+        assertEquals(7_000, counts.get("a"), 300);
+        assertEquals(3_000, counts.get("b"), 300);
+        assertNull(counts.get("c"));
+    }
+
+    @Test
+    public void valuesWithoutWeightsAreEquallyLikely() {
+        assertEquals(List.of("a", "b"), Distribution.parse("a,b").getValues());
+    }
+
+    @Test
+    public void rejectsMalformedDistributions() {
+        assertThrows(IllegalArgumentException.class, () -> Distribution.parse("a=x"));
+        assertThrows(IllegalArgumentException.class, () -> Distribution.parse("a=0"));
+        assertThrows(IllegalArgumentException.class, () -> Distribution.parse(""));
+    }
+}
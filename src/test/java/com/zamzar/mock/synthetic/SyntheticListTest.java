@@ -0,0 +1,123 @@
+package com.zamzar.mock.synthetic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zamzar.mock.pagination.Anchor;
+import com.zamzar.mock.pagination.IndexedList;
+import com.zamzar.mock.pagination.PageCoordinates;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticListTest {
+
+    protected static final Predicate<JsonNode> ALL = n -> true;
+    protected static final Predicate<JsonNode> SUCCESSFUL = n -> "successful".equals(n.get("status").asText());
+
+    protected final SyntheticFiles files = new SyntheticFiles(1000, 50, 1, "key", List.of("mp3", "doc"));
+    protected final SyntheticJobs jobs = new SyntheticJobs(
+        1000, 200, 1, files, Map.of("mp3", List.of("txt", "wav"), "doc", List.of("pdf")), Distribution.parse(SyntheticJobs.DEFAULT_STATUSES), 4
+    );
+
+    @Test
+    public void itemsAreDeterministic() {
+        final SyntheticJobs same = new SyntheticJobs(
+            1000, 200, 1, files, Map.of("mp3", List.of("txt", "wav"), "doc", List.of("pdf")), Distribution.parse(SyntheticJobs.DEFAULT_STATUSES), 4
+        );
+
+        assertEquals(jobs.generate(1042), same.generate(1042));
+        assertNotEquals(jobs.generate(1042), jobs.generate(1043));
+        assertTrue(jobs.get(999).isEmpty());
+        assertTrue(jobs.get(1200).isEmpty());
+    }
+
+    @Test
+    public void jobsConvertGeneratedFiles() {
+        final JsonNode job = jobs.generate(1001);
+        final JsonNode sourceFile = job.get("source_file");
+        final JsonNode file = files.generate(sourceFile.get("id").asLong());
+
+        assertEquals(file.get("name"), sourceFile.get("name"));
+        assertEquals(file.get("size"), sourceFile.get("size"));
+    }
+
+    @Test
+    public void generatedItemsComeBeforeExamplesInDescendingOrder() {
+        final List<JsonNode> list = jobs.list(examples(3, 2, 1), false, ALL);
+
+        assertEquals(203, list.size());
+        assertEquals(1199, list.get(0).get("id").asLong());
+        assertEquals(1000, list.get(199).get("id").asLong());
+        assertEquals(3, list.get(200).get("id").asLong());
+        assertEquals(1, list.get(202).get("id").asLong());
+    }
+
+    @Test
+    public void generatedItemsComeAfterExamplesInAscendingOrder() {
+        final List<JsonNode> list = jobs.list(examples(1, 2, 3), true, ALL);
+
+        assertEquals(1, list.get(0).get("id").asLong());
+        assertEquals(1000, list.get(3).get("id").asLong());
+        assertEquals(1199, list.get(202).get("id").asLong());
+    }
+
+    @Test
+    public void filtersGeneratedItems() {
+        final List<JsonNode> list = jobs.list(List.of(), false, SUCCESSFUL);
+
+        final long expected = ids(jobs.list(List.of(), false, ALL)).stream()
+            .filter(id -> SUCCESSFUL.test(jobs.generate(id)))
+            .count();
+        assertEquals(expected, list.size());
+        assertTrue(list.stream().allMatch(SUCCESSFUL));
+    }
+
+    @Test
+    public void pagesLikeAMaterializedList() {
+        for (Predicate<JsonNode> filter : List.of(ALL, SUCCESSFUL)) {
+            final List<JsonNode> generated = jobs.list(examples(3, 2, 1), false, filter);
+            final List<JsonNode> materialized = new ArrayList<>(generated);
+            final IndexedList indexed = new IndexedList(generated, "id");
+
+            for (JsonNode item : List.of(materialized.get(0), materialized.get(17), materialized.get(materialized.size() - 2))) {
+                final String ref = item.get("id").asText();
+                for (PageCoordinates coordinates : new PageCoordinates[]{
+                    new PageCoordinates(Anchor.after(ref), 10),
+                    new PageCoordinates(Anchor.before(ref), 10)
+                }) {
+                    assertEquals(coordinates.applyTo(materialized, "id"), coordinates.applyTo(indexed), coordinates.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void doesNotFindIdsThatAreFilteredOutOrNotGenerated() {
+        final List<JsonNode> all = jobs.list(List.of(), false, ALL);
+        final JsonNode unsuccessful = all.stream().filter(SUCCESSFUL.negate()).findFirst().orElseThrow();
+
+        final IndexedList successful = new IndexedList(jobs.list(List.of(), false, SUCCESSFUL), "id");
+        assertEquals(-1, successful.positionOf(unsuccessful.get("id").asText()));
+        assertEquals(-1, successful.positionOf("1200"));
+        assertEquals(-1, successful.positionOf("abc"));
+    }
+
+    protected static List<JsonNode> examples(long... ids) {
+        final ObjectMapper mapper = new ObjectMapper();
+        final List<JsonNode> examples = new ArrayList<>();
+        for (long id : ids) {
+            examples.add(mapper.createObjectNode().put("id", id).put("status", "successful"));
+        }
+        return examples;
+    }
+
+    protected static List<Long> ids(List<JsonNode> items) {
+        return items.stream().map(n -> n.get("id").asLong()).collect(Collectors.toList());
+    }
+}
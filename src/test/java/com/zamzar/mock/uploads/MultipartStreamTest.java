@@ -0,0 +1,107 @@
+package com.zamzar.mock.uploads;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultipartStreamTest {
+
+    protected static final String BOUNDARY = "----boundary123";
+
+    @Test
+    public void readsBoundaryFromContentType() {
+        assertEquals(Optional.of("abc"), MultipartStream.boundary("multipart/form-data; boundary=abc"));
+        assertEquals(Optional.of("a b"), MultipartStream.boundary("Multipart/Form-Data; charset=utf-8; boundary=\"a b\""));
+        assertEquals(Optional.empty(), MultipartStream.boundary("application/x-www-form-urlencoded"));
+        assertEquals(Optional.empty(), MultipartStream.boundary(null));
+    }
+
+    @Test
+    public void readsPartsInOrder() throws IOException {
+        final MultipartStream parts = new MultipartStream(body(
+            "Content-Disposition: form-data; name=\"name\"\r\n\r\nreport.pdf",
+            "Content-Disposition: form-data; name=\"content\"; filename=\"a.txt\"\r\nContent-Type: text/plain\r\n\r\nhello\r\nworld"
+        ), BOUNDARY);
+
+        final MultipartStream.Part name = parts.next();
+        assertEquals("name", name.getName());
+        assertNull(name.getFilename());
+        assertEquals("report.pdf", new String(name.getBody().readAllBytes(), StandardCharsets.UTF_8));
+
+        final MultipartStream.Part content = parts.next();
+        assertEquals("content", content.getName());
+        assertEquals("a.txt", content.getFilename());
+        assertEquals("text/plain", content.getHeaders().get("content-type"));
+        assertEquals("hello\r\nworld", new String(content.getBody().readAllBytes(), StandardCharsets.UTF_8));
+
+        assertNull(parts.next());
+    }
+
+    @Test
+    public void streamsPartsLargerThanItsBuffer() throws IOException {
+        final byte[] file = new byte[MultipartStream.BUFFER_SIZE * 5 + 17];
+        new Random(42).nextBytes(file);
+        // a near miss of the delimiter, split across reads, is part of the content
+        final byte[] nearMiss = ("\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1)).getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(nearMiss, 0, file, MultipartStream.BUFFER_SIZE - 3, nearMiss.length);
+
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"content\"; filename=\"x\"\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        body.write(file);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+
+        final MultipartStream parts = new MultipartStream(new ByteArrayInputStream(body.toByteArray()), BOUNDARY);
+        final ByteArrayOutputStream read = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1000]; // smaller reads than the buffer, to check that none are lost
+        int count;
+        final MultipartStream.Part part = parts.next();
+        while ((count = part.getBody().read(buffer)) >= 0) {
+            read.write(buffer, 0, count);
+        }
+
+        assertArrayEquals(file, read.toByteArray());
+        assertNull(parts.next());
+    }
+
+    @Test
+    public void skipsPreambleAndUnreadParts() throws IOException {
+        final MultipartStream parts = new MultipartStream(new ByteArrayInputStream((
+            "ignored preamble\r\n" +
+            "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"a\"\r\n\r\n1\r\n" +
+            "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"b\"\r\n\r\n2\r\n" +
+            "--" + BOUNDARY + "--\r\n"
+        ).getBytes(StandardCharsets.ISO_8859_1)), BOUNDARY);
+
+        assertEquals("a", parts.next().getName());
+        final MultipartStream.Part b = parts.next();
+        assertEquals("b", b.getName());
+        assertEquals("2", new String(b.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        assertNull(parts.next());
+    }
+
+    @Test
+    public void rejectsTruncatedBody() throws IOException {
+        final MultipartStream parts = new MultipartStream(new ByteArrayInputStream((
+            "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"content\"; filename=\"x\"\r\n\r\nthe client went away"
+        ).getBytes(StandardCharsets.ISO_8859_1)), BOUNDARY);
+
+        final MultipartStream.Part part = parts.next();
+        assertThrows(IOException.class, () -> part.getBody().readAllBytes());
+    }
+
+    protected static ByteArrayInputStream body(String... parts) {
+        final StringBuilder body = new StringBuilder();
+        for (String part : parts) {
+            body.append("--").append(BOUNDARY).append("\r\n").append(part).append("\r\n");
+        }
+        body.append("--").append(BOUNDARY).append("--\r\n");
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
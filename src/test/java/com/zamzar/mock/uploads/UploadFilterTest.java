@@ -0,0 +1,53 @@
+package com.zamzar.mock.uploads;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UploadFilterTest {
+
+    @Test
+    public void rewrittenBodyCanBeReadAsynchronously() throws IOException {
+        final HttpServletRequest original = (HttpServletRequest) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[]{HttpServletRequest.class},
+            (proxy, method, args) -> null
+        );
+        final ServletInputStream in = new UploadFilter.RewrittenRequest(original, "body".getBytes(StandardCharsets.UTF_8), "token").getInputStream();
+
+        final ByteArrayOutputStream read = new ByteArrayOutputStream();
+        final List<String> calls = new ArrayList<>();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("data");
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        assertEquals(List.of("data", "done"), calls);
+        assertEquals("body", read.toString(StandardCharsets.UTF_8));
+    }
+}
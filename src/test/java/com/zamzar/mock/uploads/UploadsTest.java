@@ -0,0 +1,91 @@
+package com.zamzar.mock.uploads;
+
+import com.zamzar.mock.content.FileContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UploadsTest {
+
+    @TempDir
+    protected Path directory;
+
+    @Test
+    public void storesContentWithItsSizeAndChecksum() throws IOException {
+        final Uploads uploads = new Uploads(directory, FileContent.Transfer.STREAM);
+
+        final Upload upload = uploads.store(stream("hello"), "hello.txt");
+
+        assertEquals("hello.txt", upload.getFilename());
+        assertEquals(5, upload.getSize());
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", upload.getChecksum());
+        assertEquals("\"" + upload.getChecksum() + "\"", upload.getETag());
+        try (InputStream in = upload.getStream()) {
+            assertEquals("hello", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void claimsHeldUploadOnce() throws IOException {
+        final Uploads uploads = new Uploads(directory, FileContent.Transfer.STREAM);
+        final Upload upload = uploads.store(stream("hello"), "hello.txt");
+
+        final String token = uploads.hold(upload);
+
+        assertEquals(Optional.of(upload), uploads.claim(token));
+        assertEquals(Optional.empty(), uploads.claim(token));
+    }
+
+    @Test
+    public void servesAttachedUploadsById() throws IOException {
+        final Uploads uploads = new Uploads(directory, FileContent.Transfer.STREAM);
+        final Upload upload = uploads.store(stream("hello"), "hello.txt");
+
+        uploads.attach(8, upload);
+
+        assertEquals(Optional.of(upload), uploads.get(8));
+        assertEquals(Optional.empty(), uploads.get(9));
+    }
+
+    @Test
+    public void deletesDiscardedAndClearedUploads() throws IOException {
+        final Uploads uploads = new Uploads(directory, FileContent.Transfer.STREAM);
+        final Upload discarded = uploads.store(stream("a"), "a");
+        final Upload attached = uploads.store(stream("b"), "b");
+        uploads.attach(8, attached);
+
+        uploads.discard(discarded);
+        assertFalse(Files.exists(discarded.getPath()));
+        assertTrue(Files.exists(attached.getPath()));
+
+        uploads.clear();
+        assertFalse(Files.exists(attached.getPath()));
+        assertEquals(Optional.empty(), uploads.get(8));
+    }
+
+    @Test
+    public void deletesReleasedUploads() throws IOException {
+        final Uploads uploads = new Uploads(directory, FileContent.Transfer.STREAM);
+        final Upload upload = uploads.store(stream("hello"), "hello.txt");
+        uploads.attach(8, upload);
+
+        uploads.release(8);
+        uploads.release(9);
+
+        assertFalse(Files.exists(upload.getPath()));
+        assertEquals(Optional.empty(), uploads.get(8));
+    }
+
+    protected static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}